@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+import static java.lang.System.Logger.Level.ERROR;
+
+/**
+ * <p>The default implementation of the {@link CloseableBackgroundCloserType}
+ * interface.</p>
+ *
+ * <p>Resources are held in an {@link ArrayBlockingQueue} and closed by a
+ * fixed number of worker threads created with the service's
+ * {@link ThreadFactory}. On JDK 21 and newer, passing
+ * {@code Thread.ofVirtual().factory()} closes resources on virtual threads.
+ * If the service has no monitor, failures are logged instead.</p>
+ */
+
+@ThreadSafe
+public final class CloseableBackgroundCloser
+  implements CloseableBackgroundCloserType
+{
+  private static final System.Logger LOG =
+    System.getLogger(CloseableBackgroundCloser.class.getName());
+
+  private static final AutoCloseable STOP = () -> { };
+  private static final VarHandle CLOSED;
+
+  static {
+    try {
+      CLOSED = MethodHandles.lookup()
+        .findVarHandle(
+          CloseableBackgroundCloser.class, "closed", boolean.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final ArrayBlockingQueue<AutoCloseable> queue;
+  private final CloseableMonitorType monitor;
+  private final List<Thread> workers;
+  private final int capacity;
+  private volatile boolean closed;
+
+  private CloseableBackgroundCloser(
+    final ThreadFactory inThreads,
+    final int inWorkers,
+    final int inCapacity,
+    final CloseableMonitorType inMonitor)
+  {
+    Objects.requireNonNull(inThreads, "threads");
+
+    this.monitor =
+      Objects.requireNonNull(inMonitor, "monitor");
+
+    if (inWorkers < 1) {
+      throw new IllegalArgumentException(
+        "Worker count must be positive (received %d)".formatted(
+          Integer.valueOf(inWorkers))
+      );
+    }
+    if (inCapacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity must be positive (received %d)".formatted(
+          Integer.valueOf(inCapacity))
+      );
+    }
+
+    this.capacity =
+      inCapacity;
+    this.queue =
+      new ArrayBlockingQueue<>(inCapacity);
+    this.workers =
+      new ArrayList<>(inWorkers);
+
+    for (int index = 0; index < inWorkers; ++index) {
+      this.workers.add(
+        Objects.requireNonNull(inThreads.newThread(this::work), "thread"));
+    }
+  }
+
+  /**
+   * Create a new background closer. The worker threads are started
+   * immediately.
+   *
+   * @param threads  A factory of worker threads
+   * @param workers  The number of worker threads
+   * @param capacity The maximum number of resources waiting to be closed
+   * @param monitor  A monitor that observes closing and receives failures
+   *
+   * @return A new background closer
+   */
+
+  public static CloseableBackgroundCloserType create(
+    final ThreadFactory threads,
+    final int workers,
+    final int capacity,
+    final CloseableMonitorType monitor)
+  {
+    final var closer =
+      new CloseableBackgroundCloser(threads, workers, capacity, monitor);
+    for (final var thread : closer.workers) {
+      thread.start();
+    }
+    return closer;
+  }
+
+  /**
+   * Create a new background closer. The worker threads are started
+   * immediately, and failures are logged.
+   *
+   * @param threads  A factory of worker threads
+   * @param workers  The number of worker threads
+   * @param capacity The maximum number of resources waiting to be closed
+   *
+   * @return A new background closer
+   */
+
+  public static CloseableBackgroundCloserType create(
+    final ThreadFactory threads,
+    final int workers,
+    final int capacity)
+  {
+    return create(threads, workers, capacity, CloseableMonitors.none());
+  }
+
+  @Override
+  public void submit(
+    final AutoCloseable resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    if (this.closed) {
+      this.closeNow(resource);
+      return;
+    }
+
+    try {
+      this.queue.put(resource);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.closeNow(resource);
+      return;
+    }
+
+    /*
+     * If the service was closed whilst the resource was being queued, the
+     * workers may already have stopped. Reclaim the resource and close it
+     * here, unless a worker or the closing thread has already taken it.
+     */
+
+    if (this.closed && this.queue.remove(resource)) {
+      this.closeNow(resource);
+    }
+  }
+
+  @Override
+  public int pending()
+  {
+    return this.queue.size();
+  }
+
+  @Override
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  @Override
+  public void close()
+  {
+    if (!CLOSED.compareAndSet(this, false, true)) {
+      return;
+    }
+
+    boolean interrupted = false;
+    for (int index = 0; index < this.workers.size(); ++index) {
+      interrupted |= this.putUninterruptibly(STOP);
+    }
+    for (final var thread : this.workers) {
+      interrupted |= joinUninterruptibly(thread);
+    }
+
+    while (true) {
+      final AutoCloseable resource = this.queue.poll();
+      if (resource == null) {
+        break;
+      }
+      if (resource != STOP) {
+        this.closeNow(resource);
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean putUninterruptibly(
+    final AutoCloseable resource)
+  {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        this.queue.put(resource);
+        return interrupted;
+      } catch (final InterruptedException e) {
+        interrupted = true;
+      }
+    }
+  }
+
+  private static boolean joinUninterruptibly(
+    final Thread thread)
+  {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        thread.join();
+        return interrupted;
+      } catch (final InterruptedException e) {
+        interrupted = true;
+      }
+    }
+  }
+
+  private void work()
+  {
+    while (true) {
+      final AutoCloseable resource;
+      try {
+        resource = this.queue.take();
+      } catch (final InterruptedException e) {
+        if (this.closed) {
+          return;
+        }
+        continue;
+      }
+
+      if (resource == STOP) {
+        return;
+      }
+
+      /*
+       * A worker that died here would leave the queue undrained, and
+       * close() would then block forever posting STOP to a full queue.
+       */
+
+      try {
+        this.closeNow(resource);
+      } catch (final Throwable e) {
+        LOG.log(ERROR, "Closing resource " + resource + " raised an error.", e);
+      }
+    }
+  }
+
+  private void closeNow(
+    final AutoCloseable resource)
+  {
+    final Exception failure =
+      CloseableClosing.closeOne(this.monitor, resource);
+
+    if (failure != null && this.monitor == CloseableMonitors.none()) {
+      LOG.log(ERROR, "Failed to close resource " + resource, failure);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A service that closes resources on a pool of background threads, so
+ * that the latency of closing resources is not added to the threads that
+ * used them.</p>
+ *
+ * <p>The service holds a bounded queue of resources waiting to be closed.
+ * When the queue is full, submitting a resource blocks until space is
+ * available, so that callers are slowed down rather than allowing an
+ * unbounded backlog of open resources to accumulate. Failures are reported
+ * to the service's {@link CloseableMonitorType}, as there is no caller left
+ * to receive them.</p>
+ */
+
+@ProviderType
+public interface CloseableBackgroundCloserType extends AutoCloseable
+{
+  /**
+   * <p>Submit a resource to be closed in the background.</p>
+   *
+   * <p>If the queue is full, this method blocks until space is available.
+   * If the calling thread is interrupted whilst waiting, or if this service
+   * has been closed, the resource is closed on the calling thread instead.
+   * In all cases, failures are reported to the service's monitor.</p>
+   *
+   * @param resource The resource
+   */
+
+  void submit(AutoCloseable resource);
+
+  /**
+   * @return The number of resources waiting to be closed
+   */
+
+  int pending();
+
+  /**
+   * @return The maximum number of resources that may be waiting to be
+   * closed before {@link #submit(AutoCloseable)} blocks
+   */
+
+  int capacity();
+
+  /**
+   * Stop accepting resources, wait for every resource that has been
+   * submitted to be closed, and then stop the worker threads.
+   */
+
+  @Override
+  void close();
+}
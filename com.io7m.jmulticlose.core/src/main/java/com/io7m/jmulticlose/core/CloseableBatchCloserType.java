@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ConsumerType;
+
+import java.util.List;
+
+/**
+ * <p>A function that releases many resources of the same kind in a single
+ * call, such as freeing a set of native handles with one library call, or
+ * returning a set of buffers to an allocator.</p>
+ *
+ * <p>Resources are registered with
+ * {@link CloseableCollectionType#addBatched(CloseableBatchCloserType,
+ * Object)}. Collections that support batching pass runs of consecutively
+ * registered resources that share the same closer (compared by identity)
+ * to the closer in one call; collections that do not support batching
+ * pass each resource to the closer in a list of its own.</p>
+ *
+ * @param <T> The type of resources
+ */
+
+@ConsumerType
+@FunctionalInterface
+public interface CloseableBatchCloserType<T>
+{
+  /**
+   * Release the given resources. The resources are given in the order in
+   * which they would otherwise have been closed (most recently added
+   * first). Implementations should attempt to release every resource even
+   * if releasing some of them fails, and should then raise an exception.
+   *
+   * @param resources The resources
+   *
+   * @throws Exception If releasing any of the resources fails
+   */
+
+  void closeAll(List<? extends T> resources)
+    throws Exception;
+}
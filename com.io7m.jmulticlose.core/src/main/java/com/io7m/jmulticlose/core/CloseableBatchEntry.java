@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A resource registered with a batch closer. An entry closed on its own
+ * passes its resource to the closer in a list of its own; collections that
+ * support batching combine adjacent entries into a single {@link Run}.
+ *
+ * @param <T> The type of resource
+ */
+
+final class CloseableBatchEntry<T> implements AutoCloseable
+{
+  private final CloseableBatchCloserType<? super T> closer;
+  private final T value;
+
+  CloseableBatchEntry(
+    final CloseableBatchCloserType<? super T> inCloser,
+    final T inValue)
+  {
+    this.closer =
+      Objects.requireNonNull(inCloser, "closer");
+    this.value =
+      Objects.requireNonNull(inValue, "value");
+  }
+
+  /**
+   * @param entry A collection entry
+   * @param other Another collection entry
+   *
+   * @return {@code true} if both entries are batch entries with the same
+   * closer
+   */
+
+  static boolean sameCloser(
+    final AutoCloseable entry,
+    final AutoCloseable other)
+  {
+    return entry instanceof CloseableBatchEntry<?> a
+      && other instanceof CloseableBatchEntry<?> b
+      && a.closer == b.closer;
+  }
+
+  /**
+   * @return The value passed to the closer
+   */
+
+  T value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    this.closer.closeAll(List.of(this.value));
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.value.toString();
+  }
+
+  /**
+   * A run of entries that share the same closer, closed with a single call
+   * to the closer. The run itself is never reported to monitors; each of
+   * its entries is reported individually.
+   */
+
+  static final class Run implements AutoCloseable
+  {
+    private final CloseableBatchCloserType<Object> closer;
+    private final List<CloseableBatchEntry<?>> entries;
+    private final List<Object> values;
+
+    @SuppressWarnings("unchecked")
+    Run(
+      final CloseableBatchEntry<?> first)
+    {
+      this.closer = (CloseableBatchCloserType<Object>) first.closer;
+      this.entries = new ArrayList<>();
+      this.values = new ArrayList<>();
+    }
+
+    /**
+     * @return The entries in the run, in closing order
+     */
+
+    List<CloseableBatchEntry<?>> entries()
+    {
+      return this.entries;
+    }
+
+    /**
+     * Add an entry to the run. The entry must have the same closer as the
+     * first entry.
+     *
+     * @param entry The entry
+     */
+
+    void add(
+      final AutoCloseable entry)
+    {
+      final var batchEntry = (CloseableBatchEntry<?>) entry;
+      this.entries.add(batchEntry);
+      this.values.add(batchEntry.value);
+    }
+
+    @Override
+    public void close()
+      throws Exception
+    {
+      this.closer.closeAll(this.values);
+    }
+
+    @Override
+    public String toString()
+    {
+      return "[CloseableBatch (%d resources)]".formatted(
+        Integer.valueOf(this.values.size()));
+    }
+  }
+}
@@ -0,0 +1,504 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableBoundedTrackerType}
+ * interface.</p>
+ *
+ * <p>Resources are held in an intrusive doubly-linked list ordered from the
+ * oldest (or least recently used) resource to the newest, indexed by the
+ * identity of each resource. Adding, removing, touching, and evicting
+ * resources are all constant-time operations performed whilst holding a
+ * single lock; evicted resources are closed after the lock has been
+ * released.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableBoundedTracker<E extends Exception>
+  implements CloseableBoundedTrackerType<E>
+{
+  private static final long BLOCK_POLL_NANOS =
+    TimeUnit.MILLISECONDS.toNanos(10L);
+  private static final int PRUNE_BATCH = 64;
+
+  private final Supplier<E> exceptions;
+  private final int capacity;
+  private final CloseableTrackerCapacityPolicy policy;
+  private final ReentrantLock lock;
+  private final Condition notFull;
+  private final ConcurrentLinkedQueue<Exception> evictionFailures;
+  private final CloseableMonitorType monitor;
+  @GuardedBy("lock")
+  private final IdentityHashMap<Object, Node> index;
+  @GuardedBy("lock")
+  private final Node sentinel;
+  @GuardedBy("lock")
+  private Node pruned;
+
+  private CloseableBoundedTracker(
+    final Supplier<E> in_exceptions,
+    final int in_capacity,
+    final CloseableTrackerCapacityPolicy in_policy,
+    final CloseableMonitorType in_monitor)
+  {
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.policy =
+      Objects.requireNonNull(in_policy, "policy");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+
+    if (in_capacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity must be positive (received %d)".formatted(
+          Integer.valueOf(in_capacity))
+      );
+    }
+
+    this.capacity =
+      in_capacity;
+    this.lock =
+      new ReentrantLock();
+    this.notFull =
+      this.lock.newCondition();
+    this.evictionFailures =
+      new ConcurrentLinkedQueue<>();
+    this.index =
+      new IdentityHashMap<>();
+    this.sentinel =
+      new Node(null, null);
+    this.pruned =
+      this.sentinel;
+  }
+
+  /**
+   * Create a new bounded tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param capacity   The maximum number of live resources
+   * @param policy     The policy applied when the tracker is at capacity
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableBoundedTrackerType<E> create(
+    final Supplier<E> exceptions,
+    final int capacity,
+    final CloseableTrackerCapacityPolicy policy)
+  {
+    return create(exceptions, capacity, policy, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new bounded tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param capacity   The maximum number of live resources
+   * @param policy     The policy applied when the tracker is at capacity
+   * @param monitor    A monitor that observes the tracker
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableBoundedTrackerType<E> create(
+    final Supplier<E> exceptions,
+    final int capacity,
+    final CloseableTrackerCapacityPolicy policy,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableBoundedTracker<>(exceptions, capacity, policy, monitor);
+  }
+
+  /**
+   * Create a new bounded tracker.
+   *
+   * @param capacity The maximum number of live resources
+   * @param policy   The policy applied when the tracker is at capacity
+   *
+   * @return A new tracker
+   */
+
+  public static CloseableBoundedTrackerType<ClosingResourceFailedException> create(
+    final int capacity,
+    final CloseableTrackerCapacityPolicy policy)
+  {
+    return create(
+      () -> new ClosingResourceFailedException(
+        "One or more resources could not be closed."),
+      capacity,
+      policy
+    );
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final ArrayList<CloseableType> resources;
+
+    this.lock.lock();
+    try {
+      resources = new ArrayList<>(this.index.size());
+      for (Node n = this.sentinel.prev; n != this.sentinel; n = n.prev) {
+        resources.add(n.entry);
+      }
+      this.sentinel.next = this.sentinel;
+      this.sentinel.prev = this.sentinel;
+      this.pruned = this.sentinel;
+      this.index.clear();
+      this.notFull.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+
+    E e = null;
+    for (final var resource : resources) {
+      e = CloseableClosing.close(this.monitor, resource, this.exceptions, e);
+    }
+
+    while (true) {
+      final Exception re = this.evictionFailures.poll();
+      if (re == null) {
+        break;
+      }
+      if (e == null) {
+        e = this.exceptions.get();
+      }
+      e.addSuppressed(re);
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.index.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The snapshot is taken whilst holding the tracker's lock, and is
+   * therefore an exact point-in-time view of the tracker. Concurrent
+   * additions and removals are delayed for the time taken to copy the
+   * tracker's contents.</p>
+   */
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    final var entries = new ArrayList<CloseableType>();
+    this.lock.lock();
+    try {
+      for (Node n = this.sentinel.prev; n != this.sentinel; n = n.prev) {
+        entries.add(n.entry);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    return CloseableTracker.snapshotOf(entries);
+  }
+
+  @Override
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  @Override
+  public CloseableTrackerCapacityPolicy policy()
+  {
+    return this.policy;
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+    this.insert(resource, resource);
+    return resource;
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+    this.insert(resource, null);
+    return resource;
+  }
+
+  @Override
+  public <T extends CloseableType> void remove(
+    final T resource)
+  {
+    this.removeKey(resource);
+  }
+
+  @Override
+  public <T extends AutoCloseable> void release(
+    final T resource)
+  {
+    this.removeKey(resource);
+  }
+
+  private void removeKey(
+    final AutoCloseable resource)
+  {
+    this.lock.lock();
+    try {
+      final Node node = this.index.remove(resource);
+      if (node != null) {
+        unlink(node);
+        this.monitor.onRemove(resource);
+      }
+      this.pruneClosedOldest();
+      this.notFull.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public <T extends AutoCloseable> void touch(
+    final T resource)
+  {
+    if (this.policy != CloseableTrackerCapacityPolicy.CLOSE_LEAST_RECENTLY_USED) {
+      return;
+    }
+
+    this.lock.lock();
+    try {
+      final Node node = this.index.get(resource);
+      if (node != null) {
+        unlink(node);
+        this.linkLast(node);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void insert(
+    final AutoCloseable key,
+    final CloseableType entry)
+  {
+    final Node evicted;
+
+    this.lock.lock();
+    try {
+      final Node existing = this.index.get(key);
+      if (existing != null) {
+        if (this.policy == CloseableTrackerCapacityPolicy.CLOSE_LEAST_RECENTLY_USED) {
+          unlink(existing);
+          this.linkLast(existing);
+        }
+        return;
+      }
+
+      evicted = this.makeRoom();
+
+      final CloseableType actual;
+      if (entry == null) {
+        actual = new CloseableWrapper<>(key);
+      } else {
+        actual = entry;
+      }
+
+      final Node node = new Node(key, actual);
+      this.linkLast(node);
+      this.index.put(key, node);
+      this.monitor.onAdd(key);
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (evicted != null) {
+      final Exception failure =
+        CloseableClosing.closeOne(this.monitor, evicted.entry);
+      if (failure != null) {
+        this.evictionFailures.add(failure);
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  private Node makeRoom()
+  {
+    while (this.isFull()) {
+      this.pruneClosedOldest();
+      if (!this.isFull()) {
+        break;
+      }
+
+      if (this.policy == CloseableTrackerCapacityPolicy.FAIL) {
+        throw new IllegalStateException(
+          "Tracker is at capacity (%d)".formatted(
+            Integer.valueOf(this.capacity))
+        );
+      }
+
+      if (this.policy == CloseableTrackerCapacityPolicy.BLOCK) {
+        this.awaitCapacity();
+        continue;
+      }
+
+      final Node oldest = this.sentinel.next;
+      unlink(oldest);
+      this.index.remove(oldest.key);
+      return oldest;
+    }
+    return null;
+  }
+
+  @GuardedBy("lock")
+  private void awaitCapacity()
+  {
+    /*
+     * Removing or releasing a resource signals the tracker. Resources that
+     * have been closed without being removed do not, so the wait is bounded
+     * and a few more resources are checked each time the wait times out,
+     * resuming where the previous check stopped.
+     */
+
+    try {
+      if (!this.notFull.await(BLOCK_POLL_NANOS, TimeUnit.NANOSECONDS)) {
+        this.pruneClosedSome();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(
+        "Interrupted whilst waiting for tracker capacity.", e);
+    }
+  }
+
+  @GuardedBy("lock")
+  private void pruneClosedOldest()
+  {
+    while (this.sentinel.next != this.sentinel) {
+      final Node oldest = this.sentinel.next;
+      if (!oldest.entry.isClosed()) {
+        return;
+      }
+      unlink(oldest);
+      this.index.remove(oldest.key);
+      this.monitor.onRemove(oldest.key);
+    }
+  }
+
+  @GuardedBy("lock")
+  private void pruneClosedSome()
+  {
+    /*
+     * Unlinked nodes have a null successor, in which case the check starts
+     * again from the oldest resource.
+     */
+
+    Node n = this.pruned.next;
+    if (n == null) {
+      n = this.sentinel.next;
+    }
+
+    for (int count = 0; count < PRUNE_BATCH && n != this.sentinel; ++count) {
+      final Node next = n.next;
+      if (n.entry.isClosed()) {
+        unlink(n);
+        this.index.remove(n.key);
+        this.monitor.onRemove(n.key);
+      } else {
+        this.pruned = n;
+      }
+      n = next;
+    }
+
+    if (n == this.sentinel) {
+      this.pruned = this.sentinel;
+    }
+  }
+
+  @GuardedBy("lock")
+  private boolean isFull()
+  {
+    return this.index.size() >= this.capacity;
+  }
+
+  @GuardedBy("lock")
+  private void linkLast(
+    final Node node)
+  {
+    final Node last = this.sentinel.prev;
+    node.prev = last;
+    node.next = this.sentinel;
+    last.next = node;
+    this.sentinel.prev = node;
+  }
+
+  private static void unlink(
+    final Node node)
+  {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = null;
+    node.next = null;
+  }
+
+  private static final class Node
+  {
+    private final AutoCloseable key;
+    private final CloseableType entry;
+    private Node prev;
+    private Node next;
+
+    Node(
+      final AutoCloseable inKey,
+      final CloseableType inEntry)
+    {
+      this.key = inKey;
+      this.entry = inEntry;
+      this.prev = this;
+      this.next = this;
+    }
+  }
+}
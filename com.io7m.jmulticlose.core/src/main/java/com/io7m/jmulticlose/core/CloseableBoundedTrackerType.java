@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A tracker of resources that holds at most {@link #capacity()} live
+ * resources at any one time.</p>
+ *
+ * <p>When a resource is added to a tracker that is at capacity, the tracker
+ * applies its {@link #policy()}: It either closes an existing resource to
+ * make room, blocks the caller until room becomes available, or raises an
+ * {@link IllegalStateException}. Resources closed by eviction are removed
+ * from the tracker; any exceptions raised whilst closing them are added as
+ * <i>suppressed exceptions</i> to the exception raised by {@link #close()}.
+ * </p>
+ *
+ * <p>Resources that are closed without being passed to
+ * {@link #remove(CloseableType)} or {@link #release(AutoCloseable)} continue
+ * to count towards the capacity of the tracker until the tracker notices
+ * that they are closed. The tracker cannot observe the closing of resources
+ * added with {@link #addAuto(AutoCloseable)} at all, so such resources hold
+ * capacity until they are released, evicted, or the tracker is closed.
+ * Callers that require capacity to be released promptly should release
+ * resources explicitly.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableBoundedTrackerType<E extends Exception>
+  extends CloseableTrackerType<E>
+{
+  /**
+   * @return The maximum number of live resources held by the tracker
+   */
+
+  int capacity();
+
+  /**
+   * @return The policy applied when the tracker is at capacity
+   */
+
+  CloseableTrackerCapacityPolicy policy();
+
+  /**
+   * Mark a resource as having been used. This affects the order in which
+   * resources are evicted under the
+   * {@link CloseableTrackerCapacityPolicy#CLOSE_LEAST_RECENTLY_USED} policy,
+   * and has no effect under any other policy. Touching a resource that is
+   * not in the tracker has no effect.
+   *
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   */
+
+  <T extends AutoCloseable> void touch(T resource);
+
+  /**
+   * Remove a resource from this tracker without closing it, releasing the
+   * capacity that it holds and waking a caller blocked waiting for
+   * capacity. Unlike {@link #remove(CloseableType)}, this accepts resources
+   * added with either {@link #add(CloseableType)} or
+   * {@link #addAuto(AutoCloseable)}. Releasing a resource that is not in the
+   * tracker has no effect.
+   *
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   */
+
+  <T extends AutoCloseable> void release(T resource);
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException If the tracker is at capacity and the
+   *                               policy is
+   *                               {@link CloseableTrackerCapacityPolicy#FAIL},
+   *                               or the caller is interrupted whilst
+   *                               waiting for capacity
+   */
+
+  @Override
+  <T extends CloseableType> T add(T resource)
+    throws IllegalStateException;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException If the tracker is at capacity and the
+   *                               policy is
+   *                               {@link CloseableTrackerCapacityPolicy#FAIL},
+   *                               or the caller is interrupted whilst
+   *                               waiting for capacity
+   */
+
+  @Override
+  <T extends AutoCloseable> T addAuto(T resource)
+    throws IllegalStateException;
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Functions to close individual resources on behalf of collections and
+ * trackers.
+ */
+
+final class CloseableClosing
+{
+  private CloseableClosing()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Batched values that are not themselves {@link AutoCloseable} have no
+   * other representation, and are returned as their batch entries.
+   *
+   * @param entry An entry held by a collection or tracker
+   *
+   * @return The resource that was originally added for {@code entry}
+   */
+
+  static AutoCloseable resourceOf(
+    final AutoCloseable entry)
+  {
+    if (entry instanceof CloseableWrapper<?> wrapper) {
+      return wrapper.value();
+    }
+    if (entry instanceof CloseableBatchEntry<?> batch) {
+      final Object value = batch.value();
+      if (value instanceof AutoCloseable) {
+        return (AutoCloseable) value;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Close an entry, reporting to {@code monitor}. If closing fails, the
+   * failure is added as a suppressed exception to {@code existing}, or to a
+   * new exception taken from {@code exceptions} if {@code existing} is
+   * {@code null}.
+   *
+   * @param monitor    The monitor
+   * @param entry      The entry
+   * @param exceptions A supplier of exceptions
+   * @param existing   The exception raised so far, if any
+   * @param <E>        The type of exceptions
+   *
+   * @return The exception raised so far, if any
+   */
+
+  static <E extends Exception> E close(
+    final CloseableMonitorType monitor,
+    final AutoCloseable entry,
+    final Supplier<E> exceptions,
+    final E existing)
+  {
+    final Exception failure = closeOne(monitor, entry);
+    return suppress(failure, exceptions, existing);
+  }
+
+  private static <E extends Exception> E suppress(
+    final Exception failure,
+    final Supplier<E> exceptions,
+    final E existing)
+  {
+    if (failure == null) {
+      return existing;
+    }
+
+    E e = existing;
+    if (e == null) {
+      e = exceptions.get();
+    }
+    e.addSuppressed(failure);
+    return e;
+  }
+
+  /**
+   * Close a run of batch entries with a single call to their closer. Each
+   * entry in the run is reported to {@code monitor} as if it had been
+   * closed on its own, so that monitors see exactly one close for each
+   * resource that was added. A failure of the closer is reported against
+   * every entry in the run, but is added to the resulting exception once.
+   * If the monitor raises an exception on the start of an entry, the run
+   * is not closed, and only the entries whose start was reported are
+   * reported as finished.
+   *
+   * @param monitor    The monitor
+   * @param run        The run
+   * @param exceptions A supplier of exceptions
+   * @param existing   The exception raised so far, if any
+   * @param <E>        The type of exceptions
+   *
+   * @return The exception raised so far, if any
+   */
+
+  static <E extends Exception> E closeRun(
+    final CloseableMonitorType monitor,
+    final CloseableBatchEntry.Run run,
+    final Supplier<E> exceptions,
+    final E existing)
+  {
+    if (monitor == CloseableMonitors.none()) {
+      return close(monitor, run, exceptions, existing);
+    }
+
+    final List<CloseableBatchEntry<?>> entries = run.entries();
+    final int size = entries.size();
+    final AutoCloseable[] resources = new AutoCloseable[size];
+    for (int index = 0; index < size; ++index) {
+      resources[index] = resourceOf(entries.get(index));
+    }
+
+    final long start = System.nanoTime();
+    Exception failure = null;
+    boolean completed = false;
+    int started = 0;
+    try {
+      while (started < size) {
+        monitor.onCloseStarted(resources[started]);
+        ++started;
+      }
+      run.close();
+      completed = true;
+    } catch (final Exception e) {
+      failure = e;
+      completed = true;
+    } finally {
+      final long each = (System.nanoTime() - start) / (long) size;
+      for (int index = 0; index < started; ++index) {
+        finish(monitor, resources[index], each, completed, failure);
+      }
+    }
+
+    return suppress(failure, exceptions, existing);
+  }
+
+  /**
+   * Close an entry, reporting to {@code monitor}.
+   *
+   * @param monitor The monitor
+   * @param entry   The entry
+   *
+   * @return The exception raised by the entry, if any
+   */
+
+  static Exception closeOne(
+    final CloseableMonitorType monitor,
+    final AutoCloseable entry)
+  {
+    if (monitor == CloseableMonitors.none()) {
+      try {
+        entry.close();
+        return null;
+      } catch (final Exception e) {
+        return e;
+      }
+    }
+
+    final AutoCloseable resource = resourceOf(entry);
+    final long start = System.nanoTime();
+    Exception failure = null;
+    boolean completed = false;
+    boolean started = false;
+    try {
+      monitor.onCloseStarted(resource);
+      started = true;
+      entry.close();
+      completed = true;
+    } catch (final Exception e) {
+      failure = e;
+      completed = true;
+    } finally {
+      if (started) {
+        finish(
+          monitor, resource, System.nanoTime() - start, completed, failure);
+      }
+    }
+    return failure;
+  }
+
+  /**
+   * Report the end of a close to {@code monitor}. Every call to
+   * {@link CloseableMonitorType#onCloseStarted(AutoCloseable)} is matched
+   * by exactly one report, even if closing raised an {@link Error}, so that
+   * monitors never retain state for a close that has ended.
+   *
+   * @param monitor   The monitor
+   * @param resource  The resource
+   * @param nanos     The time taken
+   * @param completed {@code true} if closing returned or raised an
+   *                  exception, {@code false} if it raised an error
+   * @param failure   The exception raised, if any
+   */
+
+  private static void finish(
+    final CloseableMonitorType monitor,
+    final AutoCloseable resource,
+    final long nanos,
+    final boolean completed,
+    final Exception failure)
+  {
+    if (!completed) {
+      monitor.onCloseFailed(
+        resource,
+        nanos,
+        new ClosingResourceFailedException("Closing raised an error.")
+      );
+    } else if (failure != null) {
+      monitor.onCloseFailed(resource, nanos, failure);
+    } else {
+      monitor.onClosed(resource, nanos);
+    }
+  }
+}
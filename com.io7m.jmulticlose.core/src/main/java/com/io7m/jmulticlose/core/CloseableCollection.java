@@ -14,17 +14,39 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
+
 package com.io7m.jmulticlose.core;
 
 import net.jcip.annotations.ThreadSafe;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
- * The default implementation of the {@link CloseableCollectionType} interface.
+ * <p>The default implementation of the {@link CloseableCollectionType}
+ * interface.</p>
+ *
+ * <p>Resources are held in a lock-free (Treiber) stack of immutable nodes.
+ * Closing the collection atomically replaces the head of the stack with a
+ * <i>sealed</i> marker, and then closes every resource in the detached
+ * stack. Because {@link #add(AutoCloseable)} only ever pushes onto a stack
+ * that is not sealed, every call to {@code add} is ordered either entirely
+ * before the call to {@link #close()} (in which case the resource is closed
+ * along with the rest of the collection), or entirely after it (in which case
+ * the collection's {@link CloseableLateAddPolicy} applies). No resource can be
+ * added to the collection after it has been drained.</p>
+ *
+ * <p>When the collection is closed, each run of consecutively added
+ * resources that were registered with the same
+ * {@link CloseableBatchCloserType} is released with a single call to the
+ * closer. Runs are closed at their position in the stack, so the order
+ * between batched and unbatched resources is unchanged. Each resource in a
+ * run is still reported to the collection's monitor individually, with the
+ * time taken by the call to the closer divided evenly between them.</p>
  *
  * @param <E> On close failures
  */
@@ -33,18 +55,34 @@ import java.util.function.Supplier;
 public final class CloseableCollection<E extends Exception>
   implements CloseableCollectionType<E>
 {
-  private final ConcurrentLinkedDeque<AutoCloseable> stack;
+  private static final VarHandle HEAD;
+  private static final Node SEALED = new Node(null, null);
+
+  static {
+    try {
+      HEAD = MethodHandles.lookup()
+        .findVarHandle(CloseableCollection.class, "head", Node.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
   private final Supplier<E> exceptions;
-  private final AtomicBoolean closed;
+  private final CloseableMonitorType monitor;
+  private final CloseableLateAddPolicy lateAdds;
+  private volatile Node head;
 
-  private CloseableCollection(final Supplier<E> in_exceptions)
+  CloseableCollection(
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor,
+    final CloseableLateAddPolicy in_lateAdds)
   {
     this.exceptions =
       Objects.requireNonNull(in_exceptions, "exceptions");
-    this.stack =
-      new ConcurrentLinkedDeque<>();
-    this.closed =
-      new AtomicBoolean(false);
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+    this.lateAdds =
+      Objects.requireNonNull(in_lateAdds, "lateAdds");
   }
 
   /**
@@ -59,7 +97,44 @@ public final class CloseableCollection<E extends Exception>
   public static <E extends Exception> CloseableCollectionType<E> create(
     final Supplier<E> exceptions)
   {
-    return new CloseableCollection<>(exceptions);
+    return create(exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new closeable collection.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the collection
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <E extends Exception> CloseableCollectionType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return create(exceptions, monitor, CloseableLateAddPolicy.REJECT);
+  }
+
+  /**
+   * Create a new closeable collection.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the collection
+   * @param lateAdds   The policy applied to resources added after the
+   *                   collection has been closed
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <E extends Exception> CloseableCollectionType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor,
+    final CloseableLateAddPolicy lateAdds)
+  {
+    return new CloseableCollection<>(exceptions, monitor, lateAdds);
   }
 
   /**
@@ -78,38 +153,219 @@ public final class CloseableCollection<E extends Exception>
   public void close()
     throws E
   {
-    if (this.closed.compareAndSet(false, true)) {
-      E e = null;
-      while (!this.stack.isEmpty()) {
-        try {
-          this.stack.pop().close();
-        } catch (final Exception re) {
-          if (e == null) {
-            e = this.exceptions.get();
-          }
-          e.addSuppressed(re);
-        }
-      }
+    final Node top = (Node) HEAD.getAndSet(this, SEALED);
+    if (top == SEALED) {
+      return;
+    }
+    this.closeNodes(top);
+  }
 
-      if (e != null) {
-        throw e;
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The collection is sealed and its contents are detached in constant
+   * time, regardless of the number of resources in the collection.</p>
+   */
+
+  @Override
+  public void closeDeferred(
+    final CloseableBackgroundCloserType closer)
+  {
+    Objects.requireNonNull(closer, "closer");
+
+    final Node top = (Node) HEAD.getAndSet(this, SEALED);
+    if (top == null || top == SEALED) {
+      return;
+    }
+    closer.submit(new Detached(top));
+  }
+
+  private void closeNodes(
+    final Node top)
+    throws E
+  {
+    E e = null;
+    Node node = top;
+    while (node != null) {
+      final Node last = endOfRun(node);
+      if (last == node) {
+        e = CloseableClosing.close(
+          this.monitor, node.resource, this.exceptions, e);
+      } else {
+        e = CloseableClosing.closeRun(
+          this.monitor, run(node, last), this.exceptions, e);
       }
+      node = last.next;
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  /**
+   * @param first A node
+   *
+   * @return The last node of the run of batch entries sharing a closer that
+   * starts at {@code first}, or {@code first} if there is no such run
+   */
+
+  private static Node endOfRun(
+    final Node first)
+  {
+    Node last = first;
+    while (last.next != null
+      && CloseableBatchEntry.sameCloser(first.resource, last.next.resource)) {
+      last = last.next;
+    }
+    return last;
+  }
+
+  private static CloseableBatchEntry.Run run(
+    final Node first,
+    final Node last)
+  {
+    final var run =
+      new CloseableBatchEntry.Run((CloseableBatchEntry<?>) first.resource);
+    for (Node node = first; node != last.next; node = node.next) {
+      run.add(node.resource);
     }
+    return run;
+  }
+
+  /**
+   * Seal the collection without closing anything.
+   *
+   * @return The resources that were in the collection, in closing order, or
+   * an empty list if the collection was already sealed
+   */
+
+  List<AutoCloseable> drain()
+  {
+    final Node top = (Node) HEAD.getAndSet(this, SEALED);
+    if (top == null || top == SEALED) {
+      return List.of();
+    }
+
+    final var resources = new ArrayList<AutoCloseable>(top.depth);
+    for (Node node = top; node != null; node = node.next) {
+      resources.add(node.resource);
+    }
+    return resources;
   }
 
   @Override
   public int size()
   {
-    return this.stack.size();
+    final Node top = this.head;
+    if (top == null || top == SEALED) {
+      return 0;
+    }
+    return top.depth;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The nodes of the underlying stack are immutable, so the snapshot is an
+   * exact point-in-time view of the collection as of a single read of the
+   * head of the stack. Taking a snapshot never blocks or delays concurrent
+   * additions.</p>
+   */
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    final Node top = this.head;
+    if (top == null || top == SEALED) {
+      return List.of();
+    }
+
+    final var resources = new ArrayList<AutoCloseable>(top.depth);
+    for (Node node = top; node != null; node = node.next) {
+      resources.add(node.resource);
+    }
+    return List.copyOf(resources);
   }
 
   @Override
   public <T extends AutoCloseable> T add(final T resource)
   {
-    if (!this.closed.get()) {
-      this.stack.push(Objects.requireNonNull(resource, "resource"));
-      return resource;
+    Objects.requireNonNull(resource, "resource");
+
+    final Node node = new Node(resource, null);
+    while (true) {
+      final Node top = this.head;
+      if (top == SEALED) {
+        return this.addLate(resource);
+      }
+
+      node.next = top;
+      node.depth = top == null ? 1 : top.depth + 1;
+      if (HEAD.compareAndSet(this, top, node)) {
+        this.monitor.onAdd(CloseableClosing.resourceOf(resource));
+        return resource;
+      }
+    }
+  }
+
+  private <T extends AutoCloseable> T addLate(
+    final T resource)
+  {
+    if (this.lateAdds == CloseableLateAddPolicy.REJECT) {
+      throw new IllegalStateException("Collection is closed.");
+    }
+
+    this.monitor.onAdd(CloseableClosing.resourceOf(resource));
+    final Exception failure = CloseableClosing.closeOne(this.monitor, resource);
+    if (failure != null) {
+      throw new IllegalStateException(
+        "Collection is closed, and closing the resource failed.",
+        failure
+      );
+    }
+    return resource;
+  }
+
+  private final class Detached implements AutoCloseable
+  {
+    private final Node top;
+
+    Detached(
+      final Node inTop)
+    {
+      this.top = inTop;
+    }
+
+    @Override
+    public void close()
+      throws E
+    {
+      CloseableCollection.this.closeNodes(this.top);
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.format(
+        "[CloseableCollection (detached, %d resources)]",
+        Integer.valueOf(this.top.depth)
+      );
+    }
+  }
+
+  private static final class Node
+  {
+    private final AutoCloseable resource;
+    private Node next;
+    private int depth;
+
+    Node(
+      final AutoCloseable inResource,
+      final Node inNext)
+    {
+      this.resource = inResource;
+      this.next = inNext;
     }
-    throw new IllegalStateException("Collection is closed.");
   }
 }
@@ -18,6 +18,9 @@ package com.io7m.jmulticlose.core;
 
 import org.osgi.annotation.versioning.ProviderType;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * <p>A collection of resources that can be closed.</p>
  *
@@ -53,6 +56,21 @@ public interface CloseableCollectionType<E extends Exception>
 
   int size();
 
+  /**
+   * <p>Take a snapshot of the resources in the collection. The returned list
+   * is immutable, is not affected by subsequent changes to the collection,
+   * and holds resources in the order in which they would be closed (most
+   * recently added first).</p>
+   *
+   * <p>Taking a snapshot is intended to be safe to call frequently from
+   * monitoring threads. Implementations document the consistency of the
+   * snapshot with respect to concurrent modifications.</p>
+   *
+   * @return A snapshot of the resources in the collection
+   */
+
+  List<AutoCloseable> snapshot();
+
   /**
    * Add a resource to be closed when this collection is closed.
    *
@@ -61,9 +79,139 @@ public interface CloseableCollectionType<E extends Exception>
    *
    * @return {@code resource}
    *
-   * @throws IllegalStateException If {@link #close()} has been called
+   * @throws IllegalStateException If {@link #close()} has been called, and
+   *                               the collection rejects resources added
+   *                               after closing
    */
 
   <T extends AutoCloseable> T add(T resource)
     throws IllegalStateException;
+
+  /**
+   * Acquire a new reference to a shared resource, and add the reference to
+   * this collection. The reference is released when this collection is
+   * closed, and the shared resource is closed when its last reference is
+   * released.
+   *
+   * @param shared The shared resource
+   * @param <T>    The precise type of resource
+   *
+   * @return The shared resource
+   *
+   * @throws IllegalStateException If {@link #close()} has been called, or the
+   *                               shared resource has been closed
+   */
+
+  default <T extends AutoCloseable> T addShared(
+    final CloseableSharedType<T> shared)
+    throws IllegalStateException
+  {
+    final CloseableReferenceType<T> reference = shared.acquire();
+    try {
+      return this.add(reference).get();
+    } catch (final IllegalStateException e) {
+      try {
+        reference.close();
+      } catch (final Exception re) {
+        e.addSuppressed(re);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Add a resource that is created on first use. The resource is created by
+   * the first call to {@link CloseableLazyType#get()} on the returned
+   * handle. When this collection is closed, the resource is closed if it
+   * was created, and is otherwise skipped entirely.
+   *
+   * @param supplier A function that creates the resource
+   * @param <T>      The precise type of resource
+   *
+   * @return A handle to the resource
+   *
+   * @throws IllegalStateException If {@link #close()} has been called, and
+   *                               the collection rejects resources added
+   *                               after closing
+   */
+
+  default <T extends AutoCloseable> CloseableLazyType<T> addLazy(
+    final Supplier<T> supplier)
+    throws IllegalStateException
+  {
+    return this.add(CloseableLazy.create(supplier));
+  }
+
+  /**
+   * Add a resource that is released by a batch closer when this collection
+   * is closed. Collections that support batching release each run of
+   * consecutively added resources that share {@code closer} with a single
+   * call to {@code closer}; other collections release each resource with a
+   * call of its own. Either way, the resources are released at their
+   * position in the collection's closing order. Monitors attached to the
+   * collection observe {@code resource} itself if it is an
+   * {@link AutoCloseable}, and otherwise an opaque {@link AutoCloseable}
+   * whose {@code toString()} is that of {@code resource}.
+   *
+   * @param closer   The batch closer
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return {@code resource}
+   *
+   * @throws IllegalStateException If {@link #close()} has been called, and
+   *                               the collection rejects resources added
+   *                               after closing
+   */
+
+  default <T> T addBatched(
+    final CloseableBatchCloserType<? super T> closer,
+    final T resource)
+    throws IllegalStateException
+  {
+    this.add(new CloseableBatchEntry<>(closer, resource));
+    return resource;
+  }
+
+  /**
+   * Add a new scope of temporary files and directories, created in the
+   * default temporary directory. The paths in the scope are deleted in
+   * parallel when this collection is closed.
+   *
+   * @return The new scope
+   *
+   * @throws IllegalStateException If {@link #close()} has been called, and
+   *                               the collection rejects resources added
+   *                               after closing
+   *
+   * @see CloseablePathScope#create()
+   */
+
+  default CloseablePathScopeType<ClosingResourceFailedException> addPathScope()
+    throws IllegalStateException
+  {
+    return this.add(CloseablePathScope.create());
+  }
+
+  /**
+   * <p>Close this collection in the background. The collection is closed
+   * with respect to {@link #add(AutoCloseable)} immediately, and its
+   * resources are handed to {@code closer} to be closed on one of the
+   * closer's worker threads, in the same order that {@link #close()} would
+   * close them.</p>
+   *
+   * <p>No caller remains to receive an exception of type {@code E}, so
+   * failures are reported by {@code closer} instead. This method may block
+   * if {@code closer} has fallen behind.</p>
+   *
+   * @param closer The background closer
+   *
+   * @see CloseableBackgroundCloserType#submit(AutoCloseable)
+   */
+
+  default void closeDeferred(
+    final CloseableBackgroundCloserType closer)
+  {
+    closer.submit(this);
+  }
 }
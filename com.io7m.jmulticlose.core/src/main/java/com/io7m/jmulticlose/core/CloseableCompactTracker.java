@@ -0,0 +1,543 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>A memory-compact implementation of the {@link CloseableTrackerType}
+ * interface, intended for trackers holding very large numbers of
+ * resources.</p>
+ *
+ * <p>Resources are stored directly in fixed-size chunks of array slots,
+ * without any per-resource node or wrapper objects. A slot holding a
+ * resource is live; a slot that has been cleared is dead. Closing or
+ * removing a resource clears its slot with a single compare-and-set on the
+ * array element, so each resource is closed at most once without a separate
+ * flag object. Whether each slot was filled by
+ * {@link #addAuto(AutoCloseable)} is recorded in a bitmap alongside the
+ * slots.</p>
+ *
+ * <p>Slots are claimed by atomically incrementing a per-chunk cursor.
+ * Whenever a chunk fills up, the tracker sweeps a small, fixed number of
+ * chunks, resuming where the previous sweep stopped, so that the cost of
+ * sweeping is constant for each added resource. Sweeping clears the slots
+ * of any {@link CloseableType} resources that report themselves closed,
+ * discards chunks in which all slots have died, and moves the live
+ * resources of a sparsely occupied chunk into the dead slots of the
+ * previously swept (older) chunk when they fit, so that chunks that are
+ * only partially live are also reclaimed. The cost of an entry is therefore
+ * a single array reference and a single bit, plus a share of a chunk that
+ * is discarded soon after its entries are gone.</p>
+ *
+ * <p>Adding a resource never takes a lock unless its chunk has filled up.
+ * Sweeping, removing, and taking resources to close them are serialized
+ * with a lock, so that a resource being moved between chunks is never
+ * missed or closed twice; resources are closed outside the lock.</p>
+ *
+ * <p>Resources are closed in approximately the reverse of the order in
+ * which they were added: newer chunks are closed before older chunks, and
+ * slots within a chunk are closed in reverse order. Resources moved by
+ * sweeping are closed along with the older chunk into which they were
+ * moved.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableCompactTracker<E extends Exception>
+  implements CloseableTrackerType<E>
+{
+  private static final int CHUNK_SIZE = 128;
+  private static final int SWEEP_CHUNKS = 2;
+  private static final AutoCloseable DEAD = () -> { };
+  private static final VarHandle SLOTS =
+    MethodHandles.arrayElementVarHandle(AutoCloseable[].class);
+  private static final VarHandle BITS =
+    MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
+  private final ConcurrentLinkedDeque<Chunk> chunks;
+  private final ReentrantLock lock;
+  private volatile Chunk tail;
+  @GuardedBy("lock")
+  private Iterator<Chunk> sweep;
+  @GuardedBy("lock")
+  private Chunk sweepPrevious;
+
+  private CloseableCompactTracker(
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor)
+  {
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+    this.chunks =
+      new ConcurrentLinkedDeque<>();
+    this.lock =
+      new ReentrantLock();
+    this.tail =
+      new Chunk();
+    this.chunks.add(this.tail);
+  }
+
+  /**
+   * Create a new compact tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the tracker
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableTrackerType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableCompactTracker<>(exceptions, monitor);
+  }
+
+  /**
+   * Create a new compact tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableTrackerType<E> create(
+    final Supplier<E> exceptions)
+  {
+    return create(exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new compact tracker.
+   *
+   * @return A new tracker
+   */
+
+  public static CloseableTrackerType<ClosingResourceFailedException> create()
+  {
+    return create(() -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."));
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    E e = null;
+
+    final AutoCloseable[] taken = new AutoCloseable[CHUNK_SIZE];
+    final Iterator<Chunk> iter = this.chunks.descendingIterator();
+    while (iter.hasNext()) {
+      final int count = this.takeAll(taken, iter.next());
+      for (int index = 0; index < count; ++index) {
+        e = CloseableClosing.close(
+          this.monitor, taken[index], this.exceptions, e);
+        taken[index] = null;
+      }
+    }
+
+    this.lock.lock();
+    try {
+      this.compact();
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  private int takeAll(
+    final AutoCloseable[] taken,
+    final Chunk chunk)
+  {
+    this.lock.lock();
+    try {
+      int count = 0;
+      for (int index = CHUNK_SIZE - 1; index >= 0; --index) {
+        final AutoCloseable resource = chunk.take(index);
+        if (resource != null) {
+          taken[count] = resource;
+          ++count;
+        }
+      }
+      return count;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    int size = 0;
+    for (final Chunk chunk : this.chunks) {
+      size += chunk.live.get();
+    }
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The snapshot is taken by reading the slots of each chunk, and never
+   * blocks or delays concurrent additions and removals. It is <i>weakly
+   * consistent</i> in the same manner as {@link CloseableTracker}.</p>
+   */
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    final var resources = new ArrayList<AutoCloseable>();
+    final Iterator<Chunk> iter = this.chunks.descendingIterator();
+    while (iter.hasNext()) {
+      final Chunk chunk = iter.next();
+      for (int index = CHUNK_SIZE - 1; index >= 0; --index) {
+        final AutoCloseable resource = chunk.get(index);
+        if (resource != null && !chunk.isDead(index, resource)) {
+          resources.add(resource);
+        }
+      }
+    }
+    return List.copyOf(resources);
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final T resource)
+  {
+    this.insert(resource, false);
+    return resource;
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final T resource)
+  {
+    this.insert(resource, true);
+    return resource;
+  }
+
+  @Override
+  public <T extends CloseableType> void remove(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    this.lock.lock();
+    try {
+      final Iterator<Chunk> iter = this.chunks.descendingIterator();
+      while (iter.hasNext()) {
+        final Chunk chunk = iter.next();
+        for (int index = CHUNK_SIZE - 1; index >= 0; --index) {
+          final AutoCloseable existing = chunk.get(index);
+          if (existing != null
+            && !chunk.isAuto(index)
+            && existing.equals(resource)
+            && chunk.clear(index, existing)) {
+            this.monitor.onRemove(resource);
+            return;
+          }
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void insert(
+    final AutoCloseable resource,
+    final boolean auto)
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    while (true) {
+      final Chunk chunk = this.tail;
+      if (chunk.tryInsert(resource, auto)) {
+        this.monitor.onAdd(resource);
+        return;
+      }
+      this.rollOver(chunk);
+    }
+  }
+
+  private void rollOver(
+    final Chunk full)
+  {
+    this.lock.lock();
+    try {
+      if (this.tail != full) {
+        return;
+      }
+      this.sweep();
+      final Chunk next = new Chunk();
+      this.chunks.add(next);
+      this.tail = next;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /*
+   * Every chunk in the deque is full when a sweep runs, because sweeps only
+   * happen when the tail has filled up, before a new tail is added. The
+   * tail itself is never discarded, even if it is empty, because adders may
+   * still be reading it.
+   */
+
+  private void sweep()
+  {
+    for (int count = 0; count < SWEEP_CHUNKS; ++count) {
+      if (this.sweep == null || !this.sweep.hasNext()) {
+        this.sweep = this.chunks.iterator();
+        this.sweepPrevious = null;
+        if (!this.sweep.hasNext()) {
+          return;
+        }
+      }
+
+      final Chunk chunk = this.sweep.next();
+      if (chunk.discarded) {
+        continue;
+      }
+
+      this.pruneClosed(chunk);
+
+      final Chunk previous = this.sweepPrevious;
+      if (previous != null
+        && !previous.discarded
+        && previous.live() + chunk.live() <= CHUNK_SIZE) {
+        chunk.moveInto(previous);
+      }
+
+      if (chunk != this.tail && chunk.isEmpty()) {
+        chunk.discarded = true;
+        this.sweep.remove();
+      } else {
+        this.sweepPrevious = chunk;
+      }
+    }
+  }
+
+  private void pruneClosed(
+    final Chunk chunk)
+  {
+    for (int index = 0; index < CHUNK_SIZE; ++index) {
+      final AutoCloseable existing = chunk.get(index);
+      if (existing != null
+        && chunk.isDead(index, existing)
+        && chunk.clear(index, existing)) {
+        this.monitor.onRemove(existing);
+      }
+    }
+  }
+
+  private void compact()
+  {
+    final Chunk current = this.tail;
+    this.chunks.removeIf(chunk -> {
+      if (chunk != current && chunk.isEmpty()) {
+        chunk.discarded = true;
+        return true;
+      }
+      return false;
+    });
+  }
+
+  /**
+   * A fixed-size chunk of slots.
+   */
+
+  private static final class Chunk
+  {
+    private final AutoCloseable[] slots;
+    private final long[] auto;
+    private final AtomicInteger cursor;
+    private final AtomicInteger live;
+    @GuardedBy("lock")
+    private boolean discarded;
+
+    Chunk()
+    {
+      this.slots = new AutoCloseable[CHUNK_SIZE];
+      this.auto = new long[CHUNK_SIZE / Long.SIZE];
+      this.cursor = new AtomicInteger();
+      this.live = new AtomicInteger();
+    }
+
+    /*
+     * A slot is reserved by incrementing the live count before claiming an
+     * index, so that a chunk can only be observed as both full and empty
+     * once no inserting thread can still publish a resource into it.
+     */
+
+    boolean tryInsert(
+      final AutoCloseable resource,
+      final boolean isAuto)
+    {
+      this.live.incrementAndGet();
+      final int index = this.cursor.getAndIncrement();
+      if (index >= CHUNK_SIZE) {
+        this.live.decrementAndGet();
+        return false;
+      }
+
+      if (isAuto) {
+        BITS.getAndBitwiseOr(
+          this.auto, index >>> 6, 1L << (index & 63));
+      }
+      SLOTS.setRelease(this.slots, index, resource);
+      return true;
+    }
+
+    /*
+     * A slot that has never been filled is null, and a slot whose resource
+     * has gone is DEAD. Only dead slots may be refilled by moves, because
+     * a null slot may have been claimed by a thread that has not yet
+     * published its resource.
+     */
+
+    AutoCloseable get(
+      final int index)
+    {
+      final var resource = (AutoCloseable) SLOTS.getAcquire(this.slots, index);
+      return resource == DEAD ? null : resource;
+    }
+
+    int live()
+    {
+      return this.live.get();
+    }
+
+    boolean isAuto(
+      final int index)
+    {
+      final long word = (long) BITS.getAcquire(this.auto, index >>> 6);
+      return (word & (1L << (index & 63))) != 0L;
+    }
+
+    boolean isDead(
+      final int index,
+      final AutoCloseable resource)
+    {
+      return !this.isAuto(index)
+        && resource instanceof CloseableType closeable
+        && closeable.isClosed();
+    }
+
+    boolean clear(
+      final int index,
+      final AutoCloseable expected)
+    {
+      if (SLOTS.compareAndSet(this.slots, index, expected, DEAD)) {
+        this.live.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+
+    AutoCloseable take(
+      final int index)
+    {
+      final AutoCloseable existing = this.get(index);
+      if (existing != null && this.clear(index, existing)) {
+        return existing;
+      }
+      return null;
+    }
+
+    /**
+     * Move the live resources of this chunk into the dead slots of
+     * {@code target}, for as long as there are dead slots. Must be called
+     * with the tracker's lock held, on full chunks.
+     *
+     * @param target The target chunk
+     */
+
+    void moveInto(
+      final Chunk target)
+    {
+      int free = 0;
+      for (int index = 0; index < CHUNK_SIZE; ++index) {
+        final AutoCloseable resource = this.get(index);
+        if (resource != null) {
+          free = target.nextDead(free);
+          if (free == CHUNK_SIZE) {
+            return;
+          }
+          final boolean isAuto = this.isAuto(index);
+          if (this.clear(index, resource)) {
+            target.fill(free, resource, isAuto);
+          }
+        }
+      }
+    }
+
+    private int nextDead(
+      final int from)
+    {
+      int index = from;
+      while (index < CHUNK_SIZE
+        && SLOTS.getAcquire(this.slots, index) != DEAD) {
+        ++index;
+      }
+      return index;
+    }
+
+    private void fill(
+      final int index,
+      final AutoCloseable resource,
+      final boolean isAuto)
+    {
+      final long bit = 1L << (index & 63);
+      if (isAuto) {
+        BITS.getAndBitwiseOr(this.auto, index >>> 6, bit);
+      } else {
+        BITS.getAndBitwiseAnd(this.auto, index >>> 6, ~bit);
+      }
+      this.live.incrementAndGet();
+      SLOTS.setRelease(this.slots, index, resource);
+    }
+
+    boolean isEmpty()
+    {
+      return this.cursor.get() >= CHUNK_SIZE && this.live.get() == 0;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>Functions to bind a collection as the <i>current scope</i> of the
+ * calling thread, so that code deep within a call stack can register
+ * resources without having a collection passed to it explicitly.</p>
+ *
+ * <p>A scope is bound for the duration of a call to
+ * {@link #call(CloseableCollectionType, CloseableScopedActionType)} or
+ * {@link #run(CloseableCollectionType, Runnable)}. Bindings nest: the
+ * innermost binding is the current scope, and the previous binding is
+ * restored when the call returns, whether normally or exceptionally.
+ * Subtasks forked by a {@link CloseableTaskScope} run with their child
+ * collection bound as the current scope.</p>
+ *
+ * <p>Bindings are held in a single mutable frame per thread; binding a scope
+ * and registering a resource allocate nothing beyond that frame, and looking
+ * up the current scope costs one thread-local lookup and one field read.
+ * The API mirrors the shape of {@code ScopedValue.where(...).call(...)} so
+ * that the implementation can move to scoped values once the project targets
+ * a JDK on which they are final.</p>
+ */
+
+@ThreadSafe
+public final class CloseableCurrentScope
+{
+  private static final ThreadLocal<Frame> FRAME =
+    ThreadLocal.withInitial(Frame::new);
+
+  private CloseableCurrentScope()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Execute {@code action} with {@code scope} bound as the current scope.
+   *
+   * @param scope  The scope
+   * @param action The action
+   * @param <T>    The type of result
+   * @param <X>    The type of exceptions raised by the action
+   *
+   * @return The result of {@code action}
+   *
+   * @throws X If {@code action} raises {@code X}
+   */
+
+  public static <T, X extends Exception> T call(
+    final CloseableCollectionType<?> scope,
+    final CloseableScopedActionType<T, X> action)
+    throws X
+  {
+    Objects.requireNonNull(scope, "scope");
+    Objects.requireNonNull(action, "action");
+
+    final Frame frame = FRAME.get();
+    final CloseableCollectionType<?> previous = frame.scope;
+    frame.scope = scope;
+    try {
+      return action.execute();
+    } finally {
+      frame.scope = previous;
+    }
+  }
+
+  /**
+   * Execute {@code action} with {@code scope} bound as the current scope.
+   *
+   * @param scope  The scope
+   * @param action The action
+   */
+
+  public static void run(
+    final CloseableCollectionType<?> scope,
+    final Runnable action)
+  {
+    Objects.requireNonNull(action, "action");
+
+    call(scope, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * @return The current scope, if one is bound
+   */
+
+  public static Optional<CloseableCollectionType<?>> current()
+  {
+    return Optional.ofNullable(FRAME.get().scope);
+  }
+
+  /**
+   * Add a resource to the current scope.
+   *
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return {@code resource}
+   *
+   * @throws IllegalStateException If no scope is bound, or the current scope
+   *                               has been closed
+   */
+
+  public static <T extends AutoCloseable> T add(
+    final T resource)
+    throws IllegalStateException
+  {
+    final CloseableCollectionType<?> scope = FRAME.get().scope;
+    if (scope == null) {
+      throw new IllegalStateException("No scope is bound.");
+    }
+    return scope.add(resource);
+  }
+
+  private static final class Frame
+  {
+    private CloseableCollectionType<?> scope;
+
+    Frame()
+    {
+
+    }
+  }
+}
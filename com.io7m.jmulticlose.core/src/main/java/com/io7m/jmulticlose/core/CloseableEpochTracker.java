@@ -0,0 +1,376 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableEpochTrackerType}
+ * interface.</p>
+ *
+ * <p>Each epoch is a generation holding its own lock-free deque of
+ * resources. Generations form a list from the newest to the oldest, and
+ * retiring generations unlinks the tail of that list whilst holding a lock,
+ * and then marks each detached generation as <i>sealed</i>. The lock is
+ * never held whilst adding or closing resources.</p>
+ *
+ * <p>An addition pushes the resource onto the current generation and then
+ * checks whether that generation has been sealed. The closing side seals a
+ * generation before draining it, so at least one of the two observes the
+ * other: if the adder observes the seal, it attempts to take its resource
+ * back and retries with the new current generation; if the resource has
+ * already been drained, it is closed along with the rest of its
+ * epoch.</p>
+ *
+ * <p>Resources that have been closed elsewhere are pruned from each epoch
+ * when that epoch is retired by {@link #advanceEpoch()}.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableEpochTracker<E extends Exception>
+  implements CloseableEpochTrackerType<E>
+{
+  private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
+  private final ReentrantLock lock;
+  private volatile Generation head;
+
+  private CloseableEpochTracker(
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor)
+  {
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+    this.lock =
+      new ReentrantLock();
+    this.head =
+      new Generation(0L, null);
+  }
+
+  /**
+   * Create a new epoch tracker. The tracker starts in epoch {@code 0}.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the tracker
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableEpochTrackerType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableEpochTracker<>(exceptions, monitor);
+  }
+
+  /**
+   * Create a new epoch tracker. The tracker starts in epoch {@code 0}.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <E extends Exception> CloseableEpochTrackerType<E> create(
+    final Supplier<E> exceptions)
+  {
+    return create(exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new epoch tracker. The tracker starts in epoch {@code 0}.
+   *
+   * @return A new tracker
+   */
+
+  public static CloseableEpochTrackerType<ClosingResourceFailedException> create()
+  {
+    return create(() -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."));
+  }
+
+  @Override
+  public long epoch()
+  {
+    return this.head.epoch;
+  }
+
+  @Override
+  public long advanceEpoch()
+  {
+    this.lock.lock();
+    try {
+      final Generation current = this.head;
+      this.pruneClosed(current);
+      final Generation next = new Generation(current.epoch + 1L, current);
+      this.head = next;
+      return next.epoch;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void closeEpochsBefore(
+    final long epoch)
+    throws E
+  {
+    final Generation detached = this.detachBefore(epoch);
+    if (detached != null) {
+      this.closeGenerations(detached);
+    }
+  }
+
+  @Override
+  public void closeEpochsBeforeDeferred(
+    final long epoch,
+    final CloseableBackgroundCloserType closer)
+  {
+    Objects.requireNonNull(closer, "closer");
+
+    final Generation detached = this.detachBefore(epoch);
+    if (detached != null) {
+      closer.submit(new Detached(detached));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Every epoch, including the current epoch, is closed. The current
+   * epoch number is unchanged, and the tracker remains usable.</p>
+   */
+
+  @Override
+  public void close()
+    throws E
+  {
+    final Generation detached;
+    this.lock.lock();
+    try {
+      detached = this.head;
+      this.head = new Generation(detached.epoch, null);
+      seal(detached);
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.closeGenerations(detached);
+  }
+
+  @Override
+  public int size()
+  {
+    int size = 0;
+    for (Generation g = this.head; g != null; g = g.older) {
+      size += g.entries.size();
+    }
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The snapshot is <i>weakly consistent</i> in the same manner as
+   * {@link CloseableTracker}, and lists the resources of newer epochs
+   * first.</p>
+   */
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    final var resources = new ArrayList<AutoCloseable>();
+    for (Generation g = this.head; g != null; g = g.older) {
+      resources.addAll(CloseableTracker.snapshotOf(g.entries));
+    }
+    return List.copyOf(resources);
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+    this.insert(resource, resource);
+    return resource;
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+    this.insert(new CloseableWrapper<>(resource), resource);
+    return resource;
+  }
+
+  @Override
+  public <T extends CloseableType> void remove(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    for (Generation g = this.head; g != null; g = g.older) {
+      if (g.entries.remove(resource)) {
+        this.monitor.onRemove(resource);
+        return;
+      }
+    }
+  }
+
+  private void insert(
+    final CloseableType entry,
+    final AutoCloseable resource)
+  {
+    while (true) {
+      final Generation current = this.head;
+      current.entries.push(entry);
+      if (!current.sealed) {
+        break;
+      }
+
+      /*
+       * The generation was sealed concurrently. If the entry can be taken
+       * back, the closing thread has not seen it, and it is moved to the
+       * new current generation. Otherwise, it has already been drained and
+       * is being closed as part of the retired epoch.
+       */
+
+      if (!current.entries.removeFirstOccurrence(entry)) {
+        break;
+      }
+    }
+    this.monitor.onAdd(resource);
+  }
+
+  private Generation detachBefore(
+    final long epoch)
+  {
+    this.lock.lock();
+    try {
+      Generation newer = this.head;
+      while (newer.older != null && newer.older.epoch >= epoch) {
+        newer = newer.older;
+      }
+
+      final Generation detached = newer.older;
+      newer.older = null;
+      seal(detached);
+      return detached;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private static void seal(
+    final Generation detached)
+  {
+    for (Generation g = detached; g != null; g = g.older) {
+      g.sealed = true;
+    }
+  }
+
+  private void closeGenerations(
+    final Generation detached)
+    throws E
+  {
+    E e = null;
+    for (Generation g = detached; g != null; g = g.older) {
+      while (true) {
+        final CloseableType entry = g.entries.pollFirst();
+        if (entry == null) {
+          break;
+        }
+        e = CloseableClosing.close(this.monitor, entry, this.exceptions, e);
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @GuardedBy("lock")
+  private void pruneClosed(
+    final Generation generation)
+  {
+    for (final var entry : generation.entries) {
+      if (entry.isClosed() && generation.entries.removeFirstOccurrence(entry)) {
+        this.monitor.onRemove(CloseableClosing.resourceOf(entry));
+      }
+    }
+  }
+
+  private static final class Generation
+  {
+    private final long epoch;
+    private final ConcurrentLinkedDeque<CloseableType> entries;
+    private volatile boolean sealed;
+    private volatile Generation older;
+
+    Generation(
+      final long inEpoch,
+      final Generation inOlder)
+    {
+      this.epoch = inEpoch;
+      this.older = inOlder;
+      this.entries = new ConcurrentLinkedDeque<>();
+    }
+  }
+
+  private final class Detached implements AutoCloseable
+  {
+    private final Generation generations;
+
+    Detached(
+      final Generation inGenerations)
+    {
+      this.generations = inGenerations;
+    }
+
+    @Override
+    public void close()
+      throws E
+    {
+      CloseableEpochTracker.this.closeGenerations(this.generations);
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.format(
+        "[CloseableEpochTracker (detached epochs <= %d)]",
+        Long.valueOf(this.generations.epoch)
+      );
+    }
+  }
+}
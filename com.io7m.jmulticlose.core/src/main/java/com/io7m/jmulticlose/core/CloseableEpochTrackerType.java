@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A tracker that divides resources into numbered <i>epochs</i>
+ * (generations).</p>
+ *
+ * <p>Resources are always added to the current epoch.
+ * {@link #advanceEpoch()} starts a new epoch, and
+ * {@link #closeEpochsBefore(long)} closes every resource that was added in
+ * any epoch older than the given epoch. Detaching older epochs takes
+ * constant time with respect to the number of resources they contain,
+ * which makes the tracker suitable for periodic rotation of connections,
+ * caches, and credentials.</p>
+ *
+ * <p>The current epoch is never closed by
+ * {@link #closeEpochsBefore(long)}; call {@link #advanceEpoch()} first to
+ * retire it. An addition that races with the retirement of the epoch it was
+ * added to is either closed with that epoch, or is moved to the new current
+ * epoch.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableEpochTrackerType<E extends Exception>
+  extends CloseableTrackerType<E>
+{
+  /**
+   * @return The current epoch
+   */
+
+  long epoch();
+
+  /**
+   * Start a new epoch. Resources added after this method returns belong to
+   * the new epoch.
+   *
+   * @return The new current epoch
+   */
+
+  long advanceEpoch();
+
+  /**
+   * Detach every epoch older than {@code epoch} (except the current epoch)
+   * and close all the resources that were added in those epochs.
+   *
+   * @param epoch The oldest epoch to retain
+   *
+   * @throws E If any resource fails to close
+   */
+
+  void closeEpochsBefore(long epoch)
+    throws E;
+
+  /**
+   * Detach every epoch older than {@code epoch} (except the current epoch),
+   * and submit all the resources that were added in those epochs to
+   * {@code closer} to be closed in the background.
+   *
+   * @param epoch  The oldest epoch to retain
+   * @param closer The background closer
+   */
+
+  void closeEpochsBeforeDeferred(
+    long epoch,
+    CloseableBackgroundCloserType closer);
+}
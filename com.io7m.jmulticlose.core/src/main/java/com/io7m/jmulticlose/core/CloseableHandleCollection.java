@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableHandleCollectionType}
+ * interface.</p>
+ *
+ * <p>Handles are held in a single growable {@code long} array guarded by a
+ * lock. Adding a handle is an amortized constant-time append that allocates
+ * nothing unless the array must grow; removing a handle is a linear scan
+ * from the most recently added handle. Closing the collection detaches the
+ * array whilst holding the lock, and then releases the handles after the
+ * lock has been released.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableHandleCollection<E extends Exception>
+  implements CloseableHandleCollectionType<E>
+{
+  private static final int INITIAL_CAPACITY = 16;
+  private static final long[] EMPTY = new long[0];
+
+  private final Supplier<E> exceptions;
+  private final CloseableHandleCloserType closer;
+  private final CloseableLateAddPolicy lateAdds;
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private long[] handles;
+  @GuardedBy("lock")
+  private int count;
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private CloseableHandleCollection(
+    final Supplier<E> in_exceptions,
+    final CloseableHandleCloserType in_closer,
+    final CloseableLateAddPolicy in_lateAdds)
+  {
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.closer =
+      Objects.requireNonNull(in_closer, "closer");
+    this.lateAdds =
+      Objects.requireNonNull(in_lateAdds, "lateAdds");
+    this.lock =
+      new ReentrantLock();
+    this.handles =
+      EMPTY;
+  }
+
+  /**
+   * Create a new handle collection.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param closer     The function used to release handles
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <E extends Exception> CloseableHandleCollectionType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableHandleCloserType closer)
+  {
+    return create(exceptions, closer, CloseableLateAddPolicy.REJECT);
+  }
+
+  /**
+   * Create a new handle collection.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param closer     The function used to release handles
+   * @param lateAdds   The policy applied to handles added after the
+   *                   collection has been closed
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <E extends Exception> CloseableHandleCollectionType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableHandleCloserType closer,
+    final CloseableLateAddPolicy lateAdds)
+  {
+    return new CloseableHandleCollection<>(exceptions, closer, lateAdds);
+  }
+
+  /**
+   * Create a new handle collection.
+   *
+   * @param closer The function used to release handles
+   *
+   * @return A new collection
+   */
+
+  public static CloseableHandleCollectionType<ClosingResourceFailedException>
+  create(
+    final CloseableHandleCloserType closer)
+  {
+    return create(() -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."), closer);
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final long[] detached;
+    final int detachedCount;
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      detached = this.handles;
+      detachedCount = this.count;
+      this.handles = EMPTY;
+      this.count = 0;
+    } finally {
+      this.lock.unlock();
+    }
+
+    E e = null;
+    for (int index = detachedCount - 1; index >= 0; --index) {
+      try {
+        this.closer.close(detached[index]);
+      } catch (final Exception ex) {
+        if (e == null) {
+          e = this.exceptions.get();
+        }
+        e.addSuppressed(ex);
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.count;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public long[] snapshot()
+  {
+    this.lock.lock();
+    try {
+      final long[] result = new long[this.count];
+      for (int index = 0; index < this.count; ++index) {
+        result[index] = this.handles[this.count - 1 - index];
+      }
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public long add(final long handle)
+  {
+    this.lock.lock();
+    try {
+      if (!this.closed) {
+        if (this.count == this.handles.length) {
+          this.handles = Arrays.copyOf(
+            this.handles,
+            Math.max(INITIAL_CAPACITY, this.handles.length * 2)
+          );
+        }
+        this.handles[this.count] = handle;
+        ++this.count;
+        return handle;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    return this.addLate(handle);
+  }
+
+  private long addLate(
+    final long handle)
+  {
+    if (this.lateAdds == CloseableLateAddPolicy.REJECT) {
+      throw new IllegalStateException("Collection is closed.");
+    }
+
+    try {
+      this.closer.close(handle);
+    } catch (final Exception e) {
+      throw new IllegalStateException(
+        "Collection is closed, and closing the handle failed.",
+        e
+      );
+    }
+    return handle;
+  }
+
+  @Override
+  public boolean remove(final long handle)
+  {
+    this.lock.lock();
+    try {
+      for (int index = this.count - 1; index >= 0; --index) {
+        if (this.handles[index] == handle) {
+          System.arraycopy(
+            this.handles,
+            index + 1,
+            this.handles,
+            index,
+            this.count - index - 1
+          );
+          --this.count;
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A collection of native handles that can be closed.</p>
+ *
+ * <p>Handles are plain {@code long} values, such as file descriptors or
+ * native pointers, and are stored without boxing or any per-handle
+ * allocation. Every handle in a collection is released by the same
+ * {@link CloseableHandleCloserType}, in the reverse of the order in which
+ * the handles were added, when {@link #close()} is called.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableHandleCollectionType<E extends Exception>
+  extends AutoCloseable
+{
+  /**
+   * Close this collection. If releasing any of the handles within the
+   * collection raises an exception, add the exception as a
+   * <i>suppressed exception</i> to an exception {@code e},
+   * continue releasing handles, and at the end of the method, throw
+   * {@code e}.
+   *
+   * @throws E If required
+   */
+
+  @Override
+  void close()
+    throws E;
+
+  /**
+   * @return The number of handles in the collection
+   */
+
+  int size();
+
+  /**
+   * @return A copy of the handles in the collection, in the order in which
+   * they would be released (most recently added first)
+   */
+
+  long[] snapshot();
+
+  /**
+   * Add a handle to be released when this collection is closed.
+   *
+   * @param handle The handle
+   *
+   * @return {@code handle}
+   *
+   * @throws IllegalStateException If {@link #close()} has been called, and
+   *                               the collection rejects handles added
+   *                               after closing
+   */
+
+  long add(long handle)
+    throws IllegalStateException;
+
+  /**
+   * Remove the most recently added occurrence of a handle from the
+   * collection without releasing it. This is typically used when ownership
+   * of the handle is transferred elsewhere.
+   *
+   * @param handle The handle
+   *
+   * @return {@code true} if the handle was present
+   */
+
+  boolean remove(long handle);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.Objects;
+
+/**
+ * A registration recorded in a journal.
+ *
+ * @param id   The identifier of the registration, unique within the journal
+ * @param kind The kind of resource, such as {@code "file"}
+ * @param name The name of the resource, such as a path, in a form that the
+ *             recovery function for {@code kind} understands
+ *
+ * @see CloseableJournalTracker
+ */
+
+public record CloseableJournalEntry(
+  long id,
+  String kind,
+  String name)
+{
+  /**
+   * A registration recorded in a journal.
+   *
+   * @param id   The identifier of the registration, unique within the journal
+   * @param kind The kind of resource, such as {@code "file"}
+   * @param name The name of the resource, such as a path, in a form that the
+   *             recovery function for {@code kind} understands
+   */
+
+  public CloseableJournalEntry
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(name, "name");
+  }
+}
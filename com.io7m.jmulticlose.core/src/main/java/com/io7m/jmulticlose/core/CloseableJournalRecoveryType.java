@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * A function that cleans up a resource left behind by a process that
+ * terminated without closing its journal.
+ *
+ * @see CloseableJournalTracker#recover(java.nio.file.Path,
+ * CloseableJournalRecoveryType)
+ */
+
+@ConsumerType
+@FunctionalInterface
+public interface CloseableJournalRecoveryType
+{
+  /**
+   * Clean up the resource described by {@code entry}. Recovery may be
+   * attempted more than once for the same entry if an earlier recovery
+   * failed, and so implementations should tolerate resources that have
+   * already been cleaned up.
+   *
+   * @param entry The journal entry
+   *
+   * @throws Exception On errors
+   */
+
+  void recover(CloseableJournalEntry entry)
+    throws Exception;
+}
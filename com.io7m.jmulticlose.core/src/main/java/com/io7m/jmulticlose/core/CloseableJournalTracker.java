@@ -0,0 +1,648 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>The default implementation of the {@link CloseableJournalTrackerType}
+ * interface.</p>
+ *
+ * <p>The journal is an append-only sequence of records in a memory-mapped
+ * file. Each registration and each release appends a single record whilst
+ * holding a lock; recording an event is a handful of stores into the
+ * mapping, and involves no system calls. Each record is written body first
+ * and length last, so a process killed part-way through writing a record
+ * leaves a journal that ends at the previous record.</p>
+ *
+ * <p>When the journal fills up, it is compacted: the registrations of the
+ * resources still in the tracker are written to a new file, which then
+ * atomically replaces the journal. The journal doubles in size if the live
+ * registrations occupy more than half of it.</p>
+ *
+ * <p>The journal is never explicitly flushed to storage. The contents of
+ * the mapping survive the termination of the process (including
+ * {@code SIGKILL} and out-of-memory failures), because they live in the
+ * operating system's page cache, but are not guaranteed to survive a crash
+ * of the operating system itself.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableJournalTracker<E extends Exception>
+  implements CloseableJournalTrackerType<E>
+{
+  /**
+   * The default size of a new journal in bytes.
+   */
+
+  public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+  private static final int MAGIC = 0x4A4D434A;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 8;
+  private static final int LENGTH_SIZE = 4;
+  private static final byte OP_REGISTER = 1;
+  private static final byte OP_RELEASE = 2;
+  private static final int RELEASE_SIZE = 1 + 8;
+  private static final int MAXIMUM_KIND_SIZE = 0xffff;
+
+  private final Path file;
+  private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private final Map<Long, Registration> byId;
+  @GuardedBy("lock")
+  private final Map<AutoCloseable, Registration> byResource;
+  @GuardedBy("lock")
+  private MappedByteBuffer buffer;
+  @GuardedBy("lock")
+  private int end;
+  @GuardedBy("lock")
+  private long nextId;
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private CloseableJournalTracker(
+    final Path in_file,
+    final MappedByteBuffer in_buffer,
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor)
+  {
+    this.file =
+      Objects.requireNonNull(in_file, "file");
+    this.buffer =
+      Objects.requireNonNull(in_buffer, "buffer");
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+    this.lock =
+      new ReentrantLock();
+    this.byId =
+      new LinkedHashMap<>();
+    this.byResource =
+      new IdentityHashMap<>();
+    this.end =
+      in_buffer.position();
+  }
+
+  /**
+   * Create a new tracker. Any existing journal at {@code file} is replaced,
+   * and so {@link #recover(Path, CloseableJournalRecoveryType)} should be
+   * called first.
+   *
+   * @param file       The journal file
+   * @param capacity   The initial size of the journal in bytes
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static <E extends Exception> CloseableJournalTrackerType<E> create(
+    final Path file,
+    final int capacity,
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    if (capacity < HEADER_SIZE + LENGTH_SIZE) {
+      throw new IllegalArgumentException(
+        "Capacity must be at least %d (received %d)".formatted(
+          Integer.valueOf(HEADER_SIZE + LENGTH_SIZE),
+          Integer.valueOf(capacity))
+      );
+    }
+
+    return new CloseableJournalTracker<>(
+      file,
+      writeJournal(file, capacity, List.of()),
+      exceptions,
+      monitor
+    );
+  }
+
+  /**
+   * Create a new tracker. Any existing journal at {@code file} is replaced,
+   * and so {@link #recover(Path, CloseableJournalRecoveryType)} should be
+   * called first.
+   *
+   * @param file The journal file
+   *
+   * @return A new tracker
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CloseableJournalTrackerType<ClosingResourceFailedException>
+  create(
+    final Path file)
+    throws IOException
+  {
+    return create(
+      file,
+      DEFAULT_CAPACITY,
+      () -> new ClosingResourceFailedException(
+        "One or more resources could not be closed."),
+      CloseableMonitors.none()
+    );
+  }
+
+  /**
+   * <p>Clean up the resources left behind by a tracker that was never
+   * closed. Every registration in the journal at {@code file} that was not
+   * followed by a release is passed to {@code recovery}, in the reverse of
+   * the order in which the resources were added.</p>
+   *
+   * <p>If every resource is recovered, the journal is deleted. Otherwise,
+   * the journal is left intact so that recovery can be attempted again, and
+   * the failures are raised as suppressed exceptions.</p>
+   *
+   * @param file     The journal file
+   * @param recovery The recovery function
+   *
+   * @return The recovered entries, in the order in which they were passed
+   * to {@code recovery}, or an empty list if there is no journal
+   *
+   * @throws IOException                    If the journal cannot be read
+   * @throws ClosingResourceFailedException If recovering any resource fails
+   */
+
+  public static List<CloseableJournalEntry> recover(
+    final Path file,
+    final CloseableJournalRecoveryType recovery)
+    throws IOException, ClosingResourceFailedException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(recovery, "recovery");
+
+    if (!Files.exists(file)) {
+      return List.of();
+    }
+
+    final var entries = new ArrayList<>(readJournal(file));
+    final int count = entries.size();
+    final var recovered = new ArrayList<CloseableJournalEntry>(count);
+    ClosingResourceFailedException e = null;
+    for (int index = count - 1; index >= 0; --index) {
+      final var entry = entries.get(index);
+      try {
+        recovery.recover(entry);
+        recovered.add(entry);
+      } catch (final Exception ex) {
+        if (e == null) {
+          e = new ClosingResourceFailedException(
+            "One or more resources could not be recovered.");
+        }
+        e.addSuppressed(ex);
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+    Files.deleteIfExists(file);
+    return List.copyOf(recovered);
+  }
+
+  private static Collection<CloseableJournalEntry> readJournal(
+    final Path file)
+    throws IOException
+  {
+    final var data = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (data.limit() < HEADER_SIZE
+      || data.getInt(0) != MAGIC
+      || data.getInt(4) != VERSION) {
+      throw new IOException("Not a journal: %s".formatted(file));
+    }
+
+    final var live = new LinkedHashMap<Long, CloseableJournalEntry>();
+    int offset = HEADER_SIZE;
+    while (offset + LENGTH_SIZE <= data.limit()) {
+      final int length = data.getInt(offset);
+      if (length <= 0 || length > data.limit() - offset - LENGTH_SIZE) {
+        break;
+      }
+      if (!applyRecord(data.slice(offset + LENGTH_SIZE, length), live)) {
+        break;
+      }
+      offset += LENGTH_SIZE + length;
+    }
+    return live.values();
+  }
+
+  private static boolean applyRecord(
+    final ByteBuffer body,
+    final Map<Long, CloseableJournalEntry> live)
+  {
+    try {
+      final byte op = body.get();
+      final Long id = Long.valueOf(body.getLong());
+      if (op == OP_RELEASE) {
+        live.remove(id);
+        return true;
+      }
+      if (op != OP_REGISTER) {
+        return false;
+      }
+
+      final String kind = readString(body, Short.toUnsignedInt(body.getShort()));
+      final String name = readString(body, body.getInt());
+      live.put(id, new CloseableJournalEntry(id.longValue(), kind, name));
+      return true;
+    } catch (final BufferUnderflowException e) {
+      return false;
+    }
+  }
+
+  private static String readString(
+    final ByteBuffer body,
+    final int length)
+  {
+    if (length < 0 || length > body.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final int start = body.position();
+    body.position(start + length);
+    return UTF_8.decode(body.slice(start, length)).toString();
+  }
+
+  private static MappedByteBuffer writeJournal(
+    final Path target,
+    final int capacity,
+    final Collection<Registration> live)
+    throws IOException
+  {
+    final Path temporary =
+      target.resolveSibling(target.getFileName() + ".tmp");
+
+    final MappedByteBuffer buffer;
+    try (var channel =
+           FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, capacity);
+    }
+
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, VERSION);
+    int offset = HEADER_SIZE;
+    for (final var registration : live) {
+      offset = writeRegistration(buffer, offset, registration);
+    }
+    buffer.position(offset);
+    buffer.force();
+
+    Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    return buffer;
+  }
+
+  private static int writeRegistration(
+    final ByteBuffer buffer,
+    final int offset,
+    final Registration registration)
+  {
+    final int size = registration.recordSize();
+    final int body = offset + LENGTH_SIZE;
+    final byte[] kind = registration.kind;
+    final byte[] name = registration.name;
+    buffer.put(body, OP_REGISTER);
+    buffer.putLong(body + 1, registration.id);
+    buffer.putShort(body + 9, (short) kind.length);
+    buffer.put(body + 11, kind);
+    buffer.putInt(body + 11 + kind.length, name.length);
+    buffer.put(body + 15 + kind.length, name);
+    buffer.putInt(offset, size - LENGTH_SIZE);
+    return offset + size;
+  }
+
+  private static int writeRelease(
+    final ByteBuffer buffer,
+    final int offset,
+    final long id)
+  {
+    final int body = offset + LENGTH_SIZE;
+    buffer.put(body, OP_RELEASE);
+    buffer.putLong(body + 1, id);
+    buffer.putInt(offset, RELEASE_SIZE);
+    return offset + LENGTH_SIZE + RELEASE_SIZE;
+  }
+
+  @Override
+  public Path file()
+  {
+    return this.file;
+  }
+
+  @Override
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.byId.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public List<CloseableJournalEntry> snapshot()
+  {
+    final List<Registration> registrations = this.registrations();
+    final var result =
+      new ArrayList<CloseableJournalEntry>(registrations.size());
+    for (int index = registrations.size() - 1; index >= 0; --index) {
+      result.add(registrations.get(index).entry);
+    }
+    return List.copyOf(result);
+  }
+
+  private List<Registration> registrations()
+  {
+    this.lock.lock();
+    try {
+      return new ArrayList<>(this.byId.values());
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public <T extends AutoCloseable> T add(
+    final String kind,
+    final String name,
+    final T resource)
+    throws IOException
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(resource, "resource");
+
+    final byte[] kindBytes = kind.getBytes(UTF_8);
+    if (kindBytes.length > MAXIMUM_KIND_SIZE) {
+      throw new IllegalArgumentException("Resource kind is too long.");
+    }
+    final byte[] nameBytes = name.getBytes(UTF_8);
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Tracker is closed.");
+      }
+      if (this.byResource.containsKey(resource)) {
+        throw new IllegalArgumentException("Resource is already registered.");
+      }
+
+      final var registration =
+        new Registration(
+          new CloseableJournalEntry(this.nextId, kind, name),
+          kindBytes,
+          nameBytes,
+          resource
+        );
+
+      this.ensureSpace(registration.recordSize());
+      this.end = writeRegistration(this.buffer, this.end, registration);
+      ++this.nextId;
+      this.byId.put(Long.valueOf(registration.id), registration);
+      this.byResource.put(resource, registration);
+      return resource;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(
+    final AutoCloseable resource)
+    throws IOException
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return false;
+      }
+      final var registration = this.byResource.get(resource);
+      if (registration == null) {
+        return false;
+      }
+      this.release(registration);
+      return true;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @GuardedBy("lock")
+  private void release(
+    final Registration registration)
+    throws IOException
+  {
+    this.byId.remove(Long.valueOf(registration.id));
+    this.byResource.remove(registration.resource);
+    this.ensureSpace(LENGTH_SIZE + RELEASE_SIZE);
+    this.end = writeRelease(this.buffer, this.end, registration.id);
+  }
+
+  @Override
+  public void compact()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (!this.closed) {
+        this.compactFor(0);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @GuardedBy("lock")
+  private void ensureSpace(
+    final int recordSize)
+    throws IOException
+  {
+    if (this.buffer.capacity() - this.end < recordSize + LENGTH_SIZE) {
+      this.compactFor(recordSize);
+    }
+  }
+
+  @GuardedBy("lock")
+  private void compactFor(
+    final int recordSize)
+    throws IOException
+  {
+    long required = HEADER_SIZE + recordSize + LENGTH_SIZE;
+    for (final var registration : this.byId.values()) {
+      required += registration.recordSize();
+    }
+
+    long capacity = this.buffer.capacity();
+    while (required > capacity / 2L) {
+      capacity *= 2L;
+    }
+    if (capacity > Integer.MAX_VALUE) {
+      throw new IOException("Journal is too large.");
+    }
+
+    this.buffer = writeJournal(this.file, (int) capacity, this.byId.values());
+    this.end = this.buffer.position();
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final List<Registration> detached;
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      detached = new ArrayList<>(this.byId.values());
+    } finally {
+      this.lock.unlock();
+    }
+
+    E e = null;
+    for (int index = detached.size() - 1; index >= 0; --index) {
+      final var registration = detached.get(index);
+      final Exception failure = this.closeAndRelease(registration);
+      if (failure != null) {
+        if (e == null) {
+          e = this.exceptions.get();
+        }
+        e.addSuppressed(failure);
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+    this.deleteJournal();
+  }
+
+  /**
+   * Close a resource and record its release. A resource that could not be
+   * closed is dropped from the tracker, but its registration is left
+   * unreleased in the journal so that it can be recovered later.
+   */
+
+  private Exception closeAndRelease(
+    final Registration registration)
+  {
+    final Exception failure =
+      CloseableClosing.closeOne(this.monitor, registration.resource);
+
+    this.lock.lock();
+    try {
+      if (failure != null) {
+        this.byId.remove(Long.valueOf(registration.id));
+        this.byResource.remove(registration.resource);
+        return failure;
+      }
+      this.release(registration);
+      return null;
+    } catch (final IOException e) {
+      return e;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void deleteJournal()
+    throws E
+  {
+    try {
+      Files.deleteIfExists(this.file);
+    } catch (final IOException ex) {
+      final E e = this.exceptions.get();
+      e.addSuppressed(ex);
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseableJournalTracker %s]".formatted(this.file);
+  }
+
+  private static final class Registration
+  {
+    private final CloseableJournalEntry entry;
+    private final long id;
+    private final byte[] kind;
+    private final byte[] name;
+    private final AutoCloseable resource;
+
+    Registration(
+      final CloseableJournalEntry in_entry,
+      final byte[] in_kind,
+      final byte[] in_name,
+      final AutoCloseable in_resource)
+    {
+      this.entry = in_entry;
+      this.id = in_entry.id();
+      this.kind = in_kind;
+      this.name = in_name;
+      this.resource = in_resource;
+    }
+
+    int recordSize()
+    {
+      return LENGTH_SIZE + 1 + 8 + 2 + this.kind.length + 4 + this.name.length;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * <p>A tracker of resources that records every registration and release in
+ * a persistent journal.</p>
+ *
+ * <p>Resources are closed in the reverse of the order in which they were
+ * added when {@link #close()} is called. Each resource is added together
+ * with a description (a kind and a name) of whatever it holds outside the
+ * process, such as a temporary file or a lock file. If the process
+ * terminates without closing the tracker, the journal still describes the
+ * resources that were never released, and they can be cleaned up at the
+ * next startup.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ *
+ * @see CloseableJournalTracker#recover(Path, CloseableJournalRecoveryType)
+ */
+
+@ProviderType
+public interface CloseableJournalTrackerType<E extends Exception>
+  extends AutoCloseable
+{
+  /**
+   * Close this tracker. If any of the resources within the tracker raise an
+   * exception upon being closed, add the exception as a
+   * <i>suppressed exception</i> to an exception {@code e},
+   * continue closing resources, and at the end of the method, throw
+   * {@code e}. Resources that could not be closed remain in the journal so
+   * that they can be recovered later; if every resource was closed, the
+   * journal is deleted.
+   *
+   * @throws E If required
+   */
+
+  @Override
+  void close()
+    throws E;
+
+  /**
+   * @return The journal file
+   */
+
+  Path file();
+
+  /**
+   * @return The number of resources in the tracker
+   */
+
+  int size();
+
+  /**
+   * @return The journal entries of the resources in the tracker, in the
+   * order in which they would be closed (most recently added first)
+   */
+
+  List<CloseableJournalEntry> snapshot();
+
+  /**
+   * Add a resource to be closed when this tracker is closed, and record the
+   * registration in the journal.
+   *
+   * @param kind     The kind of resource
+   * @param name     The name of the resource
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return {@code resource}
+   *
+   * @throws IOException              If the journal could not be extended
+   * @throws IllegalStateException    If {@link #close()} has been called
+   * @throws IllegalArgumentException If {@code resource} is already in the
+   *                                  tracker
+   */
+
+  <T extends AutoCloseable> T add(
+    String kind,
+    String name,
+    T resource)
+    throws IOException, IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Remove a resource from this tracker without closing it, and record the
+   * release in the journal. This is typically used when the resource has
+   * been closed, or ownership of the resource has been transferred
+   * elsewhere.
+   *
+   * @param resource The resource
+   *
+   * @return {@code true} if the resource was present
+   *
+   * @throws IOException If the journal could not be extended
+   */
+
+  boolean remove(AutoCloseable resource)
+    throws IOException;
+
+  /**
+   * Rewrite the journal so that it contains only the registrations of the
+   * resources currently in the tracker. This happens automatically whenever
+   * the journal fills up.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void compact()
+    throws IOException;
+}
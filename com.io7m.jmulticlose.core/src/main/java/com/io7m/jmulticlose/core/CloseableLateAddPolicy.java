@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+/**
+ * The policy applied by a collection to resources that are added after the
+ * collection has been closed.
+ *
+ * @see CloseableCollection#create(java.util.function.Supplier, CloseableMonitorType, CloseableLateAddPolicy)
+ */
+
+public enum CloseableLateAddPolicy
+{
+  /**
+   * Reject the resource by raising an {@link IllegalStateException}. The
+   * resource is not closed.
+   */
+
+  REJECT,
+
+  /**
+   * Close the resource immediately on the adding thread, and return it as if
+   * it had been added successfully. If closing the resource fails, an
+   * {@link IllegalStateException} is raised with the failure as its cause.
+   */
+
+  CLOSE_IMMEDIATELY
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A process-wide, per-class estimate of the time taken to close
+ * resources.</p>
+ *
+ * <p>Each class of resource has an exponentially weighted moving average of
+ * its observed close latencies, with a smoothing factor of 1/8. Updates are
+ * a plain read followed by a plain write: concurrent updates for the same
+ * class may lose samples, which only makes the estimate slightly less
+ * smooth. The estimates are used to start the slowest closes first when
+ * resources are closed in parallel.</p>
+ */
+
+final class CloseableLatencyEstimator
+{
+  private static final int SMOOTHING_SHIFT = 3;
+
+  private static final ClassValue<AtomicLong> ESTIMATES =
+    new ClassValue<>()
+    {
+      @Override
+      protected AtomicLong computeValue(
+        final Class<?> type)
+      {
+        return new AtomicLong();
+      }
+    };
+
+  private CloseableLatencyEstimator()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @param type The resource class
+   *
+   * @return The estimated close latency of resources of class {@code type},
+   * in nanoseconds, or {@code 0} if no closes have been observed
+   */
+
+  static long estimate(
+    final Class<?> type)
+  {
+    return ESTIMATES.get(type).get();
+  }
+
+  /**
+   * Record an observed close latency.
+   *
+   * @param type  The resource class
+   * @param nanos The time taken to close the resource
+   */
+
+  static void record(
+    final Class<?> type,
+    final long nanos)
+  {
+    final AtomicLong estimate = ESTIMATES.get(type);
+    final long sample = Math.max(1L, nanos);
+    final long previous = estimate.get();
+    if (previous == 0L) {
+      estimate.set(sample);
+    } else {
+      estimate.set(previous + ((sample - previous) >> SMOOTHING_SHIFT));
+    }
+  }
+
+  /**
+   * Order entries by their estimated close latency, longest first. Entries
+   * with equal estimates (including entries whose classes have never been
+   * observed) retain their relative order.
+   *
+   * @param entries The entries held by a collection or tracker
+   * @param <T>     The type of entries
+   *
+   * @return The entries in scheduling order
+   */
+
+  static <T extends AutoCloseable> List<T> longestFirst(
+    final List<T> entries)
+  {
+    final int count = entries.size();
+    final Ranked[] ranked = new Ranked[count];
+    for (int index = 0; index < count; ++index) {
+      final T entry = entries.get(index);
+      ranked[index] = new Ranked(
+        index,
+        estimate(CloseableClosing.resourceOf(entry).getClass())
+      );
+    }
+
+    Arrays.sort(ranked, (x, y) -> {
+      final int c = Long.compare(y.estimate(), x.estimate());
+      if (c != 0) {
+        return c;
+      }
+      return Integer.compare(x.index(), y.index());
+    });
+
+    final var result = new ArrayList<T>(count);
+    for (final Ranked r : ranked) {
+      result.add(entries.get(r.index()));
+    }
+    return result;
+  }
+
+  private record Ranked(
+    int index,
+    long estimate)
+  {
+
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableLazyType}
+ * interface.</p>
+ *
+ * <p>Once the resource has been created, {@link #get()} is a single
+ * volatile read. Creation and closing are serialized by a
+ * {@link ReentrantLock}, so the supplier is invoked at most once per
+ * successful creation, and a resource can never be created after the
+ * handle has been closed. Unlike a {@code synchronized} block, the lock
+ * does not pin the carrier thread of a virtual thread that is blocked
+ * while the resource is created.</p>
+ *
+ * @param <T> The type of resource
+ */
+
+@ThreadSafe
+public final class CloseableLazy<T extends AutoCloseable>
+  implements CloseableLazyType<T>
+{
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private Supplier<T> supplier;
+  private volatile T value;
+
+  private CloseableLazy(
+    final Supplier<T> inSupplier)
+  {
+    this.supplier =
+      Objects.requireNonNull(inSupplier, "supplier");
+    this.lock =
+      new ReentrantLock();
+  }
+
+  /**
+   * Create a new lazy resource handle.
+   *
+   * @param supplier A function that creates the resource on first use
+   * @param <T>      The type of resource
+   *
+   * @return A new handle
+   */
+
+  public static <T extends AutoCloseable> CloseableLazyType<T> create(
+    final Supplier<T> supplier)
+  {
+    return new CloseableLazy<>(supplier);
+  }
+
+  @Override
+  public T get()
+  {
+    final T existing = this.value;
+    if (existing != null) {
+      return existing;
+    }
+
+    this.lock.lock();
+    try {
+      final T current = this.value;
+      if (current != null) {
+        return current;
+      }
+      if (this.supplier == null) {
+        throw new IllegalStateException("Resource handle is closed.");
+      }
+
+      final T created =
+        Objects.requireNonNull(this.supplier.get(), "supplier.get()");
+      this.value = created;
+      return created;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isCreated()
+  {
+    return this.value != null;
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    final T existing;
+    this.lock.lock();
+    try {
+      existing = this.value;
+      this.value = null;
+      this.supplier = null;
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (existing != null) {
+      existing.close();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[CloseableLazy %s]",
+      this.value
+    );
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A handle to a resource that is created on first use.</p>
+ *
+ * <p>The resource is created by the first call to {@link #get()}, and every
+ * subsequent call returns the same resource. Closing the handle closes the
+ * resource if, and only if, it was created; a resource that was never used
+ * is never opened and never closed.</p>
+ *
+ * @param <T> The type of resource
+ */
+
+@ProviderType
+public interface CloseableLazyType<T extends AutoCloseable>
+  extends AutoCloseable
+{
+  /**
+   * Retrieve the resource, creating it if it has not yet been created. If
+   * creating the resource fails, the failure is propagated and nothing is
+   * retained, so a subsequent call tries again.
+   *
+   * @return The resource
+   *
+   * @throws IllegalStateException If the handle has been closed
+   */
+
+  T get()
+    throws IllegalStateException;
+
+  /**
+   * @return {@code true} if the resource has been created and the handle
+   * has not yet been closed
+   */
+
+  boolean isCreated();
+
+  /**
+   * Close the resource if it has been created. Subsequent calls to
+   * {@link #get()} will fail.
+   *
+   * @throws Exception If closing the resource fails
+   */
+
+  @Override
+  void close()
+    throws Exception;
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A subscription to JVM memory notifications that reclaims resources
+ * when memory is scarce.</p>
+ *
+ * <p>Memory is checked after every garbage collection, and whenever a heap
+ * memory pool crosses its collection usage threshold. If heap usage
+ * exceeds the heap threshold (a fraction of the maximum heap size), or
+ * direct buffer usage exceeds the direct threshold (in bytes), a fraction
+ * of the reclaimer's resources are reclaimed, least recently used first.
+ * Reclaimed memory can only be observed after a subsequent collection, so
+ * each check reclaims a fraction of the resources rather than all of them,
+ * and sustained pressure reclaims progressively more.</p>
+ *
+ * <p>Notifications are delivered, and resources are therefore closed, on a
+ * thread belonging to the JVM's management implementation. Heap memory
+ * pools that support collection usage thresholds, and that do not already
+ * have one, have a threshold set for the lifetime of the subscription;
+ * closing the subscription removes the thresholds and stops listening.</p>
+ */
+
+@ThreadSafe
+public final class CloseableMemoryPressure implements AutoCloseable
+{
+  /**
+   * The type of notifications emitted by garbage collectors after each
+   * collection.
+   */
+
+  private static final String GC_NOTIFICATION =
+    "com.sun.management.gc.notification";
+
+  private static final Set<String> PRESSURE_NOTIFICATIONS =
+    Set.of(
+      GC_NOTIFICATION,
+      MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED,
+      MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED
+    );
+
+  private final CloseableReclaimerType reclaimer;
+  private final double heapThreshold;
+  private final long directThreshold;
+  private final double fraction;
+  private final MemoryMXBean memory;
+  private final List<NotificationEmitter> emitters;
+  private final List<MemoryPoolMXBean> thresholdPools;
+  private final AtomicLong pressureEvents;
+  private final NotificationListener listener;
+  private volatile boolean closed;
+
+  private CloseableMemoryPressure(
+    final CloseableReclaimerType inReclaimer,
+    final double inHeapThreshold,
+    final long inDirectThreshold,
+    final double inFraction)
+  {
+    this.reclaimer =
+      Objects.requireNonNull(inReclaimer, "reclaimer");
+    this.heapThreshold =
+      checkFraction("heapThreshold", inHeapThreshold);
+    this.directThreshold =
+      inDirectThreshold;
+    this.fraction =
+      checkFraction("fraction", inFraction);
+    this.memory =
+      ManagementFactory.getMemoryMXBean();
+    this.emitters =
+      new ArrayList<>();
+    this.thresholdPools =
+      new ArrayList<>();
+    this.pressureEvents =
+      new AtomicLong();
+    this.listener =
+      (notification, handback) -> this.onNotification(notification);
+  }
+
+  /**
+   * Subscribe to memory notifications.
+   *
+   * @param reclaimer       The reclaimer whose resources are reclaimed
+   * @param heapThreshold   The fraction of the maximum heap size above
+   *                        which resources are reclaimed
+   * @param directThreshold The number of bytes of direct buffers above which
+   *                        resources are reclaimed, or a non-positive value
+   *                        to ignore direct buffers
+   * @param fraction        The fraction of the reclaimer's resources
+   *                        reclaimed on each check that finds memory to be
+   *                        scarce (at least one resource is always
+   *                        reclaimed)
+   *
+   * @return A subscription
+   */
+
+  public static CloseableMemoryPressure create(
+    final CloseableReclaimerType reclaimer,
+    final double heapThreshold,
+    final long directThreshold,
+    final double fraction)
+  {
+    final var pressure =
+      new CloseableMemoryPressure(
+        reclaimer, heapThreshold, directThreshold, fraction);
+    pressure.subscribe();
+    return pressure;
+  }
+
+  /**
+   * Subscribe to memory notifications, reclaiming a quarter of the
+   * reclaimer's resources whenever more than 85% of the heap is in use.
+   *
+   * @param reclaimer The reclaimer whose resources are reclaimed
+   *
+   * @return A subscription
+   */
+
+  public static CloseableMemoryPressure create(
+    final CloseableReclaimerType reclaimer)
+  {
+    return create(reclaimer, 0.85, 0L, 0.25);
+  }
+
+  private static double checkFraction(
+    final String name,
+    final double value)
+  {
+    if (!(value >= 0.0 && value <= 1.0)) {
+      throw new IllegalArgumentException(
+        "%s must be in the range [0, 1] (received %s)"
+          .formatted(name, Double.valueOf(value))
+      );
+    }
+    return value;
+  }
+
+  private void subscribe()
+  {
+    for (final var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (collector instanceof NotificationEmitter emitter) {
+        emitter.addNotificationListener(this.listener, null, null);
+        this.emitters.add(emitter);
+      }
+    }
+
+    if (this.memory instanceof NotificationEmitter emitter) {
+      emitter.addNotificationListener(this.listener, null, null);
+      this.emitters.add(emitter);
+    }
+
+    for (final var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP
+        && pool.isCollectionUsageThresholdSupported()
+        && pool.getCollectionUsageThreshold() == 0L) {
+        final long max = pool.getUsage().getMax();
+        if (max > 0L) {
+          pool.setCollectionUsageThreshold(
+            Math.max(1L, (long) ((double) max * this.heapThreshold)));
+          this.thresholdPools.add(pool);
+        }
+      }
+    }
+  }
+
+  private void onNotification(
+    final Notification notification)
+  {
+    if (!this.closed
+      && PRESSURE_NOTIFICATIONS.contains(notification.getType())) {
+      this.check();
+    }
+  }
+
+  /**
+   * Check memory usage now, and reclaim resources if memory is scarce. This
+   * is called automatically on memory notifications.
+   *
+   * @return The number of resources reclaimed
+   */
+
+  public int check()
+  {
+    if (!this.isUnderPressure()) {
+      return 0;
+    }
+
+    this.pressureEvents.incrementAndGet();
+    final int size = this.reclaimer.size();
+    final int count =
+      Math.max(1, (int) Math.ceil((double) size * this.fraction));
+    return this.reclaimer.reclaim(count);
+  }
+
+  /**
+   * @return {@code true} if heap or direct memory usage is currently above
+   * its threshold
+   */
+
+  public boolean isUnderPressure()
+  {
+    final var heap = this.memory.getHeapMemoryUsage();
+    final long max = heap.getMax();
+    if (max > 0L && (double) heap.getUsed() >= (double) max * this.heapThreshold) {
+      return true;
+    }
+    return this.directThreshold > 0L && directUsed() > this.directThreshold;
+  }
+
+  private static long directUsed()
+  {
+    final var pools =
+      ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+    for (final var pool : pools) {
+      if ("direct".equals(pool.getName())) {
+        return pool.getMemoryUsed();
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * @return The number of checks that found memory to be scarce
+   */
+
+  public long pressureEvents()
+  {
+    return this.pressureEvents.get();
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+
+    for (final var emitter : this.emitters) {
+      try {
+        emitter.removeNotificationListener(this.listener);
+      } catch (final ListenerNotFoundException e) {
+        // Already removed.
+      }
+    }
+    for (final var pool : this.thresholdPools) {
+      pool.setCollectionUsageThreshold(0L);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseableMemoryPressure %s]".formatted(this.reclaimer);
+  }
+}
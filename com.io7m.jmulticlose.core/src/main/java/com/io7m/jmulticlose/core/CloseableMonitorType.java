@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * <p>A monitor that observes the resources passing through a collection or
+ * tracker.</p>
+ *
+ * <p>Monitors are invoked synchronously on the thread performing each
+ * operation, and must therefore be thread-safe and fast. Resources added to
+ * trackers with {@link CloseableTrackerType#addAuto(AutoCloseable)} are
+ * reported as the values that were originally added. All methods do nothing
+ * by default.</p>
+ *
+ * @see CloseableMonitors
+ */
+
+@ConsumerType
+public interface CloseableMonitorType
+{
+  /**
+   * A resource was added.
+   *
+   * @param resource The resource
+   */
+
+  default void onAdd(
+    final AutoCloseable resource)
+  {
+
+  }
+
+  /**
+   * A resource was removed without being closed by the collection, either
+   * because it was removed explicitly, or because it was found to have been
+   * closed elsewhere.
+   *
+   * @param resource The resource
+   */
+
+  default void onRemove(
+    final AutoCloseable resource)
+  {
+
+  }
+
+  /**
+   * A resource is about to be closed.
+   *
+   * @param resource The resource
+   */
+
+  default void onCloseStarted(
+    final AutoCloseable resource)
+  {
+
+  }
+
+  /**
+   * A resource was closed successfully.
+   *
+   * @param resource The resource
+   * @param nanos    The time taken to close the resource in nanoseconds
+   */
+
+  default void onClosed(
+    final AutoCloseable resource,
+    final long nanos)
+  {
+
+  }
+
+  /**
+   * A resource raised an exception on closing.
+   *
+   * @param resource The resource
+   * @param nanos    The time taken to close the resource in nanoseconds
+   * @param failure  The exception
+   */
+
+  default void onCloseFailed(
+    final AutoCloseable resource,
+    final long nanos,
+    final Exception failure)
+  {
+
+  }
+}
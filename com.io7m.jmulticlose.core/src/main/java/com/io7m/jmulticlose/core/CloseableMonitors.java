@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.List;
+
+/**
+ * Functions over monitors.
+ */
+
+public final class CloseableMonitors
+{
+  private static final CloseableMonitorType NONE = new None();
+
+  private CloseableMonitors()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return A monitor that does nothing
+   */
+
+  public static CloseableMonitorType none()
+  {
+    return NONE;
+  }
+
+  /**
+   * Combine monitors into a single monitor that invokes each of the given
+   * monitors in order.
+   *
+   * @param monitors The monitors
+   *
+   * @return A combined monitor
+   */
+
+  public static CloseableMonitorType all(
+    final List<? extends CloseableMonitorType> monitors)
+  {
+    final var copy = List.<CloseableMonitorType>copyOf(monitors);
+    if (copy.isEmpty()) {
+      return NONE;
+    }
+    if (copy.size() == 1) {
+      return copy.get(0);
+    }
+    return new All(copy);
+  }
+
+  private static final class None implements CloseableMonitorType
+  {
+    None()
+    {
+
+    }
+  }
+
+  private static final class All implements CloseableMonitorType
+  {
+    private final List<CloseableMonitorType> monitors;
+
+    All(
+      final List<CloseableMonitorType> inMonitors)
+    {
+      this.monitors = inMonitors;
+    }
+
+    @Override
+    public void onAdd(
+      final AutoCloseable resource)
+    {
+      for (final var monitor : this.monitors) {
+        monitor.onAdd(resource);
+      }
+    }
+
+    @Override
+    public void onRemove(
+      final AutoCloseable resource)
+    {
+      for (final var monitor : this.monitors) {
+        monitor.onRemove(resource);
+      }
+    }
+
+    @Override
+    public void onCloseStarted(
+      final AutoCloseable resource)
+    {
+      for (final var monitor : this.monitors) {
+        monitor.onCloseStarted(resource);
+      }
+    }
+
+    @Override
+    public void onClosed(
+      final AutoCloseable resource,
+      final long nanos)
+    {
+      for (final var monitor : this.monitors) {
+        monitor.onClosed(resource, nanos);
+      }
+    }
+
+    @Override
+    public void onCloseFailed(
+      final AutoCloseable resource,
+      final long nanos,
+      final Exception failure)
+    {
+      for (final var monitor : this.monitors) {
+        monitor.onCloseFailed(resource, nanos, failure);
+      }
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the
+ * {@link CloseableOwningCollectionType} interface.</p>
+ *
+ * <p>The owner is held at the bottom of an ordinary
+ * {@link CloseableCollection}, and so it counts towards the
+ * {@link #size()} of the collection and appears last in every
+ * {@link #snapshot()}. Once the collection is closed, the owner has been
+ * closed and should no longer be used.</p>
+ *
+ * <p>For example, on JDK versions that provide the foreign memory API, an
+ * arena and the resources that use its memory can share one lifetime
+ * with:</p>
+ *
+ * <pre>{@code
+ * try (var c = CloseableOwningCollection.create(Arena.ofShared())) {
+ *   final MemorySegment buffer = c.owner().allocate(4096L);
+ *   final var channel = c.add(openChannel(buffer));
+ *   ...
+ * }
+ * }</pre>
+ *
+ * @param <O> The type of owner
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableOwningCollection<O extends AutoCloseable, E extends Exception>
+  implements CloseableOwningCollectionType<O, E>
+{
+  private final O owner;
+  private final CloseableCollectionType<E> resources;
+
+  private CloseableOwningCollection(
+    final O in_owner,
+    final CloseableCollectionType<E> in_resources)
+  {
+    this.owner =
+      Objects.requireNonNull(in_owner, "owner");
+    this.resources =
+      Objects.requireNonNull(in_resources, "resources");
+    this.resources.add(this.owner);
+  }
+
+  /**
+   * Create a new collection that takes ownership of the given owner.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the collection
+   * @param lateAdds   The policy applied to resources added after the
+   *                   collection has been closed
+   * @param owner      The owner
+   * @param <O>        The type of owner
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <O extends AutoCloseable, E extends Exception>
+  CloseableOwningCollectionType<O, E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor,
+    final CloseableLateAddPolicy lateAdds,
+    final O owner)
+  {
+    Objects.requireNonNull(owner, "owner");
+    return new CloseableOwningCollection<>(
+      owner,
+      CloseableCollection.create(exceptions, monitor, lateAdds)
+    );
+  }
+
+  /**
+   * Create a new collection that takes ownership of the given owner.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param owner      The owner
+   * @param <O>        The type of owner
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <O extends AutoCloseable, E extends Exception>
+  CloseableOwningCollectionType<O, E> create(
+    final Supplier<E> exceptions,
+    final O owner)
+  {
+    return create(
+      exceptions,
+      CloseableMonitors.none(),
+      CloseableLateAddPolicy.REJECT,
+      owner
+    );
+  }
+
+  /**
+   * Create a new collection that takes ownership of the given owner.
+   *
+   * @param owner The owner
+   * @param <O>   The type of owner
+   *
+   * @return A new collection
+   */
+
+  public static <O extends AutoCloseable>
+  CloseableOwningCollectionType<O, ClosingResourceFailedException> create(
+    final O owner)
+  {
+    return create(() -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."), owner);
+  }
+
+  @Override
+  public O owner()
+  {
+    return this.owner;
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    this.resources.close();
+  }
+
+  @Override
+  public int size()
+  {
+    return this.resources.size();
+  }
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    return this.resources.snapshot();
+  }
+
+  @Override
+  public <T extends AutoCloseable> T add(final T resource)
+  {
+    return this.resources.add(resource);
+  }
+}
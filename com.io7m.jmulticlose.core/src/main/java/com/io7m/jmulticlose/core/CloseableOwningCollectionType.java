@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A collection of resources that is bound to the lifetime of a single
+ * <i>owner</i> resource.</p>
+ *
+ * <p>The owner is typically an allocator from which the other resources in
+ * the collection are derived, such as a {@code java.lang.foreign.Arena} whose
+ * {@code MemorySegment} allocations are used by the other resources. The
+ * owner is the first resource added to the collection, and is therefore
+ * always closed last: every other resource is closed whilst the memory (or
+ * other state) provided by the owner is still valid, and all of that memory
+ * is then released in bulk by closing the owner.</p>
+ *
+ * @param <O> The type of owner
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableOwningCollectionType<O extends AutoCloseable, E extends Exception>
+  extends CloseableCollectionType<E>
+{
+  /**
+   * @return The owner of this collection
+   */
+
+  O owner();
+}
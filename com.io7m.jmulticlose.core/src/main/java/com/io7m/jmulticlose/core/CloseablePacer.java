@@ -0,0 +1,313 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>A monitor that paces closes so that downstream services are not
+ * flooded with disconnections when a large collection or tracker is
+ * closed.</p>
+ *
+ * <p>The pacer is supplied as the monitor of a collection or tracker (or
+ * combined with other monitors using
+ * {@link CloseableMonitors#all(java.util.List)}), and delays each close in
+ * {@link #onCloseStarted(AutoCloseable)} until a permit is available. Each
+ * close takes a permit from an overall token bucket, and from the bucket of
+ * the first configured class or interface that the resource is an instance
+ * of. Resources of the same configured type share a bucket, even across
+ * collections that share the pacer.</p>
+ *
+ * <p>Pacing never extends shutdown past the deadline: delays are cut short
+ * so that they end no later than the deadline, and once the deadline has
+ * passed, closes proceed without delay. The deadline is measured from the
+ * most recent call to {@link #start()}, or from the first close if
+ * {@link #start()} has never been called. Applications that close
+ * resources through the pacer before shutting down (for example, resources
+ * closed on their own, or collections that share the pacer and are closed
+ * early) should call {@link #start()} when shutdown begins, so that the
+ * earlier closes do not consume the deadline. Pacing also stops for a
+ * thread that is interrupted, and the thread's interrupt status is
+ * preserved.</p>
+ *
+ * <p>Buckets are implemented as a single atomic <i>theoretical arrival
+ * time</i> (the generic cell rate algorithm), and so taking a permit is a
+ * single compare-and-set without locking.</p>
+ */
+
+@ThreadSafe
+public final class CloseablePacer implements CloseableMonitorType
+{
+  /**
+   * Times are compared by subtraction, and so spans of time are limited to
+   * half of the range of {@link System#nanoTime()}.
+   */
+
+  static final long LIMIT_NANOS = Long.MAX_VALUE / 2L;
+
+  private final Bucket overall;
+  private final List<Bucket> buckets;
+  private final ClassValue<Bucket> bucketsByClass;
+  private final long deadlineNanos;
+  private final AtomicReference<Window> window;
+  private final AtomicLong delayed;
+
+  private CloseablePacer(
+    final CloseableRate in_overall,
+    final Map<Class<?>, CloseableRate> in_rates,
+    final Duration in_deadline)
+  {
+    Objects.requireNonNull(in_overall, "overall");
+    Objects.requireNonNull(in_rates, "rates");
+    Objects.requireNonNull(in_deadline, "deadline");
+
+    if (in_deadline.isNegative()) {
+      throw new IllegalArgumentException("Deadline must be non-negative.");
+    }
+
+    this.overall = new Bucket(Object.class, in_overall);
+    this.buckets = new ArrayList<>(in_rates.size());
+    for (final var entry : in_rates.entrySet()) {
+      this.buckets.add(new Bucket(entry.getKey(), entry.getValue()));
+    }
+    this.bucketsByClass = new ClassValue<>()
+    {
+      @Override
+      protected Bucket computeValue(
+        final Class<?> type)
+      {
+        return CloseablePacer.this.findBucket(type);
+      }
+    };
+
+    this.deadlineNanos = saturatedNanos(in_deadline);
+    this.window = new AtomicReference<>();
+    this.delayed = new AtomicLong();
+  }
+
+  /**
+   * Create a new pacer.
+   *
+   * @param overall  The overall rate of closes
+   * @param rates    The rates of closes for resources of each class or
+   *                 interface; if a resource is an instance of more than
+   *                 one, the first in the iteration order of the map is
+   *                 used
+   * @param deadline The maximum time for which closes are paced
+   *
+   * @return A new pacer
+   */
+
+  public static CloseablePacer create(
+    final CloseableRate overall,
+    final Map<Class<?>, CloseableRate> rates,
+    final Duration deadline)
+  {
+    return new CloseablePacer(overall, rates, deadline);
+  }
+
+  /**
+   * Create a new pacer that applies a single rate to all closes.
+   *
+   * @param overall  The overall rate of closes
+   * @param deadline The maximum time for which closes are paced
+   *
+   * @return A new pacer
+   */
+
+  public static CloseablePacer create(
+    final CloseableRate overall,
+    final Duration deadline)
+  {
+    return create(overall, Map.of(), deadline);
+  }
+
+  private static long saturatedNanos(
+    final Duration duration)
+  {
+    if (duration.compareTo(Duration.ofNanos(LIMIT_NANOS)) > 0) {
+      return LIMIT_NANOS;
+    }
+    return duration.toNanos();
+  }
+
+  private Bucket findBucket(
+    final Class<?> type)
+  {
+    for (final var bucket : this.buckets) {
+      if (bucket.type.isAssignableFrom(type)) {
+        return bucket;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return The total time for which closes have been delayed
+   */
+
+  public Duration delayed()
+  {
+    return Duration.ofNanos(this.delayed.get());
+  }
+
+  @Override
+  public void onCloseStarted(
+    final AutoCloseable resource)
+  {
+    if (Thread.currentThread().isInterrupted()) {
+      return;
+    }
+
+    final long now = System.nanoTime();
+    final long deadline = this.deadline(now);
+    if (now - deadline >= 0L) {
+      return;
+    }
+
+    long until = this.overall.reserve(now);
+    final Bucket bucket = this.bucketsByClass.get(resource.getClass());
+    if (bucket != null) {
+      final long classUntil = bucket.reserve(now);
+      if (classUntil - until > 0L) {
+        until = classUntil;
+      }
+    }
+    if (until - deadline > 0L) {
+      until = deadline;
+    }
+
+    this.pace(now, until);
+  }
+
+  /**
+   * Start pacing a shutdown. The deadline is measured from the time of this
+   * call, regardless of any closes that have already been paced. This
+   * method may be called any number of times; each call restarts the
+   * deadline.
+   */
+
+  public void start()
+  {
+    this.window.set(new Window(System.nanoTime() + this.deadlineNanos));
+  }
+
+  private long deadline(
+    final long now)
+  {
+    final Window current = this.window.get();
+    if (current != null) {
+      return current.deadline;
+    }
+
+    final var started = new Window(now + this.deadlineNanos);
+    if (this.window.compareAndSet(null, started)) {
+      return started.deadline;
+    }
+    return this.window.get().deadline;
+  }
+
+  private void pace(
+    final long now,
+    final long until)
+  {
+    long current = now;
+    while (until - current > 0L) {
+      LockSupport.parkNanos(this, until - current);
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      current = System.nanoTime();
+    }
+    this.delayed.addAndGet(Math.max(0L, System.nanoTime() - now));
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseablePacer %s]".formatted(
+      this.buckets.stream().map(b -> b.type.getName()).toList());
+  }
+
+  private record Window(
+    long deadline)
+  {
+
+  }
+
+  private static final class Bucket
+  {
+    private final Class<?> type;
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong arrival;
+
+    Bucket(
+      final Class<?> in_type,
+      final CloseableRate rate)
+    {
+      this.type = Objects.requireNonNull(in_type, "type");
+      Objects.requireNonNull(rate, "rate");
+      this.interval = rate.intervalNanos();
+      this.tolerance = this.interval * (long) (rate.burst() - 1);
+      this.arrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take a permit.
+     *
+     * @param now The current time
+     *
+     * @return The time at which the permit becomes available
+     */
+
+    long reserve(
+      final long now)
+    {
+      if (this.interval == 0L) {
+        return now;
+      }
+
+      /*
+       * The backlog of reserved permits is limited in the same way as the
+       * deadline, so that the next arrival never wraps around.
+       */
+
+      final long limit = LIMIT_NANOS - this.interval;
+      while (true) {
+        final long expected = this.arrival.get();
+        final long backlog = expected - now;
+        final long base = backlog > 0L ? expected : now;
+        final long next =
+          backlog > limit ? now + LIMIT_NANOS : base + this.interval;
+        if (this.arrival.compareAndSet(expected, next)) {
+          return base - this.tolerance;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableParallelGroupType}
+ * interface.</p>
+ *
+ * <p>Resources are held in a {@link CloseableCollection}. On
+ * {@link #close()}, the collection is drained, the resources are ordered by
+ * their estimated close latency (longest first), and up to
+ * {@link #parallelism()} workers repeatedly take the next resource in that
+ * order and close it. The closing thread is itself one of the workers, and
+ * the remaining workers are created with the group's
+ * {@link ThreadFactory}. If the factory declines to create a thread, or a
+ * thread cannot be started, the resources are closed by the workers that
+ * are running, and at worst by the closing thread alone.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableParallelGroup<E extends Exception>
+  implements CloseableParallelGroupType<E>
+{
+  private final ThreadFactory threads;
+  private final int parallelism;
+  private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
+  private final CloseableCollection<E> resources;
+
+  private CloseableParallelGroup(
+    final ThreadFactory inThreads,
+    final int inParallelism,
+    final Supplier<E> inExceptions,
+    final CloseableMonitorType inMonitor)
+  {
+    this.threads =
+      Objects.requireNonNull(inThreads, "threads");
+    this.exceptions =
+      Objects.requireNonNull(inExceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(inMonitor, "monitor");
+
+    if (inParallelism < 1) {
+      throw new IllegalArgumentException(
+        "Parallelism must be positive (received %d)".formatted(inParallelism)
+      );
+    }
+
+    this.parallelism =
+      inParallelism;
+    this.resources =
+      new CloseableCollection<>(
+        inExceptions,
+        inMonitor,
+        CloseableLateAddPolicy.REJECT
+      );
+  }
+
+  /**
+   * Create a new parallel group.
+   *
+   * @param threads     A factory of worker threads
+   * @param parallelism The maximum number of resources closed concurrently
+   * @param exceptions  A supplier of exceptions
+   * @param monitor     A monitor that observes the group
+   * @param <E>         The precise type of exceptions thrown on close failures
+   *
+   * @return A new group
+   */
+
+  public static <E extends Exception> CloseableParallelGroupType<E> create(
+    final ThreadFactory threads,
+    final int parallelism,
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableParallelGroup<>(
+      threads,
+      parallelism,
+      exceptions,
+      monitor
+    );
+  }
+
+  /**
+   * Create a new parallel group.
+   *
+   * @param threads     A factory of worker threads
+   * @param parallelism The maximum number of resources closed concurrently
+   * @param exceptions  A supplier of exceptions
+   * @param <E>         The precise type of exceptions thrown on close failures
+   *
+   * @return A new group
+   */
+
+  public static <E extends Exception> CloseableParallelGroupType<E> create(
+    final ThreadFactory threads,
+    final int parallelism,
+    final Supplier<E> exceptions)
+  {
+    return create(threads, parallelism, exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new parallel group.
+   *
+   * @param threads     A factory of worker threads
+   * @param parallelism The maximum number of resources closed concurrently
+   *
+   * @return A new group
+   */
+
+  public static CloseableParallelGroupType<ClosingResourceFailedException>
+  create(
+    final ThreadFactory threads,
+    final int parallelism)
+  {
+    return create(threads, parallelism, () -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."));
+  }
+
+  @Override
+  public int parallelism()
+  {
+    return this.parallelism;
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final List<AutoCloseable> drained = this.resources.drain();
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    final var work = new Work(
+      this.monitor,
+      CloseableLatencyEstimator.longestFirst(drained)
+    );
+
+    /*
+     * The resources have already been detached from the collection, so
+     * they must be closed even if worker threads cannot be created. The
+     * closing thread takes whatever work is left unclaimed.
+     */
+
+    final int workers = Math.min(this.parallelism, drained.size()) - 1;
+    try {
+      for (int index = 0; index < workers; ++index) {
+        final Thread thread = this.threads.newThread(work);
+        if (thread == null) {
+          break;
+        }
+        thread.start();
+      }
+    } finally {
+      work.run();
+      work.awaitUninterruptibly();
+    }
+
+    E e = null;
+    for (final var failure : work.failures) {
+      if (e == null) {
+        e = this.exceptions.get();
+      }
+      e.addSuppressed(failure);
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    return this.resources.size();
+  }
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    return this.resources.snapshot();
+  }
+
+  @Override
+  public <T extends AutoCloseable> T add(
+    final T resource)
+  {
+    return this.resources.add(resource);
+  }
+
+  private static final class Work implements Runnable
+  {
+    private final CloseableMonitorType monitor;
+    private final List<AutoCloseable> entries;
+    private final AtomicInteger next;
+    private final CountDownLatch done;
+    private final ConcurrentLinkedQueue<Exception> failures;
+
+    Work(
+      final CloseableMonitorType inMonitor,
+      final List<AutoCloseable> inEntries)
+    {
+      this.monitor = inMonitor;
+      this.entries = inEntries;
+      this.next = new AtomicInteger();
+      this.done = new CountDownLatch(inEntries.size());
+      this.failures = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void run()
+    {
+      while (true) {
+        final int index = this.next.getAndIncrement();
+        if (index >= this.entries.size()) {
+          return;
+        }
+
+        final AutoCloseable entry = this.entries.get(index);
+        final long start = System.nanoTime();
+        try {
+          final Exception failure =
+            CloseableClosing.closeOne(this.monitor, entry);
+          if (failure != null) {
+            this.failures.add(failure);
+          }
+        } finally {
+          CloseableLatencyEstimator.record(
+            CloseableClosing.resourceOf(entry).getClass(),
+            System.nanoTime() - start
+          );
+          this.done.countDown();
+        }
+      }
+    }
+
+    void awaitUninterruptibly()
+    {
+      boolean interrupted = false;
+      while (true) {
+        try {
+          this.done.await();
+          break;
+        } catch (final InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A collection of resources that are closed concurrently with respect to
+ * each other.</p>
+ *
+ * <p>A group is typically added to an ordinary collection to mark a set of
+ * independent resources as eligible for parallel closing: the group is
+ * closed at its position in the enclosing collection, and the resources
+ * within the group are closed in parallel. Closing the group does not
+ * return until every resource in the group has been closed.</p>
+ *
+ * <p>Within a group, resources whose classes have historically taken the
+ * longest to close are started first, so that the time taken to close the
+ * group is as close as possible to the time taken to close its slowest
+ * resource. The estimates are learned automatically from previous
+ * closes.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableParallelGroupType<E extends Exception>
+  extends CloseableCollectionType<E>
+{
+  /**
+   * @return The maximum number of resources closed concurrently
+   */
+
+  int parallelism();
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseablePathScopeType}
+ * interface.</p>
+ *
+ * <p>Paths are held in a single list guarded by a lock, with one bit per
+ * path recording whether the path is a tree; no per-path closure or
+ * collection node is allocated. Closing the scope detaches the list and
+ * deletes the paths as a tree of fork/join tasks: the list is split into
+ * batches, and each registered tree, and each directory within a tree,
+ * becomes a task of its own.</p>
+ *
+ * <p>Deletion is dominated by file system latency rather than computation,
+ * and so a dedicated pool with a parallelism larger than the number of
+ * processors typically deletes large trees faster than the common
+ * pool.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseablePathScope<E extends Exception>
+  implements CloseablePathScopeType<E>
+{
+  private static final int BATCH_SIZE = 64;
+
+  private final Path directory;
+  private final ForkJoinPool pool;
+  private final Supplier<E> exceptions;
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private ArrayList<Path> paths;
+  @GuardedBy("lock")
+  private BitSet trees;
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private CloseablePathScope(
+    final Path in_directory,
+    final ForkJoinPool in_pool,
+    final Supplier<E> in_exceptions)
+  {
+    this.directory =
+      Objects.requireNonNull(in_directory, "directory");
+    this.pool =
+      Objects.requireNonNull(in_pool, "pool");
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.lock =
+      new ReentrantLock();
+    this.paths =
+      new ArrayList<>();
+    this.trees =
+      new BitSet();
+  }
+
+  /**
+   * Create a new path scope.
+   *
+   * @param directory  The directory in which temporary files are created
+   * @param pool       The pool that executes deletions
+   * @param exceptions A supplier of exceptions
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new scope
+   */
+
+  public static <E extends Exception> CloseablePathScopeType<E> create(
+    final Path directory,
+    final ForkJoinPool pool,
+    final Supplier<E> exceptions)
+  {
+    return new CloseablePathScope<>(directory, pool, exceptions);
+  }
+
+  /**
+   * Create a new path scope that executes deletions in the common pool.
+   *
+   * @param directory The directory in which temporary files are created
+   *
+   * @return A new scope
+   */
+
+  public static CloseablePathScopeType<ClosingResourceFailedException> create(
+    final Path directory)
+  {
+    return create(
+      directory,
+      ForkJoinPool.commonPool(),
+      () -> new ClosingResourceFailedException(
+        "One or more paths could not be deleted.")
+    );
+  }
+
+  /**
+   * Create a new path scope that creates temporary files in the default
+   * temporary directory, and executes deletions in the common pool.
+   *
+   * @return A new scope
+   */
+
+  public static CloseablePathScopeType<ClosingResourceFailedException> create()
+  {
+    return create(Path.of(System.getProperty("java.io.tmpdir")));
+  }
+
+  @Override
+  public Path directory()
+  {
+    return this.directory;
+  }
+
+  @Override
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.paths.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public List<Path> snapshot()
+  {
+    this.lock.lock();
+    try {
+      return List.copyOf(this.paths);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public Path addFile(
+    final Path file)
+  {
+    return this.addPath(file, false);
+  }
+
+  @Override
+  public Path addTree(
+    final Path tree)
+  {
+    return this.addPath(tree, true);
+  }
+
+  private Path addPath(
+    final Path path,
+    final boolean tree)
+  {
+    Objects.requireNonNull(path, "path");
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Scope is closed.");
+      }
+      if (tree) {
+        this.trees.set(this.paths.size());
+      }
+      this.paths.add(path);
+      return path;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public Path createTempFile(
+    final String prefix,
+    final String suffix)
+    throws IOException
+  {
+    this.checkNotClosed();
+    return this.addOrDelete(
+      Files.createTempFile(this.directory, prefix, suffix), false);
+  }
+
+  @Override
+  public Path createTempDirectory(
+    final String prefix)
+    throws IOException
+  {
+    this.checkNotClosed();
+    return this.addOrDelete(
+      Files.createTempDirectory(this.directory, prefix), true);
+  }
+
+  private void checkNotClosed()
+  {
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Scope is closed.");
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private Path addOrDelete(
+    final Path path,
+    final boolean tree)
+    throws IOException
+  {
+    try {
+      return this.addPath(path, tree);
+    } catch (final IllegalStateException e) {
+      Files.deleteIfExists(path);
+      throw e;
+    }
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final List<Path> detachedPaths;
+    final BitSet detachedTrees;
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      detachedPaths = this.paths;
+      detachedTrees = this.trees;
+      this.paths = new ArrayList<>(0);
+      this.trees = new BitSet(0);
+    } finally {
+      this.lock.unlock();
+    }
+
+    final var failures = new ConcurrentLinkedQueue<IOException>();
+    this.pool.invoke(ForkJoinTask.adapt(() -> {
+      deleteBatch(
+        detachedPaths,
+        detachedTrees,
+        0,
+        detachedPaths.size(),
+        failures
+      );
+    }));
+
+    E e = null;
+    for (final var failure : failures) {
+      if (e == null) {
+        e = this.exceptions.get();
+      }
+      e.addSuppressed(failure);
+    }
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseablePathScope %s]".formatted(this.directory);
+  }
+
+  private static void deleteQuietly(
+    final Path path,
+    final Queue<IOException> failures)
+  {
+    try {
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      failures.add(e);
+    }
+  }
+
+  private static void deleteBatch(
+    final List<Path> paths,
+    final BitSet trees,
+    final int start,
+    final int end,
+    final Queue<IOException> failures)
+  {
+    if (end - start > BATCH_SIZE) {
+      final int middle = (start + end) >>> 1;
+      ForkJoinTask.invokeAll(
+        ForkJoinTask.adapt(() -> {
+          deleteBatch(paths, trees, start, middle, failures);
+        }),
+        ForkJoinTask.adapt(() -> {
+          deleteBatch(paths, trees, middle, end, failures);
+        })
+      );
+      return;
+    }
+
+    final var subtrees = new ArrayList<ForkJoinTask<?>>();
+    for (int index = start; index < end; ++index) {
+      final Path path = paths.get(index);
+      if (trees.get(index)) {
+        subtrees.add(ForkJoinTask.adapt(() -> deleteTree(path, failures)));
+      } else {
+        deleteQuietly(path, failures);
+      }
+    }
+    ForkJoinTask.invokeAll(subtrees);
+  }
+
+  private static void deleteTree(
+    final Path root,
+    final Queue<IOException> failures)
+  {
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(
+        root,
+        BasicFileAttributes.class,
+        LinkOption.NOFOLLOW_LINKS
+      );
+    } catch (final NoSuchFileException e) {
+      return;
+    } catch (final IOException e) {
+      failures.add(e);
+      return;
+    }
+
+    if (attributes.isDirectory()) {
+      ForkJoinTask.invokeAll(deleteChildren(root, failures));
+    }
+    deleteQuietly(root, failures);
+  }
+
+  private static List<ForkJoinTask<?>> deleteChildren(
+    final Path root,
+    final Queue<IOException> failures)
+  {
+    final var subtrees = new ArrayList<ForkJoinTask<?>>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+      for (final Path child : stream) {
+        if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+          subtrees.add(ForkJoinTask.adapt(() -> deleteTree(child, failures)));
+        } else {
+          deleteQuietly(child, failures);
+        }
+      }
+    } catch (final NoSuchFileException e) {
+      return List.of();
+    } catch (final IOException e) {
+      failures.add(e);
+    } catch (final DirectoryIteratorException e) {
+      failures.add(e.getCause());
+    }
+    return subtrees;
+  }
+}
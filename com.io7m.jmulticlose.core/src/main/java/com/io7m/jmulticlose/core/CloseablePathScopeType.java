@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * <p>A scope of temporary files and directories that are deleted when the
+ * scope is closed.</p>
+ *
+ * <p>Paths are recorded directly rather than as individual
+ * {@link AutoCloseable} values, and are deleted in parallel when
+ * {@link #close()} is called. Directory trees are walked concurrently, with
+ * each subdirectory deleted by a separate task. Because deletion is
+ * parallel, no ordering is guaranteed between the paths in a scope.
+ * Deletion tolerates paths that have already been deleted, including paths
+ * that lie within trees that are also registered.</p>
+ *
+ * <p>A scope is typically added to an ordinary collection, so that the
+ * whole scope is deleted at its position in the enclosing collection.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ *
+ * @see CloseableCollectionType#addPathScope()
+ */
+
+@ProviderType
+public interface CloseablePathScopeType<E extends Exception>
+  extends AutoCloseable
+{
+  /**
+   * Delete every path in this scope. If deleting any path raises an
+   * exception, add the exception as a <i>suppressed exception</i> to an
+   * exception {@code e}, continue deleting paths, and at the end of the
+   * method, throw {@code e}.
+   *
+   * @throws E If required
+   */
+
+  @Override
+  void close()
+    throws E;
+
+  /**
+   * @return The directory in which temporary files and directories are
+   * created
+   */
+
+  Path directory();
+
+  /**
+   * @return The number of paths in the scope
+   */
+
+  int size();
+
+  /**
+   * @return The paths in the scope, in the order in which they were added
+   */
+
+  List<Path> snapshot();
+
+  /**
+   * Add a file (or an empty directory, or a symbolic link) to be deleted
+   * when this scope is closed.
+   *
+   * @param file The file
+   *
+   * @return {@code file}
+   *
+   * @throws IllegalStateException If {@link #close()} has been called
+   */
+
+  Path addFile(Path file)
+    throws IllegalStateException;
+
+  /**
+   * Add a directory to be deleted, along with everything inside it, when
+   * this scope is closed. Symbolic links within the tree are deleted, but
+   * are not followed.
+   *
+   * @param directory The directory
+   *
+   * @return {@code directory}
+   *
+   * @throws IllegalStateException If {@link #close()} has been called
+   */
+
+  Path addTree(Path directory)
+    throws IllegalStateException;
+
+  /**
+   * Create a new empty file in {@link #directory()}, and add it to the
+   * scope.
+   *
+   * @param prefix The file name prefix
+   * @param suffix The file name suffix
+   *
+   * @return The new file
+   *
+   * @throws IOException           On I/O errors
+   * @throws IllegalStateException If {@link #close()} has been called
+   * @see java.nio.file.Files#createTempFile(Path, String, String,
+   * java.nio.file.attribute.FileAttribute[])
+   */
+
+  Path createTempFile(
+    String prefix,
+    String suffix)
+    throws IOException, IllegalStateException;
+
+  /**
+   * Create a new directory in {@link #directory()}, and add it to the scope
+   * as a tree.
+   *
+   * @param prefix The directory name prefix
+   *
+   * @return The new directory
+   *
+   * @throws IOException           On I/O errors
+   * @throws IllegalStateException If {@link #close()} has been called
+   * @see java.nio.file.Files#createTempDirectory(Path, String,
+   * java.nio.file.attribute.FileAttribute[])
+   */
+
+  Path createTempDirectory(
+    String prefix)
+    throws IOException, IllegalStateException;
+}
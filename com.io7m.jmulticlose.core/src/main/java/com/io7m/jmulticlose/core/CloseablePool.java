@@ -0,0 +1,460 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseablePoolType}
+ * interface.</p>
+ *
+ * <p>Idle resources are held in a stack per key, guarded by a single lock.
+ * The most recently returned resource is reused first, so that resources
+ * that are no longer needed age at the bottom of each stack and are closed
+ * once they have been idle for too long. Expired resources are closed when
+ * resources for the same key are returned, and on
+ * {@link #evictIdle()}. Resources are created and closed without holding
+ * the lock.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of pooled resources
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseablePool<K, T extends AutoCloseable, E extends Exception>
+  implements CloseablePoolType<K, T, E>
+{
+  private final Function<? super K, ? extends T> factory;
+  private final int maxIdlePerKey;
+  private final long maxIdleNanos;
+  private final Supplier<E> exceptions;
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private final Map<K, ArrayDeque<Idle<T>>> idle;
+  @GuardedBy("lock")
+  private int idleCount;
+  @GuardedBy("lock")
+  private int leasedCount;
+  private volatile boolean closed;
+
+  private CloseablePool(
+    final Function<? super K, ? extends T> in_factory,
+    final int in_maxIdlePerKey,
+    final Duration in_maxIdleTime,
+    final Supplier<E> in_exceptions)
+  {
+    this.factory =
+      Objects.requireNonNull(in_factory, "factory");
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    Objects.requireNonNull(in_maxIdleTime, "maxIdleTime");
+
+    if (in_maxIdlePerKey < 0) {
+      throw new IllegalArgumentException(
+        "Maximum idle resources must be non-negative (received %d)"
+          .formatted(Integer.valueOf(in_maxIdlePerKey))
+      );
+    }
+    if (in_maxIdleTime.isNegative()) {
+      throw new IllegalArgumentException(
+        "Maximum idle time must be non-negative.");
+    }
+
+    this.maxIdlePerKey =
+      in_maxIdlePerKey;
+    this.maxIdleNanos =
+      in_maxIdleTime.compareTo(Duration.ofNanos(Long.MAX_VALUE / 2L)) > 0
+        ? Long.MAX_VALUE / 2L
+        : in_maxIdleTime.toNanos();
+    this.lock =
+      new ReentrantLock();
+    this.idle =
+      new HashMap<>();
+  }
+
+  /**
+   * Create a new pool.
+   *
+   * @param factory       A function that creates resources for keys
+   * @param maxIdlePerKey The maximum number of idle resources held for each
+   *                      key
+   * @param maxIdleTime   The maximum time for which a resource may be idle
+   * @param exceptions    A supplier of exceptions
+   * @param <K>           The type of keys
+   * @param <T>           The type of pooled resources
+   * @param <E>           The precise type of exceptions thrown on close
+   *                      failures
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends AutoCloseable, E extends Exception>
+  CloseablePoolType<K, T, E> create(
+    final Function<? super K, ? extends T> factory,
+    final int maxIdlePerKey,
+    final Duration maxIdleTime,
+    final Supplier<E> exceptions)
+  {
+    return new CloseablePool<>(factory, maxIdlePerKey, maxIdleTime, exceptions);
+  }
+
+  /**
+   * Create a new pool.
+   *
+   * @param factory       A function that creates resources for keys
+   * @param maxIdlePerKey The maximum number of idle resources held for each
+   *                      key
+   * @param maxIdleTime   The maximum time for which a resource may be idle
+   * @param <K>           The type of keys
+   * @param <T>           The type of pooled resources
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends AutoCloseable>
+  CloseablePoolType<K, T, ClosingResourceFailedException> create(
+    final Function<? super K, ? extends T> factory,
+    final int maxIdlePerKey,
+    final Duration maxIdleTime)
+  {
+    return create(
+      factory,
+      maxIdlePerKey,
+      maxIdleTime,
+      () -> new ClosingResourceFailedException(
+        "One or more resources could not be closed.")
+    );
+  }
+
+  private static boolean isUsable(
+    final AutoCloseable resource)
+  {
+    return !(resource instanceof CloseableType c && c.isClosed());
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed;
+  }
+
+  @Override
+  public CloseablePoolLeaseType<T> acquire(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    final T reused = this.takeIdle(key);
+    if (reused != null) {
+      return new Lease<>(this, key, reused);
+    }
+
+    final T created =
+      Objects.requireNonNull(this.factory.apply(key), "factory.apply(key)");
+
+    this.lock.lock();
+    try {
+      if (!this.closed) {
+        ++this.leasedCount;
+        return new Lease<>(this, key, created);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    final var e = new IllegalStateException("Pool is closed.");
+    try {
+      created.close();
+    } catch (final Exception ex) {
+      e.addSuppressed(ex);
+    }
+    throw e;
+  }
+
+  private T takeIdle(
+    final K key)
+  {
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Pool is closed.");
+      }
+
+      final var stack = this.idle.get(key);
+      while (stack != null && !stack.isEmpty()) {
+        final T resource = stack.pop().resource;
+        --this.idleCount;
+        if (isUsable(resource)) {
+          ++this.leasedCount;
+          return resource;
+        }
+      }
+      return null;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void release(
+    final K key,
+    final T resource)
+    throws E
+  {
+    final var doomed = new ArrayList<AutoCloseable>();
+
+    this.lock.lock();
+    try {
+      --this.leasedCount;
+      if (this.closed) {
+        doomed.add(resource);
+      } else if (isUsable(resource)) {
+        final long now = System.nanoTime();
+        final var stack =
+          this.idle.computeIfAbsent(key, k -> new ArrayDeque<>());
+        stack.push(new Idle<>(resource, now));
+        ++this.idleCount;
+        this.trim(stack, now, doomed);
+        if (stack.isEmpty()) {
+          this.idle.remove(key);
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.closeAll(doomed);
+  }
+
+  private void invalidate(
+    final T resource)
+    throws Exception
+  {
+    this.lock.lock();
+    try {
+      --this.leasedCount;
+    } finally {
+      this.lock.unlock();
+    }
+    resource.close();
+  }
+
+  @GuardedBy("lock")
+  private void trim(
+    final ArrayDeque<Idle<T>> stack,
+    final long now,
+    final List<AutoCloseable> doomed)
+  {
+    while (stack.size() > this.maxIdlePerKey
+      || (!stack.isEmpty() && now - stack.peekLast().since > this.maxIdleNanos)) {
+      doomed.add(stack.removeLast().resource);
+      --this.idleCount;
+    }
+  }
+
+  @Override
+  public int idleCount()
+  {
+    this.lock.lock();
+    try {
+      return this.idleCount;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int leasedCount()
+  {
+    this.lock.lock();
+    try {
+      return this.leasedCount;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int evictIdle()
+    throws E
+  {
+    final var doomed = new ArrayList<AutoCloseable>();
+
+    this.lock.lock();
+    try {
+      final long now = System.nanoTime();
+      final var iterator = this.idle.values().iterator();
+      while (iterator.hasNext()) {
+        final var stack = iterator.next();
+        this.trim(stack, now, doomed);
+        if (stack.isEmpty()) {
+          iterator.remove();
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.closeAll(doomed);
+    return doomed.size();
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final var doomed = new ArrayList<AutoCloseable>();
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      for (final var stack : this.idle.values()) {
+        for (final var entry : stack) {
+          doomed.add(entry.resource);
+        }
+      }
+      this.idle.clear();
+      this.idleCount = 0;
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.closeAll(doomed);
+  }
+
+  private void closeAll(
+    final List<AutoCloseable> doomed)
+    throws E
+  {
+    E e = null;
+    for (final var resource : doomed) {
+      e = CloseableClosing.close(
+        CloseableMonitors.none(), resource, this.exceptions, e);
+    }
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseablePool %s]".formatted(
+      this.closed ? "closed" : "open");
+  }
+
+  private static final class Idle<T>
+  {
+    private final T resource;
+    private final long since;
+
+    Idle(
+      final T in_resource,
+      final long in_since)
+    {
+      this.resource = in_resource;
+      this.since = in_since;
+    }
+  }
+
+  private static final class Lease<K, T extends AutoCloseable>
+    implements CloseablePoolLeaseType<T>
+  {
+    private static final VarHandle RELEASED;
+
+    static {
+      try {
+        RELEASED = MethodHandles.lookup()
+          .findVarHandle(Lease.class, "released", boolean.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final CloseablePool<K, T, ?> pool;
+    private final K key;
+    private final T resource;
+    private volatile boolean released;
+
+    Lease(
+      final CloseablePool<K, T, ?> in_pool,
+      final K in_key,
+      final T in_resource)
+    {
+      this.pool = in_pool;
+      this.key = in_key;
+      this.resource = in_resource;
+    }
+
+    @Override
+    public T get()
+    {
+      if (this.released) {
+        throw new IllegalStateException("Lease has been released.");
+      }
+      return this.resource;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.released;
+    }
+
+    @Override
+    public void close()
+      throws Exception
+    {
+      if (RELEASED.compareAndSet(this, false, true)) {
+        this.pool.release(this.key, this.resource);
+      }
+    }
+
+    @Override
+    public void invalidate()
+      throws Exception
+    {
+      if (RELEASED.compareAndSet(this, false, true)) {
+        this.pool.invalidate(this.resource);
+      }
+    }
+
+    @Override
+    public String toString()
+    {
+      return "[CloseablePoolLease %s]".formatted(this.key);
+    }
+  }
+}
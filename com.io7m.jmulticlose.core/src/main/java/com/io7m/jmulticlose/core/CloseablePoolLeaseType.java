@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A lease of a resource from a pool.</p>
+ *
+ * <p>Closing a lease returns the resource to the pool rather than closing
+ * it; closing a lease more than once has no further effect. A lease is
+ * typically added to a collection or tracker, so that the resource is
+ * returned to the pool when the scope is closed.</p>
+ *
+ * @param <T> The type of pooled resource
+ *
+ * @see CloseablePoolType
+ */
+
+@ProviderType
+public interface CloseablePoolLeaseType<T extends AutoCloseable>
+  extends CloseableReferenceType<T>
+{
+  /**
+   * Return the resource to the pool. If the pool already holds as many
+   * idle resources for the same key as it permits, or if the pool has been
+   * closed, the resource is closed instead.
+   *
+   * @throws Exception If closing any resource raises an exception
+   */
+
+  @Override
+  void close()
+    throws Exception;
+
+  /**
+   * Close the resource instead of returning it to the pool. This is
+   * typically used when the resource is known to be broken. Calling this
+   * method after the lease has been released has no effect.
+   *
+   * @throws Exception If the resource raises an exception on closing
+   */
+
+  void invalidate()
+    throws Exception;
+}
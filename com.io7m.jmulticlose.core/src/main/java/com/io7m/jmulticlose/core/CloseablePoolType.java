@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A keyed pool of resources that are reused rather than closed.</p>
+ *
+ * <p>Resources are leased from the pool with {@link #acquire(Object)}, and
+ * return to the pool when the lease is closed. The pool closes idle
+ * resources itself when there are more idle resources for a key than the
+ * pool permits, and when resources have been idle for longer than the pool
+ * permits. Closing the pool closes every idle resource; resources that are
+ * leased at the time are closed when their leases are released.</p>
+ *
+ * <p>A pool is typically added to a tracker with
+ * {@link CloseableTrackerType#addPool(java.util.function.Function, int,
+ * java.time.Duration)}, so that closing the tracker closes everything that
+ * the pool still holds.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of pooled resources
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseablePoolType<K, T extends AutoCloseable, E extends Exception>
+  extends CloseableType
+{
+  /**
+   * Close every idle resource in this pool, and close leased resources as
+   * their leases are released. If any of the resources raise an exception
+   * upon being closed, add the exception as a <i>suppressed exception</i>
+   * to an exception {@code e}, continue closing resources, and at the end
+   * of the method, throw {@code e}.
+   *
+   * @throws E If required
+   */
+
+  @Override
+  void close()
+    throws E;
+
+  /**
+   * Lease a resource for the given key, reusing the most recently returned
+   * idle resource for the key if there is one, and otherwise creating a new
+   * resource. Idle resources that implement {@link CloseableType} and have
+   * been closed elsewhere are discarded rather than reused.
+   *
+   * @param key The key
+   *
+   * @return A lease of the resource
+   *
+   * @throws IllegalStateException If the pool has been closed
+   */
+
+  CloseablePoolLeaseType<T> acquire(K key)
+    throws IllegalStateException;
+
+  /**
+   * @return The number of idle resources in the pool
+   */
+
+  int idleCount();
+
+  /**
+   * @return The number of resources currently leased from the pool
+   */
+
+  int leasedCount();
+
+  /**
+   * Close every resource that has been idle for longer than the pool
+   * permits.
+   *
+   * @return The number of resources closed
+   *
+   * @throws E If any of the resources raise an exception upon being closed
+   */
+
+  int evictIdle()
+    throws E;
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limit expressed as a token bucket.
+ *
+ * @param permitsPerSecond The rate at which the bucket refills, which may be
+ *                         {@link Double#POSITIVE_INFINITY} for no limit
+ * @param burst            The capacity of the bucket; that is, the number
+ *                         of permits that may be taken at once after a
+ *                         period of inactivity
+ *
+ * <p>The interval between permits, multiplied by the burst, must not exceed
+ * half of the range of {@link System#nanoTime()} (roughly 146 years), as
+ * pacing compares times by subtraction.</p>
+ *
+ * @see CloseablePacer
+ */
+
+public record CloseableRate(
+  double permitsPerSecond,
+  int burst)
+{
+  /**
+   * A rate limit expressed as a token bucket.
+   *
+   * @param permitsPerSecond The rate at which the bucket refills, which may
+   *                         be {@link Double#POSITIVE_INFINITY} for no limit
+   * @param burst            The capacity of the bucket; that is, the number
+   *                         of permits that may be taken at once after a
+   *                         period of inactivity
+   */
+
+  public CloseableRate
+  {
+    if (!(permitsPerSecond > 0.0)) {
+      throw new IllegalArgumentException(
+        "Permits per second must be positive (received %s)"
+          .formatted(Double.valueOf(permitsPerSecond))
+      );
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException(
+        "Burst must be at least 1 (received %d)"
+          .formatted(Integer.valueOf(burst))
+      );
+    }
+
+    final double span =
+      (double) TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond * (double) burst;
+    if (span > (double) CloseablePacer.LIMIT_NANOS) {
+      throw new IllegalArgumentException(
+        "Rate %s with burst %d is too slow to be paced"
+          .formatted(Double.valueOf(permitsPerSecond), Integer.valueOf(burst))
+      );
+    }
+  }
+
+  /**
+   * @return A rate that imposes no limit
+   */
+
+  public static CloseableRate unlimited()
+  {
+    return new CloseableRate(Double.POSITIVE_INFINITY, 1);
+  }
+
+  /**
+   * @param permitsPerSecond The rate at which the bucket refills
+   *
+   * @return A rate that permits no bursts
+   */
+
+  public static CloseableRate perSecond(
+    final double permitsPerSecond)
+  {
+    return new CloseableRate(permitsPerSecond, 1);
+  }
+
+  /**
+   * @return The interval between permits in nanoseconds
+   */
+
+  long intervalNanos()
+  {
+    return (long) ((double) TimeUnit.SECONDS.toNanos(1L) / this.permitsPerSecond);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A handle to a reclaimable resource, such as a cache or an idle mapped
+ * buffer, that may be closed early by a {@link CloseableReclaimerType}
+ * when memory is scarce.</p>
+ *
+ * <p>Reclaimable resources are reclaimed in least-recently-used order. A
+ * resource is used whenever it is retrieved with {@link #get()}, or
+ * explicitly marked as used with {@link #touch()}. Closing the handle
+ * closes the resource, unless it has already been reclaimed, and in either
+ * case the handle reports itself as closed so that trackers discard
+ * it.</p>
+ *
+ * <p>A resource retrieved with {@link #get()} may be reclaimed, and
+ * therefore closed, by another thread whilst the caller is still using it.
+ * Callers that cannot tolerate this, such as users of mapped buffers,
+ * should use {@link #acquire()} instead: a resource is never reclaimed
+ * whilst it is acquired, and closing the handle whilst the resource is
+ * acquired defers closing the resource until the last acquisition is
+ * released.</p>
+ *
+ * @param <T> The type of resource
+ */
+
+@ProviderType
+public interface CloseableReclaimableType<T extends AutoCloseable>
+  extends CloseableType
+{
+  /**
+   * Retrieve the resource, and mark it as recently used.
+   *
+   * @return The resource
+   *
+   * @throws IllegalStateException If the resource has been closed or
+   *                               reclaimed
+   */
+
+  T get()
+    throws IllegalStateException;
+
+  /**
+   * Retrieve the resource, mark it as recently used, and prevent it from
+   * being reclaimed until the returned reference is closed.
+   *
+   * @return A reference to the resource
+   *
+   * @throws IllegalStateException If the resource has been closed or
+   *                               reclaimed
+   */
+
+  CloseableReferenceType<T> acquire()
+    throws IllegalStateException;
+
+  /**
+   * Mark the resource as recently used.
+   */
+
+  void touch();
+
+  /**
+   * @return {@code true} if the resource was closed by its reclaimer
+   */
+
+  boolean isReclaimed();
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>The default implementation of the {@link CloseableReclaimerType}
+ * interface.</p>
+ *
+ * <p>Each handle records the time at which it was last used in a single
+ * volatile field, so marking a resource as used never takes a lock.
+ * Handles are held in a concurrent set, and reclaiming takes a snapshot of
+ * the set, capturing the time of last use of each handle exactly once, and
+ * sorts the snapshot. Handles used concurrently with reclaiming are ordered
+ * by the time they had when the snapshot was taken. Reclaiming is expected
+ * to be rare compared to use.</p>
+ *
+ * <p>Each handle holds a single state word counting the acquisitions of its
+ * resource, with the sign bit set once the handle is closed or reclaimed.
+ * Reclaiming only succeeds on a handle with no acquisitions, so acquired
+ * resources are skipped rather than waited for.</p>
+ */
+
+@ThreadSafe
+public final class CloseableReclaimer implements CloseableReclaimerType
+{
+  private static final System.Logger LOG =
+    System.getLogger(CloseableReclaimer.class.getName());
+
+  private final Set<Handle<?>> handles;
+
+  private CloseableReclaimer()
+  {
+    this.handles = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Create a new reclaimer.
+   *
+   * @return A new reclaimer
+   */
+
+  public static CloseableReclaimerType create()
+  {
+    return new CloseableReclaimer();
+  }
+
+  @Override
+  public <T extends AutoCloseable> CloseableReclaimableType<T> register(
+    final T resource)
+  {
+    final var handle = new Handle<>(this, resource);
+    this.handles.add(handle);
+    return handle;
+  }
+
+  @Override
+  public int size()
+  {
+    return this.handles.size();
+  }
+
+  @Override
+  public int reclaim(
+    final int maximum)
+  {
+    if (maximum <= 0) {
+      return 0;
+    }
+
+    final var candidates = new ArrayList<Candidate>(this.handles.size());
+    for (final var handle : this.handles) {
+      candidates.add(new Candidate(handle.lastUsed, handle));
+    }
+    candidates.sort(Comparator.comparingLong(Candidate::lastUsed));
+
+    int reclaimed = 0;
+    for (final var candidate : candidates) {
+      if (reclaimed == maximum) {
+        break;
+      }
+      if (candidate.handle.reclaim()) {
+        ++reclaimed;
+      }
+    }
+    return reclaimed;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseableReclaimer %d]".formatted(
+      Integer.valueOf(this.handles.size()));
+  }
+
+  private record Candidate(
+    long lastUsed,
+    Handle<?> handle)
+  {
+
+  }
+
+  private static final class Handle<T extends AutoCloseable>
+    implements CloseableReclaimableType<T>
+  {
+    private static final VarHandle STATE;
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    static {
+      try {
+        STATE = MethodHandles.lookup()
+          .findVarHandle(Handle.class, "state", int.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final CloseableReclaimer owner;
+    private final T resource;
+    private volatile long lastUsed;
+    private volatile int state;
+    private volatile boolean reclaimed;
+
+    Handle(
+      final CloseableReclaimer inOwner,
+      final T inResource)
+    {
+      this.owner = inOwner;
+      this.resource = Objects.requireNonNull(inResource, "resource");
+      this.lastUsed = System.nanoTime();
+    }
+
+    @Override
+    public T get()
+    {
+      if (this.state < 0) {
+        throw new IllegalStateException("Resource has been closed.");
+      }
+      this.touch();
+      return this.resource;
+    }
+
+    @Override
+    public CloseableReferenceType<T> acquire()
+    {
+      while (true) {
+        final int current = this.state;
+        if (current < 0) {
+          throw new IllegalStateException("Resource has been closed.");
+        }
+        if (STATE.compareAndSet(this, current, current + 1)) {
+          this.touch();
+          return new Pin<>(this);
+        }
+      }
+    }
+
+    void unpin()
+      throws Exception
+    {
+      final int previous = (int) STATE.getAndAdd(this, -1);
+      if (previous == (CLOSED | 1)) {
+        this.resource.close();
+      }
+    }
+
+    @Override
+    public void touch()
+    {
+      this.lastUsed = System.nanoTime();
+    }
+
+    @Override
+    public boolean isReclaimed()
+    {
+      return this.reclaimed;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.state < 0;
+    }
+
+    @Override
+    public void close()
+      throws Exception
+    {
+      while (true) {
+        final int current = this.state;
+        if (current < 0) {
+          return;
+        }
+        if (STATE.compareAndSet(this, current, current | CLOSED)) {
+          this.owner.handles.remove(this);
+          if (current == 0) {
+            this.resource.close();
+          }
+          return;
+        }
+      }
+    }
+
+    boolean reclaim()
+    {
+      if (!STATE.compareAndSet(this, 0, CLOSED)) {
+        return false;
+      }
+
+      this.reclaimed = true;
+      this.owner.handles.remove(this);
+      try {
+        this.resource.close();
+      } catch (final Exception e) {
+        LOG.log(
+          System.Logger.Level.ERROR,
+          "Failed to close reclaimed resource %s".formatted(this.resource),
+          e
+        );
+      }
+      return true;
+    }
+
+    @Override
+    public String toString()
+    {
+      return this.resource.toString();
+    }
+  }
+
+  private static final class Pin<T extends AutoCloseable>
+    implements CloseableReferenceType<T>
+  {
+    private static final VarHandle RELEASED;
+
+    static {
+      try {
+        RELEASED = MethodHandles.lookup()
+          .findVarHandle(Pin.class, "released", boolean.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final Handle<T> handle;
+    private volatile boolean released;
+
+    Pin(
+      final Handle<T> inHandle)
+    {
+      this.handle = inHandle;
+    }
+
+    @Override
+    public T get()
+    {
+      if (this.released) {
+        throw new IllegalStateException("Reference has been released.");
+      }
+      return this.handle.resource;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.released;
+    }
+
+    @Override
+    public void close()
+      throws Exception
+    {
+      if (RELEASED.compareAndSet(this, false, true)) {
+        this.handle.unpin();
+      }
+    }
+
+    @Override
+    public String toString()
+    {
+      return this.handle.toString();
+    }
+  }
+}
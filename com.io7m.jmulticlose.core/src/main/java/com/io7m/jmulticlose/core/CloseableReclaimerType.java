@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A registry of reclaimable resources that can be closed early, least
+ * recently used first, to shed discretionary memory.</p>
+ *
+ * <p>A reclaimer does not own the resources registered with it: the
+ * resources are owned by whichever tracker or collection holds their
+ * handles, and the reclaimer merely closes them early. Reclaiming happens
+ * on whichever thread calls {@link #reclaim(int)}, and failures are logged
+ * rather than raised, as there is typically nobody to report them to.</p>
+ *
+ * @see CloseableTrackerType#addReclaimable(CloseableReclaimerType,
+ * AutoCloseable)
+ * @see CloseableMemoryPressure
+ */
+
+@ProviderType
+public interface CloseableReclaimerType
+{
+  /**
+   * Register a reclaimable resource.
+   *
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return A handle to the resource
+   */
+
+  <T extends AutoCloseable> CloseableReclaimableType<T> register(
+    T resource);
+
+  /**
+   * @return The number of registered resources that have not been closed
+   */
+
+  int size();
+
+  /**
+   * Close up to {@code maximum} resources, least recently used first.
+   *
+   * @param maximum The maximum number of resources to close
+   *
+   * @return The number of resources closed
+   */
+
+  int reclaim(int maximum);
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A counted reference to a shared resource.</p>
+ *
+ * <p>Closing a reference releases it; closing a reference more than once has
+ * no further effect. The shared resource is closed when the last reference
+ * to it is released.</p>
+ *
+ * @param <T> The type of shared resource
+ *
+ * @see CloseableSharedType
+ */
+
+@ProviderType
+public interface CloseableReferenceType<T extends AutoCloseable>
+  extends CloseableType
+{
+  /**
+   * @return The shared resource
+   *
+   * @throws IllegalStateException If this reference has been released
+   */
+
+  T get()
+    throws IllegalStateException;
+
+  /**
+   * Release this reference. If this is the last reference to the shared
+   * resource, the shared resource is closed.
+   *
+   * @throws Exception If the shared resource raises an exception on closing
+   */
+
+  @Override
+  void close()
+    throws Exception;
+}
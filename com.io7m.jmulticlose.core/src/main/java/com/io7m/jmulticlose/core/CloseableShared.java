@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>The default implementation of the {@link CloseableSharedType}
+ * interface.</p>
+ *
+ * <p>The reference count is maintained with compare-and-set operations;
+ * acquiring and releasing references never blocks.</p>
+ *
+ * @param <T> The type of shared resource
+ */
+
+@ThreadSafe
+public final class CloseableShared<T extends AutoCloseable>
+  implements CloseableSharedType<T>
+{
+  private final T resource;
+  private final AtomicInteger count;
+  private final AtomicBoolean ownerReleased;
+  private volatile boolean closed;
+
+  private CloseableShared(
+    final T inResource)
+  {
+    this.resource =
+      Objects.requireNonNull(inResource, "resource");
+    this.count =
+      new AtomicInteger(1);
+    this.ownerReleased =
+      new AtomicBoolean(false);
+  }
+
+  /**
+   * Create a new shared resource. The returned value holds the creator's
+   * reference to the resource.
+   *
+   * @param resource The underlying resource
+   * @param <T>      The precise type of resource
+   *
+   * @return A new shared resource
+   */
+
+  public static <T extends AutoCloseable> CloseableSharedType<T> create(
+    final T resource)
+  {
+    return new CloseableShared<>(resource);
+  }
+
+  @Override
+  public CloseableReferenceType<T> acquire()
+  {
+    while (true) {
+      final int current = this.count.get();
+      if (current == 0) {
+        throw new IllegalStateException("Shared resource is closed.");
+      }
+      if (current == Integer.MAX_VALUE) {
+        throw new IllegalStateException("Too many references.");
+      }
+      if (this.count.compareAndSet(current, current + 1)) {
+        return new Reference<>(this);
+      }
+    }
+  }
+
+  @Override
+  public int references()
+  {
+    return this.count.get();
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    if (this.ownerReleased.compareAndSet(false, true)) {
+      this.release();
+    }
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CloseableShared %s %d]".formatted(
+      this.resource,
+      Integer.valueOf(this.count.get())
+    );
+  }
+
+  private void release()
+    throws Exception
+  {
+    if (this.count.decrementAndGet() == 0) {
+      this.closed = true;
+      this.resource.close();
+    }
+  }
+
+  private static final class Reference<T extends AutoCloseable>
+    implements CloseableReferenceType<T>
+  {
+    private static final VarHandle RELEASED;
+
+    static {
+      try {
+        RELEASED = MethodHandles.lookup()
+          .findVarHandle(Reference.class, "released", boolean.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final CloseableShared<T> shared;
+    private volatile boolean released;
+
+    Reference(
+      final CloseableShared<T> inShared)
+    {
+      this.shared = inShared;
+    }
+
+    @Override
+    public T get()
+    {
+      if (this.released) {
+        throw new IllegalStateException("Reference has been released.");
+      }
+      return this.shared.resource;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.released;
+    }
+
+    @Override
+    public void close()
+      throws Exception
+    {
+      if (RELEASED.compareAndSet(this, false, true)) {
+        this.shared.release();
+      }
+    }
+  }
+}
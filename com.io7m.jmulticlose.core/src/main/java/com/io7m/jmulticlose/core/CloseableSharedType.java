@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * <p>A reference-counted resource that may be shared between any number of
+ * collections.</p>
+ *
+ * <p>A shared resource begins life with a single reference held by its
+ * creator. Each call to {@link #acquire()} yields a new reference, and each
+ * reference is released by closing it. The creator releases its own
+ * reference by closing the shared resource. The underlying resource is closed
+ * exactly once, when the last reference is released. Attempting to acquire a
+ * reference after the underlying resource has been closed fails.</p>
+ *
+ * @param <T> The type of shared resource
+ *
+ * @see CloseableCollectionType#addShared(CloseableSharedType)
+ */
+
+@ProviderType
+public interface CloseableSharedType<T extends AutoCloseable>
+  extends CloseableType
+{
+  /**
+   * Acquire a new reference to the shared resource.
+   *
+   * @return A new reference
+   *
+   * @throws IllegalStateException If the shared resource has been closed
+   */
+
+  CloseableReferenceType<T> acquire()
+    throws IllegalStateException;
+
+  /**
+   * @return The number of unreleased references, including the reference
+   * held by the creator
+   */
+
+  int references();
+
+  /**
+   * Release the reference held by the creator of the shared resource. If this
+   * is the last reference, the underlying resource is closed. Calling this
+   * method more than once has no further effect.
+   *
+   * @throws Exception If the shared resource raises an exception on closing
+   */
+
+  @Override
+  void close()
+    throws Exception;
+
+  /**
+   * @return {@code true} if the underlying resource has been closed
+   */
+
+  @Override
+  boolean isClosed();
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * <p>The default implementation of the {@link CloseableShutdownRegistryType}
+ * interface.</p>
+ *
+ * <p>Resources are held in a {@link CloseableTracker}. On {@link #close()},
+ * each resource is closed on its own daemon thread, so that resources that
+ * fail to close within the deadline cannot prevent the JVM from exiting.
+ * Threads are started in order of the estimated close latency of each
+ * resource, longest first.</p>
+ *
+ * <p>The {@link #global()} registry installs a single JVM shutdown hook that
+ * closes the registry. Components that would otherwise install their own
+ * shutdown hooks should register their top-level scopes with the global
+ * registry instead, so that all of them are closed together within one
+ * predictable deadline.</p>
+ */
+
+@ThreadSafe
+public final class CloseableShutdownRegistry
+  implements CloseableShutdownRegistryType
+{
+  private static final System.Logger LOG =
+    System.getLogger(CloseableShutdownRegistry.class.getName());
+
+  private static final Duration DEFAULT_DEADLINE =
+    Duration.ofSeconds(20L);
+
+  private final CloseableTracker<ClosingResourceFailedException> tracker;
+  private volatile Duration deadline;
+
+  private CloseableShutdownRegistry(
+    final Duration inDeadline)
+  {
+    this.deadline =
+      Objects.requireNonNull(inDeadline, "deadline");
+    this.tracker =
+      new CloseableTracker<>(
+        () -> new ClosingResourceFailedException(
+          "One or more resources could not be closed."),
+        CloseableMonitors.none()
+      );
+  }
+
+  /**
+   * Create a new registry. The registry does not install a shutdown hook.
+   *
+   * @param deadline The maximum time that closing waits for resources
+   *
+   * @return A new registry
+   */
+
+  public static CloseableShutdownRegistryType create(
+    final Duration deadline)
+  {
+    return new CloseableShutdownRegistry(deadline);
+  }
+
+  /**
+   * Create a new registry with a default deadline of 20 seconds. The
+   * registry does not install a shutdown hook.
+   *
+   * @return A new registry
+   */
+
+  public static CloseableShutdownRegistryType create()
+  {
+    return create(DEFAULT_DEADLINE);
+  }
+
+  /**
+   * Retrieve the process-wide registry. The registry is created, and a JVM
+   * shutdown hook that closes it is installed, on the first call to this
+   * method. The registry has a default deadline of 20 seconds.
+   *
+   * @return The process-wide registry
+   */
+
+  public static CloseableShutdownRegistryType global()
+  {
+    return Global.INSTANCE;
+  }
+
+  @Override
+  public Duration deadline()
+  {
+    return this.deadline;
+  }
+
+  @Override
+  public void setDeadline(
+    final Duration newDeadline)
+  {
+    this.deadline = Objects.requireNonNull(newDeadline, "deadline");
+  }
+
+  @Override
+  public void close()
+    throws ClosingResourceFailedException
+  {
+    final List<CloseableType> drained = this.tracker.drain();
+    if (drained.isEmpty()) {
+      return;
+    }
+
+    final List<CloseableType> resources =
+      CloseableLatencyEstimator.longestFirst(drained);
+
+    final Duration timeout = this.deadline;
+    final int count = resources.size();
+    final var done = new AtomicIntegerArray(count);
+    final var latch = new CountDownLatch(count);
+    final var failures = new ConcurrentLinkedQueue<Exception>();
+
+    for (int index = 0; index < count; ++index) {
+      final CloseableType resource = resources.get(index);
+      final int slot = index;
+      final Thread thread = new Thread(() -> {
+        final long start = System.nanoTime();
+        try {
+          resource.close();
+        } catch (final Exception e) {
+          failures.add(e);
+        } finally {
+          CloseableLatencyEstimator.record(
+            CloseableClosing.resourceOf(resource).getClass(),
+            System.nanoTime() - start
+          );
+          done.set(slot, 1);
+          latch.countDown();
+        }
+      }, "com.io7m.jmulticlose.shutdown[" + index + "]");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    final boolean completed = awaitDeadline(latch, timeout);
+
+    ClosingResourceFailedException e = null;
+    for (final var failure : failures) {
+      if (e == null) {
+        e = this.tracker.exceptions().get();
+      }
+      e.addSuppressed(failure);
+    }
+
+    if (!completed) {
+      for (int index = 0; index < count; ++index) {
+        if (done.get(index) == 0) {
+          final CloseableType resource = resources.get(index);
+          LOG.log(
+            WARNING,
+            "Resource {0} did not close within {1}",
+            resource,
+            timeout
+          );
+          if (e == null) {
+            e = this.tracker.exceptions().get();
+          }
+          e.addSuppressed(new TimeoutException(
+            "Resource %s did not close within %s".formatted(resource, timeout)
+          ));
+        }
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    return this.tracker.snapshot();
+  }
+
+  @Override
+  public int size()
+  {
+    return this.tracker.size();
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final T resource)
+  {
+    return this.tracker.add(resource);
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final T resource)
+  {
+    return this.tracker.addAuto(resource);
+  }
+
+  @Override
+  public <T extends CloseableType> void remove(
+    final T resource)
+  {
+    this.tracker.remove(resource);
+  }
+
+  private static boolean awaitDeadline(
+    final CountDownLatch latch,
+    final Duration timeout)
+  {
+    try {
+      return latch.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return latch.getCount() == 0L;
+    }
+  }
+
+  private void closeFromShutdownHook()
+  {
+    try {
+      this.close();
+    } catch (final ClosingResourceFailedException e) {
+      LOG.log(ERROR, "One or more resources could not be closed.", e);
+    }
+  }
+
+  private static final class Global
+  {
+    private static final CloseableShutdownRegistry INSTANCE = createGlobal();
+
+    private Global()
+    {
+
+    }
+
+    private static CloseableShutdownRegistry createGlobal()
+    {
+      final var registry = new CloseableShutdownRegistry(DEFAULT_DEADLINE);
+      Runtime.getRuntime().addShutdownHook(
+        new Thread(
+          registry::closeFromShutdownHook,
+          "com.io7m.jmulticlose.shutdown")
+      );
+      return registry;
+    }
+  }
+}
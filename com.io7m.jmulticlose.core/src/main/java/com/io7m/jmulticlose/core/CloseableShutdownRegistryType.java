@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.time.Duration;
+
+/**
+ * <p>A registry of top-level resources that must be closed when the
+ * application shuts down.</p>
+ *
+ * <p>Unlike an ordinary tracker, a registry closes its resources
+ * <i>in parallel</i> when {@link #close()} is called, and waits at most
+ * {@link #deadline()} for them to finish closing. Resources that are still
+ * closing when the deadline expires are logged, and are reported as
+ * <i>suppressed exceptions</i> of the exception raised by {@link #close()};
+ * the registry does not wait for them further.</p>
+ *
+ * @see CloseableShutdownRegistry#global()
+ */
+
+@ProviderType
+public interface CloseableShutdownRegistryType
+  extends CloseableTrackerType<ClosingResourceFailedException>
+{
+  /**
+   * @return The maximum time that {@link #close()} waits for resources
+   */
+
+  Duration deadline();
+
+  /**
+   * Set the maximum time that {@link #close()} waits for resources.
+   *
+   * @param deadline The deadline
+   */
+
+  void setDeadline(Duration deadline);
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A report that a resource has been closing for longer than a watchdog's
+ * threshold.
+ *
+ * @param resource The resource that is being closed
+ * @param thread   The name of the thread that is closing the resource
+ * @param elapsed  The time that has elapsed since closing started
+ * @param stack    The stack of the closing thread at the time of the report
+ * @param sample   The number of this report for the same close, starting
+ *                 at {@code 1}
+ *
+ * @see CloseableWatchdog
+ */
+
+public record CloseableSlowClose(
+  AutoCloseable resource,
+  String thread,
+  Duration elapsed,
+  List<StackTraceElement> stack,
+  int sample)
+{
+  /**
+   * A report that a resource has been closing for longer than a watchdog's
+   * threshold.
+   *
+   * @param resource The resource that is being closed
+   * @param thread   The name of the thread that is closing the resource
+   * @param elapsed  The time that has elapsed since closing started
+   * @param stack    The stack of the closing thread at the time of the report
+   * @param sample   The number of this report for the same close, starting
+   *                 at {@code 1}
+   */
+
+  public CloseableSlowClose
+  {
+    Objects.requireNonNull(resource, "resource");
+    Objects.requireNonNull(thread, "thread");
+    Objects.requireNonNull(elapsed, "elapsed");
+    stack = List.copyOf(stack);
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>A monitor that accumulates occupancy and close statistics for the
+ * collections and trackers to which it is attached, and that can be
+ * published as a JMX MBean.</p>
+ *
+ * <p>Totals are accumulated in {@link LongAdder} counters, both overall and
+ * for each resource class, so that concurrent additions and closes on many
+ * threads do not contend with each other. The current size is derived from
+ * the totals (additions less removals and closes), and is therefore
+ * approximate while resources are being added and closed concurrently.
+ * Deriving the size reads every stripe of three counters, so the high-water
+ * mark is not updated on every addition: the size is sampled on every
+ * {@code 64}th addition made by each thread, and whenever the high-water
+ * mark is read. Peaks that rise and fall between samples may therefore be
+ * missed. Close latencies
+ * are recorded in a histogram with power-of-two buckets; percentiles are
+ * therefore accurate to within a factor of two.</p>
+ *
+ * <p>Rates are averaged over a trailing window of between
+ * {@code 5} and {@code 10} seconds when read regularly, and reading a rate
+ * has no effect on the values seen by other readers.</p>
+ *
+ * <p>A single instance may be attached to any number of collections and
+ * trackers, in which case it reports their combined statistics.</p>
+ *
+ * @see CloseableCollection#create(java.util.function.Supplier, CloseableMonitorType)
+ * @see CloseableTracker#create(java.util.function.Supplier, CloseableMonitorType)
+ */
+
+@ThreadSafe
+public final class CloseableStatistics
+  implements CloseableMonitorType, CloseableStatisticsMXBeanType
+{
+  private static final int BUCKETS = 64;
+  private static final int HIGH_WATER_SAMPLE = 64;
+
+  private final ConcurrentHashMap<Class<?>, ClassCounters> classes;
+  private final ClassCounters totals;
+  private final AtomicLong highWaterMark;
+  private final ThreadLocal<int[]> untilSample;
+  private final AtomicLong latencyMax;
+  private final LongAdder[] latencies;
+  private final Rate addRate;
+  private final Rate removeRate;
+
+  private CloseableStatistics()
+  {
+    this.classes =
+      new ConcurrentHashMap<>();
+    this.totals =
+      new ClassCounters();
+    this.highWaterMark =
+      new AtomicLong();
+    this.untilSample =
+      ThreadLocal.withInitial(() -> new int[]{1});
+    this.latencyMax =
+      new AtomicLong();
+    this.latencies =
+      new LongAdder[BUCKETS];
+    for (int index = 0; index < BUCKETS; ++index) {
+      this.latencies[index] = new LongAdder();
+    }
+    this.addRate =
+      new Rate(this.totals.adds::sum);
+    this.removeRate =
+      new Rate(() -> {
+        return this.totals.removes.sum()
+               + this.totals.closes.sum();
+      });
+  }
+
+  /**
+   * @return A new statistics monitor
+   */
+
+  public static CloseableStatistics create()
+  {
+    return new CloseableStatistics();
+  }
+
+  /**
+   * Register this monitor with the platform MBean server under the name
+   * {@code com.io7m.jmulticlose:type=CloseableStatistics,name=<name>}.
+   *
+   * @param name The name of the MBean
+   *
+   * @return A resource that unregisters the MBean when closed
+   *
+   * @throws JMException On registration errors
+   */
+
+  public AutoCloseable registerMBean(
+    final String name)
+    throws JMException
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var server =
+      ManagementFactory.getPlatformMBeanServer();
+    final var objectName =
+      new ObjectName(
+        "com.io7m.jmulticlose:type=CloseableStatistics,name="
+        + ObjectName.quote(name)
+      );
+
+    server.registerMBean(this, objectName);
+    return () -> server.unregisterMBean(objectName);
+  }
+
+  @Override
+  public void onAdd(
+    final AutoCloseable resource)
+  {
+    this.totals.adds.increment();
+    this.countersFor(resource).adds.increment();
+
+    final int[] remaining = this.untilSample.get();
+    remaining[0] -= 1;
+    if (remaining[0] <= 0) {
+      remaining[0] = HIGH_WATER_SAMPLE;
+      this.sampleSize();
+    }
+  }
+
+  private void sampleSize()
+  {
+    final long current = this.totals.live();
+    if (current > this.highWaterMark.get()) {
+      this.highWaterMark.accumulateAndGet(current, Math::max);
+    }
+  }
+
+  @Override
+  public void onRemove(
+    final AutoCloseable resource)
+  {
+    this.totals.removes.increment();
+    this.countersFor(resource).removes.increment();
+  }
+
+  @Override
+  public void onClosed(
+    final AutoCloseable resource,
+    final long nanos)
+  {
+    this.totals.closes.increment();
+    this.countersFor(resource).closes.increment();
+    this.recordLatency(nanos);
+  }
+
+  @Override
+  public void onCloseFailed(
+    final AutoCloseable resource,
+    final long nanos,
+    final Exception failure)
+  {
+    final ClassCounters counters = this.countersFor(resource);
+    this.totals.closes.increment();
+    this.totals.failures.increment();
+    counters.closes.increment();
+    counters.failures.increment();
+    this.recordLatency(nanos);
+  }
+
+  @Override
+  public long getSize()
+  {
+    return Math.max(0L, this.totals.live());
+  }
+
+  @Override
+  public long getHighWaterMark()
+  {
+    this.sampleSize();
+    return this.highWaterMark.get();
+  }
+
+  @Override
+  public long getAddCount()
+  {
+    return this.totals.adds.sum();
+  }
+
+  @Override
+  public long getRemoveCount()
+  {
+    return this.totals.removes.sum();
+  }
+
+  @Override
+  public long getCloseCount()
+  {
+    return this.totals.closes.sum();
+  }
+
+  @Override
+  public long getCloseFailureCount()
+  {
+    return this.totals.failures.sum();
+  }
+
+  @Override
+  public double getAddRate()
+  {
+    return this.addRate.sample();
+  }
+
+  @Override
+  public double getRemoveRate()
+  {
+    return this.removeRate.sample();
+  }
+
+  @Override
+  public long getCloseLatencyP50Nanos()
+  {
+    return this.latencyPercentile(0.50);
+  }
+
+  @Override
+  public long getCloseLatencyP90Nanos()
+  {
+    return this.latencyPercentile(0.90);
+  }
+
+  @Override
+  public long getCloseLatencyP99Nanos()
+  {
+    return this.latencyPercentile(0.99);
+  }
+
+  @Override
+  public long getCloseLatencyMaxNanos()
+  {
+    return this.latencyMax.get();
+  }
+
+  @Override
+  public Map<String, Long> getLiveByClass()
+  {
+    return this.byClass(ClassCounters::live);
+  }
+
+  @Override
+  public Map<String, Long> getCloseFailuresByClass()
+  {
+    return this.byClass(c -> c.failures.sum());
+  }
+
+  private Map<String, Long> byClass(
+    final ToLongFunction<ClassCounters> field)
+  {
+    final var results = new TreeMap<String, Long>();
+    for (final var entry : this.classes.entrySet()) {
+      final long value = field.applyAsLong(entry.getValue());
+      if (value > 0L) {
+        results.merge(
+          entry.getKey().getName(),
+          Long.valueOf(value),
+          (x, y) -> Long.valueOf(x.longValue() + y.longValue())
+        );
+      }
+    }
+    return results;
+  }
+
+  private ClassCounters countersFor(
+    final AutoCloseable resource)
+  {
+    final Class<?> clazz = resource.getClass();
+    final ClassCounters existing = this.classes.get(clazz);
+    if (existing != null) {
+      return existing;
+    }
+    return this.classes.computeIfAbsent(clazz, k -> new ClassCounters());
+  }
+
+  private void recordLatency(
+    final long nanos)
+  {
+    final long clamped = Math.max(0L, nanos);
+    this.latencies[bucketOf(clamped)].increment();
+    if (clamped > this.latencyMax.get()) {
+      this.latencyMax.accumulateAndGet(clamped, Math::max);
+    }
+  }
+
+  private static int bucketOf(
+    final long nanos)
+  {
+    return Math.max(0, 63 - Long.numberOfLeadingZeros(nanos));
+  }
+
+  private long latencyPercentile(
+    final double percentile)
+  {
+    final long[] counts = new long[BUCKETS];
+    long total = 0L;
+    for (int index = 0; index < BUCKETS; ++index) {
+      counts[index] = this.latencies[index].sum();
+      total += counts[index];
+    }
+
+    if (total == 0L) {
+      return 0L;
+    }
+
+    final long target = (long) Math.ceil(percentile * (double) total);
+    long seen = 0L;
+    for (int index = 0; index < BUCKETS; ++index) {
+      seen += counts[index];
+      if (seen >= target) {
+        return Math.min(this.latencyMax.get(), upperBoundOf(index));
+      }
+    }
+    return this.latencyMax.get();
+  }
+
+  private static long upperBoundOf(
+    final int bucket)
+  {
+    if (bucket >= 62) {
+      return Long.MAX_VALUE;
+    }
+    return (1L << (bucket + 1)) - 1L;
+  }
+
+  private static final class ClassCounters
+  {
+    private final LongAdder adds;
+    private final LongAdder removes;
+    private final LongAdder closes;
+    private final LongAdder failures;
+
+    ClassCounters()
+    {
+      this.adds = new LongAdder();
+      this.removes = new LongAdder();
+      this.closes = new LongAdder();
+      this.failures = new LongAdder();
+    }
+
+    long live()
+    {
+      return this.adds.sum() - this.removes.sum() - this.closes.sum();
+    }
+  }
+
+  private record Sample(
+    long time,
+    long count)
+  {
+
+  }
+
+  private record Window(
+    Sample previous,
+    Sample current)
+  {
+
+  }
+
+  /**
+   * A rate computed from two samples of a counter. The current sample is
+   * replaced at most once per window, and rates are computed from the
+   * previous sample, so readers never disturb each other.
+   */
+
+  private static final class Rate
+  {
+    private static final long WINDOW_NANOS = 5_000_000_000L;
+
+    private final LongSupplier source;
+    private final AtomicReference<Window> window;
+
+    Rate(
+      final LongSupplier inSource)
+    {
+      this.source = inSource;
+
+      final var start = new Sample(System.nanoTime(), 0L);
+      this.window = new AtomicReference<>(new Window(start, start));
+    }
+
+    double sample()
+    {
+      final long count = this.source.getAsLong();
+      final long time = System.nanoTime();
+
+      final Window current = this.window.updateAndGet(w -> {
+        final Sample latest = w.current();
+        if (time - latest.time() >= WINDOW_NANOS) {
+          return new Window(latest, new Sample(time, count));
+        }
+        return w;
+      });
+
+      final Sample previous = current.previous();
+      final long elapsed = time - previous.time();
+      if (elapsed <= 0L) {
+        return 0.0;
+      }
+      final long delta = count - previous.count();
+      return (double) delta * 1_000_000_000.0 / (double) elapsed;
+    }
+  }
+}
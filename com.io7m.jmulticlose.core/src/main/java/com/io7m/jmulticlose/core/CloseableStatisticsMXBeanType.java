@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import javax.management.MXBean;
+import java.util.Map;
+
+/**
+ * The management interface exposed by {@link CloseableStatistics}.
+ */
+
+@MXBean
+@ProviderType
+public interface CloseableStatisticsMXBeanType
+{
+  /**
+   * @return The number of resources currently held
+   */
+
+  long getSize();
+
+  /**
+   * @return The largest number of resources observed to be held at any one
+   * time; brief peaks between samples may be missed
+   */
+
+  long getHighWaterMark();
+
+  /**
+   * @return The total number of resources added
+   */
+
+  long getAddCount();
+
+  /**
+   * @return The total number of resources removed without being closed
+   */
+
+  long getRemoveCount();
+
+  /**
+   * @return The total number of resources closed, including failures
+   */
+
+  long getCloseCount();
+
+  /**
+   * @return The total number of resources that raised exceptions on closing
+   */
+
+  long getCloseFailureCount();
+
+  /**
+   * @return The number of resources added per second, averaged over a
+   * recent window
+   */
+
+  double getAddRate();
+
+  /**
+   * @return The number of resources removed or closed per second, averaged
+   * over a recent window
+   */
+
+  double getRemoveRate();
+
+  /**
+   * @return The approximate median time taken to close a resource
+   */
+
+  long getCloseLatencyP50Nanos();
+
+  /**
+   * @return The approximate 90th percentile time taken to close a resource
+   */
+
+  long getCloseLatencyP90Nanos();
+
+  /**
+   * @return The approximate 99th percentile time taken to close a resource
+   */
+
+  long getCloseLatencyP99Nanos();
+
+  /**
+   * @return The longest time taken to close a resource
+   */
+
+  long getCloseLatencyMaxNanos();
+
+  /**
+   * @return The number of resources currently held, by resource class name
+   */
+
+  Map<String, Long> getLiveByClass();
+
+  /**
+   * @return The total number of close failures, by resource class name
+   */
+
+  Map<String, Long> getCloseFailuresByClass();
+}
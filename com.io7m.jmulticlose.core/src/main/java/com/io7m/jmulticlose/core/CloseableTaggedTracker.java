@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableTaggedTrackerType}
+ * interface.</p>
+ *
+ * <p>Each tag has its own {@link CloseableTracker}, held in a concurrent map
+ * from tags to trackers that serves as the index. Additions for a tag are
+ * performed atomically with respect to the removal of that tag from the
+ * index, so a resource can never be added to the tracker of a tag that is
+ * concurrently being closed and then be left unclosed. Closing a tag removes
+ * its tracker from the index and closes only that tracker.</p>
+ *
+ * @param <K> The type of tags
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableTaggedTracker<K, E extends Exception>
+  implements CloseableTaggedTrackerType<K, E>
+{
+  private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
+  private final CloseableTracker<E> untagged;
+  private final ConcurrentHashMap<K, CloseableTracker<E>> index;
+
+  private CloseableTaggedTracker(
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor)
+  {
+    this.exceptions =
+      Objects.requireNonNull(in_exceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
+    this.untagged =
+      new CloseableTracker<>(in_exceptions, in_monitor);
+    this.index =
+      new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Create a new tagged tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the tracker
+   * @param <K>        The type of tags
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <K, E extends Exception> CloseableTaggedTrackerType<K, E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableTaggedTracker<>(exceptions, monitor);
+  }
+
+  /**
+   * Create a new tagged tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param <K>        The type of tags
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new tracker
+   */
+
+  public static <K, E extends Exception> CloseableTaggedTrackerType<K, E> create(
+    final Supplier<E> exceptions)
+  {
+    return create(exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new tagged tracker.
+   *
+   * @param <K> The type of tags
+   *
+   * @return A new tracker
+   */
+
+  public static <K> CloseableTaggedTrackerType<K, ClosingResourceFailedException> create()
+  {
+    return create(() -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."));
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    E e = null;
+    for (final K tag : this.index.keySet()) {
+      e = this.closeTagCollecting(tag, e);
+    }
+    e = this.collect(this.untagged, e);
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    int size = this.untagged.size();
+    for (final var tracker : this.index.values()) {
+      size += tracker.size();
+    }
+    return size;
+  }
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    final var resources = new ArrayList<AutoCloseable>();
+    for (final var tracker : this.index.values()) {
+      resources.addAll(tracker.snapshot());
+    }
+    resources.addAll(this.untagged.snapshot());
+    return List.copyOf(resources);
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final T resource)
+  {
+    return this.untagged.add(resource);
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final T resource)
+  {
+    return this.untagged.addAuto(resource);
+  }
+
+  @Override
+  public <T extends CloseableType> void remove(
+    final T resource)
+  {
+    Objects.requireNonNull(resource, "resource");
+
+    this.untagged.remove(resource);
+    for (final K tag : this.index.keySet()) {
+      this.index.computeIfPresent(tag, (k, tracker) -> {
+        tracker.remove(resource);
+        return tracker.size() == 0 ? null : tracker;
+      });
+    }
+  }
+
+  @Override
+  public <T extends CloseableType> T add(
+    final K tag,
+    final T resource)
+  {
+    Objects.requireNonNull(tag, "tag");
+    Objects.requireNonNull(resource, "resource");
+
+    this.index.compute(tag, (k, existing) -> {
+      final var tracker = this.trackerOrNew(existing);
+      tracker.add(resource);
+      return tracker;
+    });
+    return resource;
+  }
+
+  @Override
+  public <T extends AutoCloseable> T addAuto(
+    final K tag,
+    final T resource)
+  {
+    Objects.requireNonNull(tag, "tag");
+    Objects.requireNonNull(resource, "resource");
+
+    this.index.compute(tag, (k, existing) -> {
+      final var tracker = this.trackerOrNew(existing);
+      tracker.addAuto(resource);
+      return tracker;
+    });
+    return resource;
+  }
+
+  @Override
+  public Set<K> tags()
+  {
+    return Set.copyOf(this.index.keySet());
+  }
+
+  @Override
+  public int size(
+    final K tag)
+  {
+    Objects.requireNonNull(tag, "tag");
+
+    final var tracker = this.index.get(tag);
+    if (tracker == null) {
+      return 0;
+    }
+    return tracker.size();
+  }
+
+  @Override
+  public void closeTag(
+    final K tag)
+    throws E
+  {
+    Objects.requireNonNull(tag, "tag");
+
+    final E e = this.closeTagCollecting(tag, null);
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  @Override
+  public void closeIf(
+    final Predicate<? super K> predicate)
+    throws E
+  {
+    Objects.requireNonNull(predicate, "predicate");
+
+    E e = null;
+    for (final K tag : this.index.keySet()) {
+      if (predicate.test(tag)) {
+        e = this.closeTagCollecting(tag, e);
+      }
+    }
+
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  private CloseableTracker<E> trackerOrNew(
+    final CloseableTracker<E> existing)
+  {
+    if (existing != null) {
+      return existing;
+    }
+    return new CloseableTracker<>(this.exceptions, this.monitor);
+  }
+
+  private E closeTagCollecting(
+    final K tag,
+    final E existing)
+  {
+    final var tracker = this.index.remove(tag);
+    if (tracker == null) {
+      return existing;
+    }
+    return this.collect(tracker, existing);
+  }
+
+  private E collect(
+    final CloseableTracker<E> tracker,
+    final E existing)
+  {
+    E e = existing;
+    for (final var entry : tracker.drain()) {
+      e = CloseableClosing.close(this.monitor, entry, this.exceptions, e);
+    }
+    return e;
+  }
+}
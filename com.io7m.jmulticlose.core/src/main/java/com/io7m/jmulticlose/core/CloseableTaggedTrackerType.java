@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <p>A tracker in which resources may be registered under a <i>tag</i>, such
+ * as the identifier of a tenant, so that all the resources with a given tag
+ * can be closed without closing the rest of the tracker.</p>
+ *
+ * <p>Resources registered with the same tag are closed in the reverse of the
+ * order in which they were added. The order in which resources with
+ * different tags (and resources with no tag) are closed by
+ * {@link #close()} is unspecified.</p>
+ *
+ * @param <K> The type of tags
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableTaggedTrackerType<K, E extends Exception>
+  extends CloseableTrackerType<E>
+{
+  /**
+   * Add a resource with the given tag.
+   *
+   * @param tag      The tag
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return {@code resource}
+   */
+
+  <T extends CloseableType> T add(
+    K tag,
+    T resource);
+
+  /**
+   * Add a plain {@link AutoCloseable} resource with the given tag.
+   *
+   * @param tag      The tag
+   * @param resource The resource
+   * @param <T>      The precise type of resource
+   *
+   * @return {@code resource}
+   */
+
+  <T extends AutoCloseable> T addAuto(
+    K tag,
+    T resource);
+
+  /**
+   * @return The tags that currently have resources registered
+   */
+
+  Set<K> tags();
+
+  /**
+   * @param tag The tag
+   *
+   * @return The number of resources registered with {@code tag}
+   */
+
+  int size(K tag);
+
+  /**
+   * Close all the resources registered with the given tag. The time taken
+   * is proportional to the number of resources registered with the tag, and
+   * does not depend on the number of other resources in the tracker.
+   *
+   * @param tag The tag
+   *
+   * @throws E If any resource fails to close
+   */
+
+  void closeTag(K tag)
+    throws E;
+
+  /**
+   * Close all the resources registered with any tag that matches the given
+   * predicate. The predicate is evaluated once for each tag, not for each
+   * resource.
+   *
+   * @param predicate The predicate over tags
+   *
+   * @throws E If any resource fails to close
+   */
+
+  void closeIf(Predicate<? super K> predicate)
+    throws E;
+}
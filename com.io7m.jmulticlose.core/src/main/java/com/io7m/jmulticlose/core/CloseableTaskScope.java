@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>The default implementation of the {@link CloseableTaskScopeType}
+ * interface.</p>
+ *
+ * <p>Each subtask runs on a new thread obtained from the scope's
+ * {@link ThreadFactory}. On JDK 21 and newer, passing
+ * {@code Thread.ofVirtual().factory()} runs each subtask on its own virtual
+ * thread. Each subtask registers resources into its own child
+ * {@link CloseableCollection}, so subtasks never contend with each other when
+ * adding resources; the scope's own collection receives a single entry per
+ * subtask. Each subtask runs with its child collection bound as the
+ * {@link CloseableCurrentScope current scope}.</p>
+ *
+ * @param <E> On close failures
+ */
+
+@ThreadSafe
+public final class CloseableTaskScope<E extends Exception>
+  implements CloseableTaskScopeType<E>
+{
+  private final Supplier<E> exceptions;
+  private final ThreadFactory threads;
+  private final CloseableCollectionType<E> resources;
+  private final ReentrantLock lock;
+  @GuardedBy("lock")
+  private final ArrayList<Subtask<?>> subtasks;
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private CloseableTaskScope(
+    final ThreadFactory inThreads,
+    final Supplier<E> inExceptions)
+  {
+    this.threads =
+      Objects.requireNonNull(inThreads, "threads");
+    this.exceptions =
+      Objects.requireNonNull(inExceptions, "exceptions");
+    this.resources =
+      CloseableCollection.create(inExceptions);
+    this.lock =
+      new ReentrantLock();
+    this.subtasks =
+      new ArrayList<>();
+  }
+
+  /**
+   * Create a new task scope.
+   *
+   * @param threads    A factory of threads for subtasks
+   * @param exceptions A supplier of exceptions
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new scope
+   */
+
+  public static <E extends Exception> CloseableTaskScopeType<E> create(
+    final ThreadFactory threads,
+    final Supplier<E> exceptions)
+  {
+    return new CloseableTaskScope<>(threads, exceptions);
+  }
+
+  /**
+   * Create a new task scope.
+   *
+   * @param threads A factory of threads for subtasks
+   *
+   * @return A new scope
+   */
+
+  public static CloseableTaskScopeType<ClosingResourceFailedException> create(
+    final ThreadFactory threads)
+  {
+    return create(threads, () -> new ClosingResourceFailedException(
+      "One or more resources could not be closed."));
+  }
+
+  @Override
+  public <T> Future<T> fork(
+    final CloseableTaskType<T, E> task)
+  {
+    Objects.requireNonNull(task, "task");
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("Scope is closed.");
+      }
+
+      final CloseableCollectionType<E> child =
+        CloseableCollection.create(this.exceptions);
+      final FutureTask<T> future =
+        new FutureTask<>(
+          () -> CloseableCurrentScope.call(child, () -> task.execute(child)));
+      final Thread thread =
+        Objects.requireNonNull(this.threads.newThread(future), "thread");
+
+      this.resources.add(child);
+      this.subtasks.add(new Subtask<>(future, thread));
+      thread.start();
+      return future;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void join()
+    throws InterruptedException
+  {
+    for (int index = 0; true; ++index) {
+      final Subtask<?> subtask = this.subtaskAt(index);
+      if (subtask == null) {
+        return;
+      }
+      subtask.thread.join();
+    }
+  }
+
+  @Override
+  public void close()
+    throws E
+  {
+    final ArrayList<Subtask<?>> running;
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      running = new ArrayList<>(this.subtasks);
+    } finally {
+      this.lock.unlock();
+    }
+
+    for (final var subtask : running) {
+      subtask.future.cancel(true);
+    }
+
+    boolean interrupted = false;
+    for (final var subtask : running) {
+      while (true) {
+        try {
+          subtask.thread.join();
+          break;
+        } catch (final InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+
+    try {
+      this.resources.close();
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    return this.resources.snapshot();
+  }
+
+  @Override
+  public int size()
+  {
+    return this.resources.size();
+  }
+
+  @Override
+  public <T extends AutoCloseable> T add(
+    final T resource)
+  {
+    return this.resources.add(resource);
+  }
+
+  private Subtask<?> subtaskAt(
+    final int index)
+  {
+    this.lock.lock();
+    try {
+      if (index < this.subtasks.size()) {
+        return this.subtasks.get(index);
+      }
+      return null;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private static final class Subtask<T>
+  {
+    private final FutureTask<T> future;
+    private final Thread thread;
+
+    Subtask(
+      final FutureTask<T> inFuture,
+      final Thread inThread)
+    {
+      this.future = inFuture;
+      this.thread = inThread;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.util.concurrent.Future;
+
+/**
+ * <p>A collection of resources bound to the lifetime of a set of concurrent
+ * subtasks.</p>
+ *
+ * <p>Subtasks are started with {@link #fork(CloseableTaskType)}, each on its
+ * own thread, and each receives a private child collection into which it can
+ * register resources without contending with other subtasks. When the scope
+ * is closed, any subtasks that are still running are interrupted, the scope
+ * waits for every subtask thread to terminate, and then all child
+ * collections and all resources added directly to the scope are closed in
+ * the reverse of the order in which they were forked or added.</p>
+ *
+ * <p>The {@link #size()} and {@link #snapshot()} of a scope include the
+ * resources added directly to the scope, and one child collection for each
+ * forked subtask.</p>
+ *
+ * @param <E> The precise type of exceptions thrown on close failures
+ */
+
+@ProviderType
+public interface CloseableTaskScopeType<E extends Exception>
+  extends CloseableCollectionType<E>
+{
+  /**
+   * Start a new subtask.
+   *
+   * @param task The subtask
+   * @param <T>  The type of result
+   *
+   * @return The future result of the subtask
+   *
+   * @throws IllegalStateException If {@link #close()} has been called
+   */
+
+  <T> Future<T> fork(CloseableTaskType<T, E> task)
+    throws IllegalStateException;
+
+  /**
+   * Wait for all subtasks forked so far to terminate, including any subtasks
+   * forked by those subtasks whilst waiting.
+   *
+   * @throws InterruptedException If the calling thread is interrupted
+   */
+
+  void join()
+    throws InterruptedException;
+}
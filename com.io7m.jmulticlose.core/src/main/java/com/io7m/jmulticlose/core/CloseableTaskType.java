@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * A subtask executed within a task scope.
+ *
+ * @param <T> The type of result
+ * @param <E> The precise type of exceptions thrown on close failures
+ *
+ * @see CloseableTaskScopeType#fork(CloseableTaskType)
+ */
+
+@ConsumerType
+@FunctionalInterface
+public interface CloseableTaskType<T, E extends Exception>
+{
+  /**
+   * Execute the subtask.
+   *
+   * @param resources A collection private to this subtask. Resources added
+   *                  to the collection are closed when the enclosing scope
+   *                  is closed.
+   *
+   * @return The result of the subtask
+   *
+   * @throws Exception On errors
+   */
+
+  T execute(CloseableCollectionType<E> resources)
+    throws Exception;
+}
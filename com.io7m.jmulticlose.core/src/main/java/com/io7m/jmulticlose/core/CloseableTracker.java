@@ -18,9 +18,10 @@ package com.io7m.jmulticlose.core;
 
 import net.jcip.annotations.ThreadSafe;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
@@ -35,11 +36,16 @@ public final class CloseableTracker<E extends Exception>
 {
   private final ConcurrentLinkedDeque<CloseableType> stack;
   private final Supplier<E> exceptions;
+  private final CloseableMonitorType monitor;
 
-  private CloseableTracker(final Supplier<E> in_exceptions)
+  CloseableTracker(
+    final Supplier<E> in_exceptions,
+    final CloseableMonitorType in_monitor)
   {
     this.exceptions =
       Objects.requireNonNull(in_exceptions, "exceptions");
+    this.monitor =
+      Objects.requireNonNull(in_monitor, "monitor");
     this.stack =
       new ConcurrentLinkedDeque<>();
   }
@@ -56,7 +62,24 @@ public final class CloseableTracker<E extends Exception>
   public static <E extends Exception> CloseableTrackerType<E> create(
     final Supplier<E> exceptions)
   {
-    return new CloseableTracker<>(exceptions);
+    return create(exceptions, CloseableMonitors.none());
+  }
+
+  /**
+   * Create a new closeable tracker.
+   *
+   * @param exceptions A supplier of exceptions
+   * @param monitor    A monitor that observes the tracker
+   * @param <E>        The precise type of exceptions thrown on close failures
+   *
+   * @return A new collection
+   */
+
+  public static <E extends Exception> CloseableTrackerType<E> create(
+    final Supplier<E> exceptions,
+    final CloseableMonitorType monitor)
+  {
+    return new CloseableTracker<>(exceptions, monitor);
   }
 
   /**
@@ -78,15 +101,8 @@ public final class CloseableTracker<E extends Exception>
     E e = null;
 
     while (!this.stack.isEmpty()) {
-      final AutoCloseable resource = this.stack.pop();
-      try {
-        resource.close();
-      } catch (final Exception re) {
-        if (e == null) {
-          e = this.exceptions.get();
-        }
-        e.addSuppressed(re);
-      }
+      e = CloseableClosing.close(
+        this.monitor, this.stack.pop(), this.exceptions, e);
     }
 
     if (e != null) {
@@ -100,12 +116,30 @@ public final class CloseableTracker<E extends Exception>
     return this.stack.size();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The snapshot is taken by traversing the underlying lock-free deque,
+   * and never blocks or delays concurrent additions and removals. It is
+   * <i>weakly consistent</i>: it contains every resource that was present
+   * for the entire duration of the call, and no resource that was never
+   * added, but may or may not reflect additions and removals that occur
+   * concurrently with the call.</p>
+   */
+
+  @Override
+  public List<AutoCloseable> snapshot()
+  {
+    return snapshotOf(this.stack);
+  }
+
   @Override
   public <T extends CloseableType> T add(
     final T resource)
   {
     this.stack.push(resource);
-    this.stack.removeIf(CloseableType::isClosed);
+    this.monitor.onAdd(resource);
+    this.pruneClosed();
     return resource;
   }
 
@@ -114,7 +148,8 @@ public final class CloseableTracker<E extends Exception>
     final T resource)
   {
     this.stack.push(new CloseableWrapper<>(resource));
-    this.stack.removeIf(CloseableType::isClosed);
+    this.monitor.onAdd(resource);
+    this.pruneClosed();
     return resource;
   }
 
@@ -122,37 +157,69 @@ public final class CloseableTracker<E extends Exception>
   public <T extends CloseableType> void remove(
     final T resource)
   {
-    this.stack.remove(resource);
-    this.stack.removeIf(CloseableType::isClosed);
+    if (this.stack.remove(resource)) {
+      this.monitor.onRemove(resource);
+    }
+    this.pruneClosed();
   }
 
-  private final class CloseableWrapper<T extends AutoCloseable>
-    implements CloseableType
+  private void pruneClosed()
   {
-    private final T value;
-    private final AtomicBoolean closed;
-
-    CloseableWrapper(
-      final T inValue)
-    {
-      this.value =
-        Objects.requireNonNull(inValue, "value");
-      this.closed =
-        new AtomicBoolean();
+    if (this.monitor == CloseableMonitors.none()) {
+      this.stack.removeIf(CloseableType::isClosed);
+      return;
     }
 
-    @Override
-    public boolean isClosed()
-    {
-      return this.closed.get();
+    /*
+     * Each closed entry is removed individually so that the monitor is
+     * notified exactly once for each entry that this thread removes.
+     */
+
+    for (final var entry : this.stack) {
+      if (entry.isClosed() && this.stack.removeFirstOccurrence(entry)) {
+        this.monitor.onRemove(CloseableClosing.resourceOf(entry));
+      }
     }
+  }
 
-    @Override
-    public void close()
-      throws Exception
-    {
-      if (this.closed.compareAndSet(false, true)) {
-        this.value.close();
+  static List<AutoCloseable> snapshotOf(
+    final Iterable<CloseableType> entries)
+  {
+    final var resources = new ArrayList<AutoCloseable>();
+    for (final var entry : entries) {
+      if (!entry.isClosed()) {
+        resources.add(CloseableClosing.resourceOf(entry));
+      }
+    }
+    return List.copyOf(resources);
+  }
+
+  /**
+   * @return The supplier of exceptions for this tracker
+   */
+
+  Supplier<E> exceptions()
+  {
+    return this.exceptions;
+  }
+
+  /**
+   * Remove all resources from the tracker without closing them.
+   *
+   * @return The resources that have not yet been closed, most recently added
+   * first
+   */
+
+  List<CloseableType> drain()
+  {
+    final var resources = new ArrayList<CloseableType>();
+    while (true) {
+      final CloseableType resource = this.stack.pollFirst();
+      if (resource == null) {
+        return resources;
+      }
+      if (!resource.isClosed()) {
+        resources.add(resource);
       }
     }
   }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+/**
+ * The policy applied by a bounded tracker when a resource is added to a
+ * tracker that is already at capacity.
+ *
+ * @see CloseableBoundedTrackerType
+ */
+
+public enum CloseableTrackerCapacityPolicy
+{
+  /**
+   * Close the resource that was added to the tracker the longest time ago.
+   */
+
+  CLOSE_OLDEST,
+
+  /**
+   * Close the resource that was least recently added or
+   * {@link CloseableBoundedTrackerType#touch(AutoCloseable) touched}.
+   */
+
+  CLOSE_LEAST_RECENTLY_USED,
+
+  /**
+   * Block the adding thread until capacity becomes available.
+   */
+
+  BLOCK,
+
+  /**
+   * Fail immediately by raising an {@link IllegalStateException}.
+   */
+
+  FAIL
+}
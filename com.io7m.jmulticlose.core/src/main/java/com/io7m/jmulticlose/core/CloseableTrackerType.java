@@ -18,6 +18,10 @@ package com.io7m.jmulticlose.core;
 
 import org.osgi.annotation.versioning.ProviderType;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * <p>A tracker of resources that can be closed.</p>
  *
@@ -58,6 +62,23 @@ public interface CloseableTrackerType<E extends Exception> extends AutoCloseable
 
   int size();
 
+  /**
+   * <p>Take a snapshot of the resources in the tracker that are not known to
+   * have been closed. The returned list is immutable, is not affected by
+   * subsequent changes to the tracker, and holds resources in the order in
+   * which they would be closed (most recently added first). Resources added
+   * with {@link #addAuto(AutoCloseable)} appear as the values that were
+   * originally added.</p>
+   *
+   * <p>Taking a snapshot is intended to be safe to call frequently from
+   * monitoring threads. Implementations document the consistency of the
+   * snapshot with respect to concurrent modifications.</p>
+   *
+   * @return A snapshot of the resources in the tracker
+   */
+
+  List<AutoCloseable> snapshot();
+
   /**
    * Add a resource to be closed when this tracker is closed.
    *
@@ -89,4 +110,50 @@ public interface CloseableTrackerType<E extends Exception> extends AutoCloseable
    */
 
   <T extends CloseableType> void remove(T resource);
+
+  /**
+   * Create a new pool, and add it to be closed when this tracker is closed.
+   * Leases taken from the pool are typically added to narrower scopes, so
+   * that resources return to the pool when those scopes close, and are
+   * closed when this tracker closes.
+   *
+   * @param factory       A function that creates resources for keys
+   * @param maxIdlePerKey The maximum number of idle resources held for each
+   *                      key
+   * @param maxIdleTime   The maximum time for which a resource may be idle
+   * @param <K>           The type of keys
+   * @param <T>           The type of pooled resources
+   *
+   * @return The new pool
+   *
+   * @see CloseablePool#create(Function, int, Duration)
+   */
+
+  default <K, T extends AutoCloseable>
+  CloseablePoolType<K, T, ClosingResourceFailedException> addPool(
+    final Function<? super K, ? extends T> factory,
+    final int maxIdlePerKey,
+    final Duration maxIdleTime)
+  {
+    return this.add(CloseablePool.create(factory, maxIdlePerKey, maxIdleTime));
+  }
+
+  /**
+   * Register a reclaimable resource with {@code reclaimer}, and add its
+   * handle to be closed when this tracker is closed. If the resource is
+   * reclaimed first, the handle is discarded from this tracker.
+   *
+   * @param reclaimer The reclaimer
+   * @param resource  The resource
+   * @param <T>       The precise type of resource
+   *
+   * @return A handle to the resource
+   */
+
+  default <T extends AutoCloseable> CloseableReclaimableType<T> addReclaimable(
+    final CloseableReclaimerType reclaimer,
+    final T resource)
+  {
+    return this.add(reclaimer.register(resource));
+  }
 }
@@ -0,0 +1,413 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * <p>A monitor that reports closes that take longer than a threshold.</p>
+ *
+ * <p>The watchdog is attached to collections and trackers as an ordinary
+ * {@link CloseableMonitorType}, possibly combined with other monitors using
+ * {@link CloseableMonitors#all(List)}. Each thread that closes resources is
+ * given a small stack of in-progress closes the first time it closes
+ * anything; after that, starting and finishing a close stores only the
+ * resource and a timestamp into that stack, and allocates nothing. A single
+ * daemon thread inspects the stacks periodically and, for every close that
+ * has exceeded the threshold, captures the stack trace of the closing
+ * thread and passes a {@link CloseableSlowClose} report to the listener.
+ * The report is repeated on every inspection for as long as the close
+ * continues, so that the progress (or lack of it) of a stuck close can be
+ * seen.</p>
+ *
+ * <p>Closing the watchdog stops its thread.</p>
+ */
+
+@ThreadSafe
+public final class CloseableWatchdog
+  implements CloseableMonitorType, AutoCloseable
+{
+  private static final System.Logger LOG =
+    System.getLogger(CloseableWatchdog.class.getName());
+
+  private final long thresholdNanos;
+  private final long periodNanos;
+  private final CloseableSlowCloseListenerType listener;
+  private final Set<Slot> slots;
+  private final ThreadLocal<Slot> slot;
+  private final Thread thread;
+  private volatile boolean closed;
+
+  private CloseableWatchdog(
+    final Duration inThreshold,
+    final Duration inPeriod,
+    final CloseableSlowCloseListenerType inListener)
+  {
+    Objects.requireNonNull(inThreshold, "threshold");
+    Objects.requireNonNull(inPeriod, "period");
+
+    if (inThreshold.isNegative() || inThreshold.isZero()) {
+      throw new IllegalArgumentException(
+        "Threshold must be positive (received %s)".formatted(inThreshold)
+      );
+    }
+    if (inPeriod.isNegative() || inPeriod.isZero()) {
+      throw new IllegalArgumentException(
+        "Period must be positive (received %s)".formatted(inPeriod)
+      );
+    }
+
+    this.thresholdNanos =
+      inThreshold.toNanos();
+    this.periodNanos =
+      inPeriod.toNanos();
+    this.listener =
+      Objects.requireNonNull(inListener, "listener");
+    this.slots =
+      ConcurrentHashMap.newKeySet();
+    this.slot =
+      ThreadLocal.withInitial(this::register);
+    this.thread =
+      new Thread(this::watch, "com.io7m.jmulticlose.watchdog");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Create and start a watchdog.
+   *
+   * @param threshold The time after which a close is considered slow
+   * @param period    The interval between inspections of in-progress closes
+   * @param listener  The listener that receives reports
+   *
+   * @return A new watchdog
+   */
+
+  public static CloseableWatchdog create(
+    final Duration threshold,
+    final Duration period,
+    final CloseableSlowCloseListenerType listener)
+  {
+    final var watchdog = new CloseableWatchdog(threshold, period, listener);
+    watchdog.thread.start();
+    return watchdog;
+  }
+
+  /**
+   * Create and start a watchdog that logs reports as warnings, inspecting
+   * in-progress closes once per {@code threshold}.
+   *
+   * @param threshold The time after which a close is considered slow
+   *
+   * @return A new watchdog
+   */
+
+  public static CloseableWatchdog create(
+    final Duration threshold)
+  {
+    return create(threshold, threshold, CloseableWatchdog::log);
+  }
+
+  private static void log(
+    final CloseableSlowClose report)
+  {
+    LOG.log(
+      WARNING,
+      "Resource {0} has been closing for {1} on thread {2} (sample {3}):\n{4}",
+      report.resource(),
+      report.elapsed(),
+      report.thread(),
+      Integer.valueOf(report.sample()),
+      report.stack()
+        .stream()
+        .map(e -> "  at " + e)
+        .collect(Collectors.joining("\n"))
+    );
+  }
+
+  private Slot register()
+  {
+    final var created = new Slot(Thread.currentThread());
+    this.slots.add(created);
+    return created;
+  }
+
+  @Override
+  public void onCloseStarted(
+    final AutoCloseable resource)
+  {
+    this.slot.get().push(resource, System.nanoTime());
+  }
+
+  @Override
+  public void onClosed(
+    final AutoCloseable resource,
+    final long nanos)
+  {
+    this.slot.get().pop(resource);
+  }
+
+  @Override
+  public void onCloseFailed(
+    final AutoCloseable resource,
+    final long nanos,
+    final Exception failure)
+  {
+    this.slot.get().pop(resource);
+  }
+
+  /**
+   * @return The number of closes currently in progress
+   */
+
+  public int inProgress()
+  {
+    int count = 0;
+    for (final Slot s : this.slots) {
+      count += s.frames().size();
+    }
+    return count;
+  }
+
+  @Override
+  public void close()
+  {
+    this.closed = true;
+    LockSupport.unpark(this.thread);
+  }
+
+  private void watch()
+  {
+    while (!this.closed) {
+      LockSupport.parkNanos(this, this.periodNanos);
+      if (this.closed) {
+        return;
+      }
+
+      final long now = System.nanoTime();
+      final Iterator<Slot> iter = this.slots.iterator();
+      while (iter.hasNext()) {
+        final Slot s = iter.next();
+        final List<Frame> frames = s.frames();
+        if (frames.isEmpty() && !s.thread.isAlive()) {
+          iter.remove();
+        } else {
+          this.inspect(s, frames, now);
+        }
+      }
+    }
+  }
+
+  private void inspect(
+    final Slot s,
+    final List<Frame> frames,
+    final long now)
+  {
+    s.retain(frames);
+
+    List<StackTraceElement> stack = null;
+    for (final Frame frame : frames) {
+      final long elapsed = now - frame.start;
+      if (elapsed < this.thresholdNanos) {
+        continue;
+      }
+
+      if (stack == null) {
+        stack = List.of(s.thread.getStackTrace());
+      }
+      this.report(s, frame, elapsed, stack, s.sample(frame));
+    }
+  }
+
+  private void report(
+    final Slot s,
+    final Frame frame,
+    final long elapsed,
+    final List<StackTraceElement> stack,
+    final int samples)
+  {
+    try {
+      this.listener.onSlowClose(new CloseableSlowClose(
+        frame.resource,
+        s.thread.getName(),
+        Duration.ofNanos(elapsed),
+        stack,
+        samples
+      ));
+    } catch (final RuntimeException e) {
+      LOG.log(ERROR, "Slow close listener raised an exception.", e);
+    }
+  }
+
+  private record Frame(
+    AutoCloseable resource,
+    long start,
+    int depth)
+  {
+
+  }
+
+  /**
+   * The closes in progress on a single thread. The stack is written only by
+   * the owning thread, and read by the watchdog thread using a sequence
+   * number: the number is odd while the stack is being modified, and a read
+   * is retried if the number changed while it was taking place.
+   */
+
+  private static final class Slot
+  {
+    private static final VarHandle VERSION;
+    private static final int INITIAL = 8;
+
+    static {
+      try {
+        VERSION = MethodHandles.lookup()
+          .findVarHandle(Slot.class, "version", long.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final Thread thread;
+    private volatile long version;
+    private AutoCloseable[] resources;
+    private long[] starts;
+    private int depth;
+
+    // Accessed only by the watchdog thread.
+    private final Map<Frame, Integer> samples;
+
+    Slot(
+      final Thread inThread)
+    {
+      this.thread = inThread;
+      this.resources = new AutoCloseable[INITIAL];
+      this.starts = new long[INITIAL];
+      this.samples = new HashMap<>();
+    }
+
+    private long begin()
+    {
+      final long v = this.version;
+      VERSION.setOpaque(this, v + 1L);
+      VarHandle.storeStoreFence();
+      return v;
+    }
+
+    private void end(
+      final long v)
+    {
+      VERSION.setRelease(this, v + 2L);
+    }
+
+    void push(
+      final AutoCloseable resource,
+      final long start)
+    {
+      final long v = this.begin();
+      final int d = this.depth;
+      if (d == this.starts.length) {
+        this.resources = Arrays.copyOf(this.resources, d * 2);
+        this.starts = Arrays.copyOf(this.starts, d * 2);
+      }
+      this.resources[d] = resource;
+      this.starts[d] = start;
+      this.depth = d + 1;
+      this.end(v);
+    }
+
+    void pop(
+      final AutoCloseable resource)
+    {
+      final int d = this.depth;
+      int index = d - 1;
+      while (index >= 0 && this.resources[index] != resource) {
+        --index;
+      }
+      if (index < 0) {
+        return;
+      }
+
+      final long v = this.begin();
+      Arrays.fill(this.resources, index, d, null);
+      this.depth = index;
+      this.end(v);
+    }
+
+    List<Frame> frames()
+    {
+      while (true) {
+        final long v = (long) VERSION.getAcquire(this);
+        if ((v & 1L) == 0L) {
+          final List<Frame> frames = this.tryFrames();
+          VarHandle.loadLoadFence();
+          if (frames != null && (long) VERSION.getOpaque(this) == v) {
+            return frames;
+          }
+        }
+        Thread.onSpinWait();
+      }
+    }
+
+    private List<Frame> tryFrames()
+    {
+      final int d = this.depth;
+      final AutoCloseable[] r = this.resources;
+      final long[] s = this.starts;
+      if (d > r.length || d > s.length) {
+        return null;
+      }
+
+      final var frames = new ArrayList<Frame>(d);
+      for (int index = 0; index < d; ++index) {
+        frames.add(new Frame(r[index], s[index], index));
+      }
+      return frames;
+    }
+
+    int sample(
+      final Frame frame)
+    {
+      return this.samples.merge(frame, Integer.valueOf(1), Integer::sum)
+        .intValue();
+    }
+
+    void retain(
+      final List<Frame> frames)
+    {
+      this.samples.keySet().retainAll(frames);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.core;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A wrapper that allows plain {@link AutoCloseable} resources to be tracked
+ * as {@link CloseableType} resources. The wrapper considers the resource
+ * closed once the wrapper itself has closed it.
+ *
+ * @param <T> The type of wrapped resource
+ */
+
+final class CloseableWrapper<T extends AutoCloseable>
+  implements CloseableType
+{
+  private final T value;
+  private final AtomicBoolean closed;
+
+  CloseableWrapper(
+    final T inValue)
+  {
+    this.value =
+      Objects.requireNonNull(inValue, "value");
+    this.closed =
+      new AtomicBoolean();
+  }
+
+  /**
+   * @return The wrapped resource
+   */
+
+  T value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.value.close();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.value.toString();
+  }
+}
@@ -23,6 +23,7 @@ module com.io7m.jmulticlose.core
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
   requires static com.io7m.jcip.annotations;
+  requires java.management;
 
   exports com.io7m.jmulticlose.core;
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.jcstress;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * An addition racing against closing a collection either succeeds and the
+ * resource is closed by the collection, or is rejected and the resource is
+ * left untouched.
+ */
+
+@JCStressTest
+@Description("CloseableCollection add/close linearizability")
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Added before close, closed by the collection.")
+@Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "Rejected after close.")
+@Outcome(id = "1, 0", expect = FORBIDDEN, desc = "Added, but never closed: leaked.")
+@Outcome(expect = FORBIDDEN, desc = "Other cases are forbidden.")
+@State
+public class CollectionAddCloseStress
+{
+  private final CloseableCollectionType<ClosingResourceFailedException> collection =
+    CloseableCollection.create();
+  private final CountingResource resource =
+    new CountingResource();
+  private volatile int accepted;
+
+  /**
+   * Create a test.
+   */
+
+  public CollectionAddCloseStress()
+  {
+
+  }
+
+  /**
+   * Add a resource.
+   */
+
+  @Actor
+  public void add()
+  {
+    try {
+      this.collection.add(this.resource);
+      this.accepted = 1;
+    } catch (final IllegalStateException e) {
+      this.accepted = 0;
+    }
+  }
+
+  /**
+   * Close the collection.
+   */
+
+  @Actor
+  public void close()
+  {
+    try {
+      this.collection.close();
+    } catch (final ClosingResourceFailedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Collect the results.
+   *
+   * @param r The results
+   */
+
+  @Arbiter
+  public void arbiter(final II_Result r)
+  {
+    r.r1 = this.accepted;
+    r.r2 = this.resource.closes();
+  }
+}
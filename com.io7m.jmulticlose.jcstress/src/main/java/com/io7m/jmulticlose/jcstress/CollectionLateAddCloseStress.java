@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.jcstress;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.CloseableLateAddPolicy;
+import com.io7m.jmulticlose.core.CloseableMonitors;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two additions racing against closing a collection that closes late
+ * additions immediately: both resources are always closed exactly once.
+ */
+
+@JCStressTest
+@Description("CloseableCollection close-on-late-add")
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Both resources closed exactly once.")
+@Outcome(expect = FORBIDDEN, desc = "A resource was leaked or closed twice.")
+@State
+public class CollectionLateAddCloseStress
+{
+  private final CloseableCollectionType<ClosingResourceFailedException> collection =
+    CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      CloseableMonitors.none(),
+      CloseableLateAddPolicy.CLOSE_IMMEDIATELY
+    );
+  private final CountingResource resource0 =
+    new CountingResource();
+  private final CountingResource resource1 =
+    new CountingResource();
+
+  /**
+   * Create a test.
+   */
+
+  public CollectionLateAddCloseStress()
+  {
+
+  }
+
+  /**
+   * Add a resource.
+   */
+
+  @Actor
+  public void add0()
+  {
+    this.collection.add(this.resource0);
+  }
+
+  /**
+   * Add a resource.
+   */
+
+  @Actor
+  public void add1()
+  {
+    this.collection.add(this.resource1);
+  }
+
+  /**
+   * Close the collection.
+   */
+
+  @Actor
+  public void close()
+  {
+    try {
+      this.collection.close();
+    } catch (final ClosingResourceFailedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Collect the results.
+   *
+   * @param r The results
+   */
+
+  @Arbiter
+  public void arbiter(final II_Result r)
+  {
+    r.r1 = this.resource0.closes();
+    r.r2 = this.resource1.closes();
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.jcstress;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A resource that counts the number of times it has been closed.
+ */
+
+public final class CountingResource implements AutoCloseable
+{
+  private final AtomicInteger closes;
+
+  /**
+   * Create a resource.
+   */
+
+  public CountingResource()
+  {
+    this.closes = new AtomicInteger();
+  }
+
+  /**
+   * @return The number of times the resource has been closed
+   */
+
+  public int closes()
+  {
+    return this.closes.get();
+  }
+
+  @Override
+  public void close()
+  {
+    this.closes.incrementAndGet();
+  }
+}
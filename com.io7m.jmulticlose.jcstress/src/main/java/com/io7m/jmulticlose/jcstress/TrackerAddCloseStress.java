@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.jcstress;
+
+import com.io7m.jmulticlose.core.CloseableTracker;
+import com.io7m.jmulticlose.core.CloseableTrackerType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * An addition racing against closing a tracker: trackers remain usable after
+ * closing, so the resource is either closed by the tracker, or is still
+ * tracked afterwards. It is never both, and never neither.
+ */
+
+@JCStressTest
+@Description("CloseableTracker add/close")
+@Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "Added before close, closed by the tracker.")
+@Outcome(id = "0, 1", expect = ACCEPTABLE, desc = "Added after close, still tracked.")
+@Outcome(id = "0, 0", expect = FORBIDDEN, desc = "Neither closed nor tracked: leaked.")
+@Outcome(expect = FORBIDDEN, desc = "Other cases are forbidden.")
+@State
+public class TrackerAddCloseStress
+{
+  private final CloseableTrackerType<ClosingResourceFailedException> tracker =
+    CloseableTracker.create();
+  private final CountingResource resource =
+    new CountingResource();
+
+  /**
+   * Create a test.
+   */
+
+  public TrackerAddCloseStress()
+  {
+
+  }
+
+  /**
+   * Add a resource.
+   */
+
+  @Actor
+  public void add()
+  {
+    this.tracker.addAuto(this.resource);
+  }
+
+  /**
+   * Close the tracker.
+   */
+
+  @Actor
+  public void close()
+  {
+    try {
+      this.tracker.close();
+    } catch (final ClosingResourceFailedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Collect the results.
+   *
+   * @param r The results
+   */
+
+  @Arbiter
+  public void arbiter(final II_Result r)
+  {
+    r.r1 = this.resource.closes();
+    r.r2 = this.tracker.size();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.jcstress;
+
+import com.io7m.jmulticlose.core.CloseableTracker;
+import com.io7m.jmulticlose.core.CloseableTrackerType;
+import com.io7m.jmulticlose.core.CloseableType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * An add-then-remove sequence racing against closing a tracker: the
+ * resource is closed at most once, and is never left in the tracker.
+ */
+
+@JCStressTest
+@Description("CloseableTracker add/remove/close")
+@Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "Removed before close.")
+@Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "Closed by the tracker before removal.")
+@Outcome(expect = FORBIDDEN, desc = "Other cases are forbidden.")
+@State
+public class TrackerAddRemoveCloseStress
+{
+  private final CloseableTrackerType<ClosingResourceFailedException> tracker =
+    CloseableTracker.create();
+  private final Resource resource =
+    new Resource();
+
+  /**
+   * Create a test.
+   */
+
+  public TrackerAddRemoveCloseStress()
+  {
+
+  }
+
+  /**
+   * Add and then remove a resource.
+   */
+
+  @Actor
+  public void addRemove()
+  {
+    this.tracker.add(this.resource);
+    this.tracker.remove(this.resource);
+  }
+
+  /**
+   * Close the tracker.
+   */
+
+  @Actor
+  public void close()
+  {
+    try {
+      this.tracker.close();
+    } catch (final ClosingResourceFailedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Collect the results.
+   *
+   * @param r The results
+   */
+
+  @Arbiter
+  public void arbiter(final II_Result r)
+  {
+    r.r1 = this.resource.closes.get();
+    r.r2 = this.tracker.size();
+  }
+
+  private static final class Resource implements CloseableType
+  {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closes.get() > 0;
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+}
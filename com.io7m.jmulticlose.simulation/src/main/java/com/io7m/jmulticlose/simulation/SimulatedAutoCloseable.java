@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import java.util.Objects;
+
+/**
+ * A view of a simulated resource as a plain {@link AutoCloseable}, for
+ * exercising the code paths that handle resources that cannot report
+ * whether they are closed.
+ */
+
+public final class SimulatedAutoCloseable implements AutoCloseable
+{
+  private final SimulatedResource resource;
+
+  private SimulatedAutoCloseable(
+    final SimulatedResource inResource)
+  {
+    this.resource = Objects.requireNonNull(inResource, "resource");
+  }
+
+  /**
+   * @param resource The simulated resource
+   *
+   * @return A view of {@code resource} as a plain {@link AutoCloseable}
+   */
+
+  public static SimulatedAutoCloseable of(
+    final SimulatedResource resource)
+  {
+    return new SimulatedAutoCloseable(resource);
+  }
+
+  /**
+   * @return The underlying simulated resource
+   */
+
+  public SimulatedResource resource()
+  {
+    return this.resource;
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    this.resource.close();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[SimulatedAutoCloseable %d]".formatted(
+      Integer.valueOf(this.resource.id()));
+  }
+}
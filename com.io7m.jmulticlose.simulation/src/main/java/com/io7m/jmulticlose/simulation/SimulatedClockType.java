@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A clock against which simulated latencies are measured and injected.
+ *
+ * @see SimulatedClocks
+ */
+
+@ProviderType
+public interface SimulatedClockType
+{
+  /**
+   * @return The current time of the calling thread in nanoseconds, relative
+   * to an arbitrary origin
+   */
+
+  long nanoTime();
+
+  /**
+   * Wait for the given duration.
+   *
+   * @param nanos The duration in nanoseconds
+   *
+   * @throws InterruptedException If the calling thread is interrupted
+   */
+
+  void delay(long nanos)
+    throws InterruptedException;
+
+  /**
+   * Wrap a thread factory so that the threads it creates are scheduled by
+   * this clock. Clocks that keep a separate time for each thread start
+   * each new thread at the time of the thread that created it. By default,
+   * the factory is returned unchanged.
+   *
+   * @param threads The thread factory
+   *
+   * @return A thread factory
+   */
+
+  default ThreadFactory threads(
+    final ThreadFactory threads)
+  {
+    return threads;
+  }
+
+  /**
+   * Advance the calling thread to the latest time reached by any thread
+   * that has used this clock, as if the calling thread had waited for all
+   * of them to finish. By default, this simply returns the current time.
+   *
+   * @return The current time of the calling thread in nanoseconds
+   */
+
+  default long joinAll()
+  {
+    return this.nanoTime();
+  }
+}
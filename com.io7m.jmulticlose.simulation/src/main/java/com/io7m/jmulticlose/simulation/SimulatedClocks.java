@@ -0,0 +1,319 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import net.jcip.annotations.GuardedBy;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Standard clocks.
+ */
+
+public final class SimulatedClocks
+{
+  private SimulatedClocks()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * A clock that measures real time, and injects latency by actually
+   * sleeping. Times measured with this clock are wall-clock times.
+   *
+   * @return The real clock
+   */
+
+  public static SimulatedClockType real()
+  {
+    return Real.INSTANCE;
+  }
+
+  /**
+   * <p>A virtual clock that never sleeps. Each thread that uses the clock
+   * has its own virtual time, and a delay simply advances the time of the
+   * calling thread, so a simulation completes quickly. The time taken by a
+   * simulation is the
+   * <i>makespan</i>: the latest time reached by any thread, as returned by
+   * {@link SimulatedClockType#joinAll()}. Closes performed concurrently on
+   * different threads therefore overlap in virtual time, and parallel
+   * close strategies can be compared with sequential ones.</p>
+   *
+   * <p>To keep the distribution of work between threads close to what
+   * virtual time implies, a thread returns from a delay only when no other
+   * thread that is still running, or is itself delayed, is at an earlier
+   * virtual time. Threads created with a factory wrapped by
+   * {@link SimulatedClockType#threads(ThreadFactory)} start at the time of
+   * the thread that created them, and are known to the clock before they
+   * start; any other thread starts at the time of the most recent call to
+   * {@link SimulatedClockType#joinAll()}. Threads blocked in a wait outside
+   * the clock, and threads that have not used the clock for a
+   * significant amount of real time, do not hold back other threads.
+   * Dependencies between threads other than thread creation and
+   * {@link SimulatedClockType#joinAll()} are not observed.</p>
+   *
+   * <p>This is not a discrete-event scheduler: whether another thread is
+   * still running is judged from real-time waits and from the thread states
+   * reported by the JVM. A simulation in which a single thread closes all
+   * resources measures the same time on every run, but when several
+   * threads close resources concurrently, the interleaving, and therefore
+   * the makespan, depends in part on the host's scheduler and may vary
+   * slightly between runs.</p>
+   *
+   * @return A new virtual clock starting at {@code 0}
+   */
+
+  public static SimulatedClockType virtual()
+  {
+    return new Virtual();
+  }
+
+  private static final class Real implements SimulatedClockType
+  {
+    private static final Real INSTANCE = new Real();
+
+    private Real()
+    {
+
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return System.nanoTime();
+    }
+
+    @Override
+    public void delay(
+      final long nanos)
+      throws InterruptedException
+    {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+  }
+
+  private static final class Virtual implements SimulatedClockType
+  {
+    /**
+     * The real time for which a delayed thread waits before checking the
+     * states of other threads again.
+     */
+
+    private static final long POLL_NANOS = 100_000L;
+
+    /**
+     * The real time after which a running thread that has not used the
+     * clock is assumed not to be closing resources.
+     */
+
+    private static final long STALL_NANOS = 100_000_000L;
+
+    private final ReentrantLock lock;
+    private final Condition changed;
+    private final Map<Thread, Participant> participants;
+    private volatile long origin;
+    @GuardedBy("lock")
+    private long nextId;
+
+    Virtual()
+    {
+      this.lock = new ReentrantLock();
+      this.changed = this.lock.newCondition();
+      this.participants = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      final Participant self =
+        this.participant(Thread.currentThread(), this.origin);
+
+      this.lock.lock();
+      try {
+        self.lastActive = System.nanoTime();
+        return self.time;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    @Override
+    public void delay(
+      final long nanos)
+      throws InterruptedException
+    {
+      final Participant self =
+        this.participant(Thread.currentThread(), this.origin);
+
+      self.entering = true;
+      this.lock.lock();
+      try {
+        self.time += Math.max(0L, nanos);
+        self.delayed = true;
+        self.entering = false;
+        this.changed.signalAll();
+
+        try {
+          long remaining = POLL_NANOS;
+          while (this.isHeldBack(self)) {
+            remaining = this.changed.awaitNanos(remaining);
+            if (remaining <= 0L) {
+              remaining = POLL_NANOS;
+            }
+          }
+        } finally {
+          self.delayed = false;
+          self.lastActive = System.nanoTime();
+          this.changed.signalAll();
+        }
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    @Override
+    public ThreadFactory threads(
+      final ThreadFactory threads)
+    {
+      Objects.requireNonNull(threads, "threads");
+      return runnable -> {
+        final long start = this.nanoTime();
+        final Thread thread = threads.newThread(runnable);
+        if (thread != null) {
+          this.participant(thread, start);
+        }
+        return thread;
+      };
+    }
+
+    @Override
+    public long joinAll()
+    {
+      final Participant self =
+        this.participant(Thread.currentThread(), this.origin);
+
+      this.lock.lock();
+      try {
+        long latest = self.time;
+        for (final var participant : this.participants.values()) {
+          latest = Math.max(latest, participant.time);
+        }
+        self.time = latest;
+        this.origin = latest;
+
+        this.participants.values()
+          .removeIf(p -> p.thread.getState() == Thread.State.TERMINATED);
+        return latest;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    private Participant participant(
+      final Thread thread,
+      final long start)
+    {
+      final Participant existing = this.participants.get(thread);
+      if (existing != null) {
+        return existing;
+      }
+
+      this.lock.lock();
+      try {
+        return this.participants.computeIfAbsent(thread, t -> {
+          final var created = new Participant(t, this.nextId, start);
+          ++this.nextId;
+          return created;
+        });
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    /**
+     * @param self A delayed participant
+     *
+     * @return {@code true} if another participant may yet act at an earlier
+     * virtual time than {@code self}
+     */
+
+    private boolean isHeldBack(
+      final Participant self)
+    {
+      final long now = System.nanoTime();
+      for (final var other : this.participants.values()) {
+        if (other != self && other.isActive(now) && other.isBefore(self)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static final class Participant
+    {
+      private final Thread thread;
+      private final long id;
+      @GuardedBy("lock")
+      private long time;
+      @GuardedBy("lock")
+      private long lastActive;
+      @GuardedBy("lock")
+      private boolean delayed;
+      private volatile boolean entering;
+
+      Participant(
+        final Thread inThread,
+        final long inId,
+        final long inTime)
+      {
+        this.thread = inThread;
+        this.id = inId;
+        this.time = inTime;
+        this.lastActive = System.nanoTime();
+      }
+
+      boolean isBefore(
+        final Participant other)
+      {
+        if (this.time == other.time) {
+          return this.id < other.id;
+        }
+        return this.time < other.time;
+      }
+
+      boolean isActive(
+        final long now)
+      {
+        if (this.delayed || this.entering) {
+          return true;
+        }
+
+        return switch (this.thread.getState()) {
+          case NEW, RUNNABLE -> now - this.lastActive < STALL_NANOS;
+          case BLOCKED, WAITING, TIMED_WAITING, TERMINATED -> false;
+        };
+      }
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>An environment in which simulated resources are created and
+ * closed.</p>
+ *
+ * <p>The environment owns a seeded random number generator, a clock, and a
+ * journal that records the order in which resources are closed. Resources
+ * are numbered in creation order.</p>
+ */
+
+@ThreadSafe
+public final class SimulatedEnvironment
+{
+  private final SimulatedClockType clock;
+  private final SplittableRandom random;
+  private final ConcurrentLinkedQueue<SimulatedResource> journal;
+  private int nextId;
+
+  private SimulatedEnvironment(
+    final long inSeed,
+    final SimulatedClockType inClock)
+  {
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.random =
+      new SplittableRandom(inSeed);
+    this.journal =
+      new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * Create a new environment.
+   *
+   * @param seed  The seed for the random number generator
+   * @param clock The clock
+   *
+   * @return A new environment
+   */
+
+  public static SimulatedEnvironment create(
+    final long seed,
+    final SimulatedClockType clock)
+  {
+    return new SimulatedEnvironment(seed, clock);
+  }
+
+  /**
+   * @return The environment's clock
+   */
+
+  public SimulatedClockType clock()
+  {
+    return this.clock;
+  }
+
+  /**
+   * Create a new simulated resource.
+   *
+   * @param profile The behaviour of the resource
+   *
+   * @return A new resource
+   */
+
+  public SimulatedResource resource(
+    final SimulatedProfile profile)
+  {
+    Objects.requireNonNull(profile, "profile");
+
+    final SimulatedResource resource;
+    synchronized (this.random) {
+      final SplittableRandom r = this.random.split();
+      resource = new SimulatedResource(
+        this.clock,
+        this.journal::add,
+        this.nextId,
+        Math.max(0L, profile.latency().sampleNanos(r)),
+        r.nextDouble() < profile.failureRate(),
+        r.nextDouble() < profile.hangRate(),
+        profile.hang().toNanos()
+      );
+      ++this.nextId;
+    }
+    return resource;
+  }
+
+  /**
+   * Create new simulated resources.
+   *
+   * @param profile The behaviour of the resources
+   * @param count   The number of resources
+   *
+   * @return The new resources, in creation order
+   */
+
+  public List<SimulatedResource> resources(
+    final SimulatedProfile profile,
+    final int count)
+  {
+    final var resources = new ArrayList<SimulatedResource>(count);
+    for (int index = 0; index < count; ++index) {
+      resources.add(this.resource(profile));
+    }
+    return List.copyOf(resources);
+  }
+
+  /**
+   * @return The resources that have been closed, in the order in which
+   * closing started
+   */
+
+  public List<SimulatedResource> closeOrder()
+  {
+    return List.copyOf(this.journal);
+  }
+
+  /**
+   * Clear the close journal.
+   */
+
+  public void clearJournal()
+  {
+    this.journal.clear();
+  }
+}
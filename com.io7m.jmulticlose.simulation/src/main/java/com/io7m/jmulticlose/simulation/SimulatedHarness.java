@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A harness that runs close strategies against simulated resources and
+ * measures the results.
+ */
+
+public final class SimulatedHarness
+{
+  private SimulatedHarness()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Create {@code count} resources with the given profile, close them with
+   * the given strategy, and measure the results.
+   *
+   * @param environment The environment
+   * @param profile     The behaviour of the resources
+   * @param count       The number of resources
+   * @param strategy    The close strategy
+   *
+   * @return The result of the simulation
+   */
+
+  public static SimulatedResult run(
+    final SimulatedEnvironment environment,
+    final SimulatedProfile profile,
+    final int count,
+    final SimulatedStrategyType strategy)
+  {
+    Objects.requireNonNull(environment, "environment");
+    return run(environment, environment.resources(profile, count), strategy);
+  }
+
+  /**
+   * Close the given resources with the given strategy, and measure the
+   * results.
+   *
+   * @param environment The environment in which the resources were created
+   * @param resources   The resources, in registration order
+   * @param strategy    The close strategy
+   *
+   * @return The result of the simulation
+   */
+
+  public static SimulatedResult run(
+    final SimulatedEnvironment environment,
+    final List<SimulatedResource> resources,
+    final SimulatedStrategyType strategy)
+  {
+    Objects.requireNonNull(environment, "environment");
+    Objects.requireNonNull(resources, "resources");
+    Objects.requireNonNull(strategy, "strategy");
+
+    environment.clearJournal();
+
+    final SimulatedClockType clock = environment.clock();
+    final long start = clock.joinAll();
+    Exception failure = null;
+    try {
+      strategy.closeAll(resources);
+    } catch (final Exception e) {
+      failure = e;
+    }
+    final long elapsed = clock.joinAll() - start;
+
+    final var members = new HashSet<>(resources);
+    final List<Integer> order =
+      environment.closeOrder()
+        .stream()
+        .filter(members::contains)
+        .map(r -> Integer.valueOf(r.id()))
+        .toList();
+
+    int expected = 0;
+    int unclosed = 0;
+    int repeated = 0;
+    for (final var resource : resources) {
+      if (resource.fails()) {
+        ++expected;
+      }
+      if (resource.closes() == 0) {
+        ++unclosed;
+      }
+      if (resource.closes() > 1) {
+        ++repeated;
+      }
+    }
+
+    return new SimulatedResult(
+      Duration.ofNanos(elapsed),
+      expected,
+      failure == null ? 0 : failure.getSuppressed().length,
+      order,
+      unclosed,
+      repeated
+    );
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Standard latency distributions.
+ */
+
+public final class SimulatedLatencies
+{
+  private SimulatedLatencies()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @param latency The latency
+   *
+   * @return A distribution that always yields {@code latency}
+   */
+
+  public static SimulatedLatencyType constant(
+    final Duration latency)
+  {
+    final long nanos = nonNegative(latency);
+    return random -> nanos;
+  }
+
+  /**
+   * @param minimum The minimum latency (inclusive)
+   * @param maximum The maximum latency (exclusive)
+   *
+   * @return A uniform distribution over the given range
+   */
+
+  public static SimulatedLatencyType uniform(
+    final Duration minimum,
+    final Duration maximum)
+  {
+    final long min = nonNegative(minimum);
+    final long max = nonNegative(maximum);
+    if (max <= min) {
+      throw new IllegalArgumentException(
+        "Maximum %s must be greater than minimum %s"
+          .formatted(maximum, minimum)
+      );
+    }
+    return random -> random.nextLong(min, max);
+  }
+
+  /**
+   * @param mean The mean latency
+   *
+   * @return An exponential distribution with the given mean
+   */
+
+  public static SimulatedLatencyType exponential(
+    final Duration mean)
+  {
+    final double nanos = (double) nonNegative(mean);
+    return random -> (long) (-nanos * Math.log(1.0 - random.nextDouble()));
+  }
+
+  /**
+   * A mixture of two distributions, typically used to model a fast common
+   * case with a slow tail.
+   *
+   * @param probability The probability of sampling from {@code rare}
+   * @param common      The common distribution
+   * @param rare        The rare distribution
+   *
+   * @return A mixture distribution
+   */
+
+  public static SimulatedLatencyType mixture(
+    final double probability,
+    final SimulatedLatencyType common,
+    final SimulatedLatencyType rare)
+  {
+    SimulatedProfile.checkProbability("probability", probability);
+    Objects.requireNonNull(common, "common");
+    Objects.requireNonNull(rare, "rare");
+
+    return random -> {
+      if (random.nextDouble() < probability) {
+        return rare.sampleNanos(random);
+      }
+      return common.sampleNanos(random);
+    };
+  }
+
+  private static long nonNegative(
+    final Duration duration)
+  {
+    Objects.requireNonNull(duration, "duration");
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException(
+        "Duration must be non-negative (received %s)".formatted(duration)
+      );
+    }
+    return duration.toNanos();
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The behaviour of a class of simulated resources.
+ *
+ * @param latency     The distribution of close latencies
+ * @param failureRate The probability that closing a resource fails
+ * @param hangRate    The probability that closing a resource hangs
+ * @param hang        The length of a hang
+ */
+
+public record SimulatedProfile(
+  SimulatedLatencyType latency,
+  double failureRate,
+  double hangRate,
+  Duration hang)
+{
+  /**
+   * The behaviour of a class of simulated resources.
+   *
+   * @param latency     The distribution of close latencies
+   * @param failureRate The probability that closing a resource fails
+   * @param hangRate    The probability that closing a resource hangs
+   * @param hang        The length of a hang
+   */
+
+  public SimulatedProfile
+  {
+    Objects.requireNonNull(latency, "latency");
+    Objects.requireNonNull(hang, "hang");
+    checkProbability("failureRate", failureRate);
+    checkProbability("hangRate", hangRate);
+  }
+
+  /**
+   * @param latency The distribution of close latencies
+   *
+   * @return A profile for resources that never fail or hang
+   */
+
+  public static SimulatedProfile of(
+    final SimulatedLatencyType latency)
+  {
+    return new SimulatedProfile(latency, 0.0, 0.0, Duration.ZERO);
+  }
+
+  static void checkProbability(
+    final String name,
+    final double value)
+  {
+    if (!(value >= 0.0 && value <= 1.0)) {
+      throw new IllegalArgumentException(
+        "%s must be in the range [0, 1] (received %s)"
+          .formatted(name, Double.valueOf(value))
+      );
+    }
+  }
+}
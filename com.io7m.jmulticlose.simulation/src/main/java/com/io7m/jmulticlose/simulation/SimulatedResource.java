@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import com.io7m.jmulticlose.core.CloseableType;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * <p>A fake resource that injects latency, failures, and hangs when
+ * closed.</p>
+ *
+ * <p>The behaviour of each resource is decided when the resource is
+ * created, from the random number generator of its
+ * {@link SimulatedEnvironment}, so the same seed always yields the same
+ * resources.</p>
+ */
+
+@ThreadSafe
+public final class SimulatedResource implements CloseableType
+{
+  private final SimulatedClockType clock;
+  private final Consumer<SimulatedResource> journal;
+  private final int id;
+  private final long latencyNanos;
+  private final boolean fails;
+  private final boolean hangs;
+  private final long hangNanos;
+  private final AtomicInteger closes;
+
+  SimulatedResource(
+    final SimulatedClockType inClock,
+    final Consumer<SimulatedResource> inJournal,
+    final int inId,
+    final long inLatencyNanos,
+    final boolean inFails,
+    final boolean inHangs,
+    final long inHangNanos)
+  {
+    this.clock = inClock;
+    this.journal = inJournal;
+    this.id = inId;
+    this.latencyNanos = inLatencyNanos;
+    this.fails = inFails;
+    this.hangs = inHangs;
+    this.hangNanos = inHangNanos;
+    this.closes = new AtomicInteger();
+  }
+
+  /**
+   * @return The identifier of the resource, unique within its environment
+   * and assigned in creation order
+   */
+
+  public int id()
+  {
+    return this.id;
+  }
+
+  /**
+   * @return The latency injected when the resource is closed, excluding any
+   * hang
+   */
+
+  public long latencyNanos()
+  {
+    return this.latencyNanos;
+  }
+
+  /**
+   * @return {@code true} if closing the resource fails
+   */
+
+  public boolean fails()
+  {
+    return this.fails;
+  }
+
+  /**
+   * @return {@code true} if closing the resource hangs
+   */
+
+  public boolean hangs()
+  {
+    return this.hangs;
+  }
+
+  /**
+   * @return The number of times the resource has been closed
+   */
+
+  public int closes()
+  {
+    return this.closes.get();
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closes.get() > 0;
+  }
+
+  @Override
+  public void close()
+    throws IOException, InterruptedException
+  {
+    this.closes.incrementAndGet();
+    this.journal.accept(this);
+
+    this.clock.delay(this.latencyNanos);
+    if (this.hangs) {
+      this.clock.delay(this.hangNanos);
+    }
+    if (this.fails) {
+      throw new IOException("Simulated failure (resource %d)".formatted(
+        Integer.valueOf(this.id)));
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[SimulatedResource %d]".formatted(Integer.valueOf(this.id));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of a simulation.
+ *
+ * @param elapsed           The time taken to close all resources, as
+ *                          measured by the environment's clock; for
+ *                          clocks that keep a time for each thread, this
+ *                          is the latest time reached by any thread
+ * @param expectedFailures  The number of resources that were configured to
+ *                          fail
+ * @param reportedFailures  The number of failures reported as suppressed
+ *                          exceptions by the strategy
+ * @param closeOrder        The identifiers of the resources, in the order
+ *                          in which closing started
+ * @param unclosed          The number of resources that were never closed
+ * @param closedMoreThanOnce The number of resources that were closed more
+ *                          than once
+ */
+
+public record SimulatedResult(
+  Duration elapsed,
+  int expectedFailures,
+  int reportedFailures,
+  List<Integer> closeOrder,
+  int unclosed,
+  int closedMoreThanOnce)
+{
+  /**
+   * The result of a simulation.
+   *
+   * @param elapsed           The time taken to close all resources, as
+   *                          measured by the environment's clock; for
+   *                          clocks that keep a time for each thread, this
+   *                          is the latest time reached by any thread
+   * @param expectedFailures  The number of resources that were configured to
+   *                          fail
+   * @param reportedFailures  The number of failures reported as suppressed
+   *                          exceptions by the strategy
+   * @param closeOrder        The identifiers of the resources, in the order
+   *                          in which closing started
+   * @param unclosed          The number of resources that were never closed
+   * @param closedMoreThanOnce The number of resources that were closed more
+   *                          than once
+   */
+
+  public SimulatedResult
+  {
+    Objects.requireNonNull(elapsed, "elapsed");
+    closeOrder = List.copyOf(closeOrder);
+  }
+
+  /**
+   * @return {@code true} if resources were closed in exactly the reverse of
+   * the order in which they were registered
+   */
+
+  public boolean isReverseOrder()
+  {
+    for (int index = 1; index < this.closeOrder.size(); ++index) {
+      if (this.closeOrder.get(index).intValue()
+        >= this.closeOrder.get(index - 1).intValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return {@code true} if every resource was closed exactly once, and
+   * every failure was reported
+   */
+
+  public boolean isSound()
+  {
+    return this.unclosed == 0
+      && this.closedMoreThanOnce == 0
+      && this.reportedFailures == this.expectedFailures;
+  }
+}
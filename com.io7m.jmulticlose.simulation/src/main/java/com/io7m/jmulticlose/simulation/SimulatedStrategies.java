@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableParallelGroup;
+import com.io7m.jmulticlose.core.CloseableTracker;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Standard close strategies.
+ */
+
+public final class SimulatedStrategies
+{
+  private SimulatedStrategies()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return A strategy that adds resources to a {@link CloseableCollection}
+   */
+
+  public static SimulatedStrategyType collection()
+  {
+    return resources -> {
+      try (var c = CloseableCollection.create()) {
+        resources.forEach(c::add);
+      }
+    };
+  }
+
+  /**
+   * @return A strategy that adds resources to a {@link CloseableTracker}
+   */
+
+  public static SimulatedStrategyType tracker()
+  {
+    return resources -> {
+      try (var t = CloseableTracker.create()) {
+        resources.forEach(t::add);
+      }
+    };
+  }
+
+  /**
+   * @return A strategy that adds resources to a {@link CloseableTracker} as
+   * plain {@link AutoCloseable} values
+   */
+
+  public static SimulatedStrategyType trackerAuto()
+  {
+    return resources -> {
+      try (var t = CloseableTracker.create()) {
+        for (final var resource : resources) {
+          t.addAuto(SimulatedAutoCloseable.of(resource));
+        }
+      }
+    };
+  }
+
+  /**
+   * Create a strategy that closes resources in a parallel group. When
+   * simulating with a virtual clock, the thread factory should be wrapped
+   * with {@link SimulatedClockType#threads(ThreadFactory)} so that the
+   * workers are scheduled in virtual time.
+   *
+   * @param threads     A factory of worker threads
+   * @param parallelism The maximum number of concurrent closes
+   *
+   * @return A strategy that adds resources to a
+   * {@link CloseableParallelGroup}
+   */
+
+  public static SimulatedStrategyType parallelGroup(
+    final ThreadFactory threads,
+    final int parallelism)
+  {
+    return resources -> {
+      try (var g = CloseableParallelGroup.create(threads, parallelism)) {
+        resources.forEach(g::add);
+      }
+    };
+  }
+}
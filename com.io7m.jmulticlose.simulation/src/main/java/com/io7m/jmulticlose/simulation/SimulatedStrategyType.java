@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.simulation;
+
+import org.osgi.annotation.versioning.ConsumerType;
+
+import java.util.List;
+
+/**
+ * A strategy for registering and closing a set of resources, such as
+ * adding them to a collection and closing the collection.
+ *
+ * @see SimulatedStrategies
+ */
+
+@ConsumerType
+@FunctionalInterface
+public interface SimulatedStrategyType
+{
+  /**
+   * Register the given resources, in order, and then close them.
+   *
+   * @param resources The resources
+   *
+   * @throws Exception If closing fails
+   */
+
+  void closeAll(List<SimulatedResource> resources)
+    throws Exception;
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableBackgroundCloser;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableMonitorType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableBackgroundCloser}.
+ */
+
+public final class CloseableBackgroundCloserTest
+{
+  /**
+   * A collection closed in the background is sealed immediately, and its
+   * resources are closed in order on a worker thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseDeferred()
+    throws Exception
+  {
+    final var order = new ConcurrentLinkedQueue<String>();
+    final var threads = new ConcurrentLinkedQueue<Thread>();
+
+    try (var closer = CloseableBackgroundCloser.create(Thread::new, 2, 16)) {
+      final var c = CloseableCollection.create();
+      for (int index = 0; index < 3; ++index) {
+        final int x = index;
+        c.add(() -> {
+          threads.add(Thread.currentThread());
+          order.add("r" + x);
+        });
+      }
+
+      c.closeDeferred(closer);
+      assertEquals(0, c.size());
+      Assertions.assertThrows(IllegalStateException.class, () -> {
+        c.add(() -> { });
+      });
+    }
+
+    assertEquals(List.of("r2", "r1", "r0"), List.copyOf(order));
+    Assertions.assertFalse(threads.contains(Thread.currentThread()));
+  }
+
+  /**
+   * Failures are reported to the monitor.
+   */
+
+  @Test
+  public void testFailures()
+  {
+    final var failures = new ConcurrentLinkedQueue<Exception>();
+    final var monitor = new CloseableMonitorType()
+    {
+      @Override
+      public void onCloseFailed(
+        final AutoCloseable resource,
+        final long nanos,
+        final Exception failure)
+      {
+        failures.add(failure);
+      }
+    };
+
+    try (var closer =
+           CloseableBackgroundCloser.create(Thread::new, 1, 4, monitor)) {
+      final var c = CloseableCollection.create();
+      c.add(() -> {
+        throw new IOException("Failed 0");
+      });
+      c.add(() -> {
+        throw new IOException("Failed 1");
+      });
+      c.closeDeferred(closer);
+      closer.submit(() -> {
+        throw new IOException("Failed 2");
+      });
+    }
+
+    assertEquals(2, failures.size());
+    final var collectionFailure = failures.peek();
+    Assertions.assertInstanceOf(
+      ClosingResourceFailedException.class, collectionFailure);
+    assertEquals(2, collectionFailure.getSuppressed().length);
+  }
+
+  /**
+   * Submitting blocks when the queue is full.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBackpressure()
+    throws Exception
+  {
+    final var release = new CountDownLatch(1);
+    final var started = new CountDownLatch(1);
+    final var closes = new AtomicInteger();
+
+    try (var closer = CloseableBackgroundCloser.create(Thread::new, 1, 1)) {
+      assertEquals(1, closer.capacity());
+
+      closer.submit(() -> {
+        started.countDown();
+        release.await();
+        closes.incrementAndGet();
+      });
+      started.await();
+      closer.submit(closes::incrementAndGet);
+      assertEquals(1, closer.pending());
+
+      final var submitted = new CountDownLatch(1);
+      final var submitter = new Thread(() -> {
+        closer.submit(closes::incrementAndGet);
+        submitted.countDown();
+      });
+      submitter.start();
+
+      Assertions.assertFalse(submitted.await(100L, TimeUnit.MILLISECONDS));
+      release.countDown();
+      Assertions.assertTrue(submitted.await(5L, TimeUnit.SECONDS));
+      submitter.join();
+    }
+
+    assertEquals(3, closes.get());
+  }
+
+  /**
+   * Resources submitted after the service is closed are closed on the
+   * calling thread.
+   */
+
+  @Test
+  public void testSubmitAfterClose()
+  {
+    final var closer = CloseableBackgroundCloser.create(Thread::new, 1, 1);
+    closer.close();
+    closer.close();
+
+    final var threads = new ConcurrentLinkedQueue<Thread>();
+    closer.submit(() -> threads.add(Thread.currentThread()));
+    assertEquals(List.of(Thread.currentThread()), List.copyOf(threads));
+  }
+
+  /**
+   * Concurrent calls to close never block forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testConcurrentClose()
+    throws Exception
+  {
+    final var closer = CloseableBackgroundCloser.create(Thread::new, 4, 1);
+    final var start = new CountDownLatch(1);
+    final var closers = new ArrayList<Thread>();
+    for (int index = 0; index < 8; ++index) {
+      final var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        closer.close();
+      });
+      thread.start();
+      closers.add(thread);
+    }
+
+    start.countDown();
+    for (final var thread : closers) {
+      thread.join(5_000L);
+      Assertions.assertFalse(thread.isAlive());
+    }
+  }
+
+  /**
+   * A resource that raises an error does not stop the worker, so closing
+   * the closer still completes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseError()
+    throws Exception
+  {
+    final var closed = new AtomicInteger();
+    final var closer = CloseableBackgroundCloser.create(Thread::new, 1, 1);
+
+    closer.submit(() -> {
+      throw new AssertionError("Failed");
+    });
+    closer.submit(closed::incrementAndGet);
+
+    final var thread = new Thread(closer::close);
+    thread.setDaemon(true);
+    thread.start();
+    thread.join(5_000L);
+    Assertions.assertFalse(thread.isAlive(), "close() returned");
+    assertEquals(1, closed.get());
+  }
+
+  /**
+   * Thread factories that do not create threads are rejected.
+   */
+
+  @Test
+  public void testThreadFactoryNull()
+  {
+    Assertions.assertThrows(NullPointerException.class, () -> {
+      CloseableBackgroundCloser.create(r -> null, 1, 1);
+    });
+  }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableBatchCloserType;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableLateAddPolicy;
+import com.io7m.jmulticlose.core.CloseableMonitorType;
+import com.io7m.jmulticlose.core.CloseableMonitors;
+import com.io7m.jmulticlose.core.CloseableStatistics;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link CloseableBatchCloserType}.
+ */
+
+public final class CloseableBatchCloserTest
+{
+  private final List<String> calls = new ArrayList<>();
+
+  private static final class Buffer implements AutoCloseable
+  {
+    Buffer()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+
+    }
+  }
+
+  private CloseableBatchCloserType<String> closer(
+    final String name)
+  {
+    return resources -> this.calls.add(name + resources);
+  }
+
+  /**
+   * Consecutive resources sharing a closer are released in one call.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatched()
+    throws Exception
+  {
+    final var x = this.closer("x");
+    try (var c = CloseableCollection.create()) {
+      for (int index = 0; index < 5; ++index) {
+        c.addBatched(x, Integer.toString(index));
+      }
+      assertEquals(5, c.size());
+    }
+    assertEquals(List.of("x[4, 3, 2, 1, 0]"), this.calls);
+  }
+
+  /**
+   * Batches keep their positions relative to other resources.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOrderAcrossGroups()
+    throws Exception
+  {
+    final var x = this.closer("x");
+    final var y = this.closer("y");
+    try (var c = CloseableCollection.create()) {
+      c.addBatched(x, "a1");
+      c.addBatched(x, "a2");
+      c.add(() -> this.calls.add("b"));
+      c.addBatched(x, "a3");
+      c.addBatched(y, "a4");
+      c.addBatched(y, "a5");
+    }
+    assertEquals(
+      List.of("y[a5, a4]", "x[a3]", "b", "x[a2, a1]"),
+      this.calls
+    );
+  }
+
+  /**
+   * A failing batch is reported once, and does not prevent other closes.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final CloseableBatchCloserType<String> crasher = resources -> {
+      throw new IOException("Crashed " + resources);
+    };
+
+    final var ex =
+      assertThrows(ClosingResourceFailedException.class, () -> {
+        try (var c = CloseableCollection.create()) {
+          c.add(() -> this.calls.add("first"));
+          c.addBatched(crasher, "a");
+          c.addBatched(crasher, "b");
+          c.add(() -> this.calls.add("last"));
+        }
+      });
+
+    assertEquals(1, ex.getSuppressed().length);
+    assertEquals("Crashed [b, a]", ex.getSuppressed()[0].getMessage());
+    assertEquals(List.of("last", "first"), this.calls);
+  }
+
+  /**
+   * Monitors see one close for each resource in a batch, although the
+   * closer is called once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMonitor()
+    throws Exception
+  {
+    final var started = new AtomicInteger();
+    final var closed = new AtomicInteger();
+    final var monitor = new CloseableMonitorType()
+    {
+      @Override
+      public void onCloseStarted(
+        final AutoCloseable resource)
+      {
+        started.incrementAndGet();
+      }
+
+      @Override
+      public void onClosed(
+        final AutoCloseable resource,
+        final long nanos)
+      {
+        closed.incrementAndGet();
+      }
+    };
+
+    final var x = this.closer("x");
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      monitor,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 100; ++index) {
+        c.addBatched(x, Integer.toString(index));
+      }
+    }
+    assertEquals(100, started.get());
+    assertEquals(100, closed.get());
+    assertEquals(1, this.calls.size());
+  }
+
+  /**
+   * Statistics return to zero after a batch is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMonitorStatistics()
+    throws Exception
+  {
+    final var statistics = CloseableStatistics.create();
+    final var x = this.closer("x");
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      statistics,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 100; ++index) {
+        c.addBatched(x, Integer.toString(index));
+      }
+      c.add(() -> this.calls.add("b"));
+      assertEquals(101L, statistics.getSize());
+    }
+
+    assertEquals(0L, statistics.getSize());
+    assertEquals(101L, statistics.getCloseCount());
+    assertEquals(Map.of(), statistics.getLiveByClass());
+  }
+
+  /**
+   * Statistics return to zero after a failing batch is closed.
+   */
+
+  @Test
+  public void testMonitorStatisticsFailure()
+  {
+    final var statistics = CloseableStatistics.create();
+    final CloseableBatchCloserType<String> crasher = resources -> {
+      throw new IOException("Crashed " + resources);
+    };
+
+    assertThrows(ClosingResourceFailedException.class, () -> {
+      try (var c = CloseableCollection.create(
+        ClosingResourceFailedException::new,
+        statistics,
+        CloseableLateAddPolicy.REJECT)) {
+        c.addBatched(crasher, "a");
+        c.addBatched(crasher, "b");
+      }
+    });
+
+    assertEquals(0L, statistics.getSize());
+    assertEquals(2L, statistics.getCloseFailureCount());
+    assertEquals(Map.of(), statistics.getLiveByClass());
+  }
+
+  /**
+   * Monitors observe batched resources themselves, rather than internal
+   * entries, when the resources are closeable.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMonitorResources()
+    throws Exception
+  {
+    final var observed = new ArrayList<AutoCloseable>();
+    final var monitor = new CloseableMonitorType()
+    {
+      @Override
+      public void onAdd(
+        final AutoCloseable resource)
+      {
+        observed.add(resource);
+      }
+
+      @Override
+      public void onCloseStarted(
+        final AutoCloseable resource)
+      {
+        observed.add(resource);
+      }
+    };
+
+    final var statistics = CloseableStatistics.create();
+    final CloseableBatchCloserType<Buffer> closer = resources -> { };
+    final var b0 = new Buffer();
+    final var b1 = new Buffer();
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      CloseableMonitors.all(List.of(monitor, statistics)),
+      CloseableLateAddPolicy.REJECT)) {
+      c.addBatched(closer, b0);
+      c.addBatched(closer, b1);
+      assertEquals(
+        Map.of(Buffer.class.getName(), Long.valueOf(2L)),
+        statistics.getLiveByClass()
+      );
+    }
+
+    assertEquals(List.of(b0, b1, b1, b0), observed);
+    assertEquals(Map.of(), statistics.getLiveByClass());
+  }
+
+  /**
+   * If a monitor fails on the start of a resource in a batch, only the
+   * resources whose start was reported are reported as finished.
+   */
+
+  @Test
+  public void testMonitorStartFails()
+  {
+    final var started = new AtomicInteger();
+    final var finished = new AtomicInteger();
+    final var monitor = new CloseableMonitorType()
+    {
+      @Override
+      public void onCloseStarted(
+        final AutoCloseable resource)
+      {
+        if (started.get() == 2) {
+          throw new IllegalStateException("Monitor failed");
+        }
+        started.incrementAndGet();
+      }
+
+      @Override
+      public void onClosed(
+        final AutoCloseable resource,
+        final long nanos)
+      {
+        finished.incrementAndGet();
+      }
+
+      @Override
+      public void onCloseFailed(
+        final AutoCloseable resource,
+        final long nanos,
+        final Exception failure)
+      {
+        finished.incrementAndGet();
+      }
+    };
+
+    final var x = this.closer("x");
+    assertThrows(ClosingResourceFailedException.class, () -> {
+      try (var c = CloseableCollection.create(
+        ClosingResourceFailedException::new,
+        monitor,
+        CloseableLateAddPolicy.REJECT)) {
+        for (int index = 0; index < 5; ++index) {
+          c.addBatched(x, Integer.toString(index));
+        }
+      }
+    });
+
+    assertEquals(2, started.get());
+    assertEquals(2, finished.get());
+  }
+
+  /**
+   * Resources added late are released on their own.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLateAdd()
+    throws Exception
+  {
+    final var x = this.closer("x");
+    final var c =
+      CloseableCollection.create(
+        ClosingResourceFailedException::new,
+        CloseableMonitors.none(),
+        CloseableLateAddPolicy.CLOSE_IMMEDIATELY
+      );
+    c.close();
+    c.addBatched(x, "a");
+    c.addBatched(x, "b");
+    assertEquals(List.of("x[a]", "x[b]"), this.calls);
+  }
+}
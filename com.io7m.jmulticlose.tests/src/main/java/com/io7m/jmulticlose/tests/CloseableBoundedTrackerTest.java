@@ -0,0 +1,420 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableBoundedTracker;
+import com.io7m.jmulticlose.core.CloseableBoundedTrackerType;
+import com.io7m.jmulticlose.core.CloseableType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.jmulticlose.core.CloseableTrackerCapacityPolicy.BLOCK;
+import static com.io7m.jmulticlose.core.CloseableTrackerCapacityPolicy.CLOSE_LEAST_RECENTLY_USED;
+import static com.io7m.jmulticlose.core.CloseableTrackerCapacityPolicy.CLOSE_OLDEST;
+import static com.io7m.jmulticlose.core.CloseableTrackerCapacityPolicy.FAIL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableBoundedTracker}.
+ */
+
+public final class CloseableBoundedTrackerTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CloseableBoundedTrackerTest.class);
+
+  /**
+   * A tracker must have a positive capacity.
+   */
+
+  @Test
+  public void testInvalidCapacity()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      CloseableBoundedTracker.create(0, FAIL);
+    });
+  }
+
+  /**
+   * The oldest resource is closed when the tracker is full.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseOldest()
+    throws Exception
+  {
+    final Resource r0;
+    final Resource r1;
+    final Resource r2;
+
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(2, CLOSE_OLDEST)) {
+      assertEquals(2, c.capacity());
+      assertEquals(CLOSE_OLDEST, c.policy());
+
+      r0 = c.add(new Resource(0));
+      r1 = c.add(new Resource(1));
+      c.touch(r0);
+      assertEquals(2, c.size());
+
+      r2 = c.add(new Resource(2));
+      assertEquals(2, c.size());
+      Assertions.assertTrue(r0.closed, "r0 closed");
+      Assertions.assertFalse(r1.closed, "r1 closed");
+      Assertions.assertFalse(r2.closed, "r2 closed");
+    }
+
+    Assertions.assertTrue(r1.closed, "r1 closed");
+    Assertions.assertTrue(r2.closed, "r2 closed");
+  }
+
+  /**
+   * The least recently used resource is closed when the tracker is full.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseLeastRecentlyUsed()
+    throws Exception
+  {
+    final ResourceAuto r0;
+    final ResourceAuto r1;
+    final ResourceAuto r2;
+
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(2, CLOSE_LEAST_RECENTLY_USED)) {
+      r0 = c.addAuto(new ResourceAuto(0));
+      r1 = c.addAuto(new ResourceAuto(1));
+      c.touch(r0);
+
+      r2 = c.addAuto(new ResourceAuto(2));
+      assertEquals(2, c.size());
+      Assertions.assertFalse(r0.closed, "r0 closed");
+      Assertions.assertTrue(r1.closed, "r1 closed");
+      Assertions.assertFalse(r2.closed, "r2 closed");
+    }
+
+    Assertions.assertTrue(r0.closed, "r0 closed");
+    Assertions.assertTrue(r2.closed, "r2 closed");
+  }
+
+  /**
+   * Adding a resource to a full tracker fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFail()
+    throws Exception
+  {
+    final Resource r0;
+    final Resource r1;
+
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(2, FAIL)) {
+      r0 = c.add(new Resource(0));
+      r1 = c.add(new Resource(1));
+
+      Assertions.assertThrows(IllegalStateException.class, () -> {
+        c.add(new Resource(2));
+      });
+      assertEquals(2, c.size());
+      Assertions.assertFalse(r0.closed, "r0 closed");
+      Assertions.assertFalse(r1.closed, "r1 closed");
+    }
+
+    Assertions.assertTrue(r0.closed, "r0 closed");
+    Assertions.assertTrue(r1.closed, "r1 closed");
+  }
+
+  /**
+   * Closed resources do not count towards the capacity.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosedReleasesCapacity()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(2, FAIL)) {
+      final var r0 = c.add(new Resource(0));
+      c.add(new Resource(1));
+      r0.close();
+      c.add(new Resource(2));
+      assertEquals(2, c.size());
+    }
+  }
+
+  /**
+   * Adding a resource to a full tracker blocks until a resource is removed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBlockRemove()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(1, BLOCK)) {
+      final var r0 = c.add(new Resource(0));
+      final var future =
+        CompletableFuture.supplyAsync(() -> c.add(new Resource(1)));
+
+      Thread.sleep(100L);
+      Assertions.assertFalse(future.isDone());
+      c.remove(r0);
+
+      final var r1 = future.get(5L, TimeUnit.SECONDS);
+      assertEquals(1, c.size());
+      Assertions.assertFalse(r0.closed, "r0 closed");
+      Assertions.assertFalse(r1.closed, "r1 closed");
+    }
+  }
+
+  /**
+   * Adding a resource to a full tracker blocks until a resource is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBlockClosed()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(1, BLOCK)) {
+      final var r0 = c.add(new Resource(0));
+      final var future =
+        CompletableFuture.supplyAsync(() -> c.add(new Resource(1)));
+
+      Thread.sleep(100L);
+      Assertions.assertFalse(future.isDone());
+      r0.close();
+
+      future.get(5L, TimeUnit.SECONDS);
+      assertEquals(1, c.size());
+    }
+  }
+
+  /**
+   * Adding a resource to a tracker full of plain resources blocks until a
+   * resource is released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBlockRelease()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(1, BLOCK)) {
+      final var r0 = c.addAuto(new ResourceAuto(0));
+      final var future =
+        CompletableFuture.supplyAsync(() -> c.addAuto(new ResourceAuto(1)));
+
+      Thread.sleep(100L);
+      Assertions.assertFalse(future.isDone());
+      c.release(r0);
+
+      future.get(5L, TimeUnit.SECONDS);
+      assertEquals(1, c.size());
+      Assertions.assertFalse(r0.closed, "r0 closed");
+    }
+  }
+
+  /**
+   * Adding a resource to a full tracker blocks until any resource, not just
+   * the oldest, is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBlockClosedNewest()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(200, BLOCK)) {
+      final var resources = new ArrayList<Resource>();
+      for (int index = 0; index < 200; ++index) {
+        resources.add(c.add(new Resource(index)));
+      }
+      final var future =
+        CompletableFuture.supplyAsync(() -> c.add(new Resource(200)));
+
+      Thread.sleep(100L);
+      Assertions.assertFalse(future.isDone());
+      resources.get(199).close();
+
+      future.get(5L, TimeUnit.SECONDS);
+      assertEquals(200, c.size());
+    }
+  }
+
+  /**
+   * Failures to close evicted resources are reported on close.
+   */
+
+  @Test
+  public void testEvictionFailure()
+  {
+    final var ex =
+      Assertions.assertThrows(ClosingResourceFailedException.class, () -> {
+        try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+               CloseableBoundedTracker.create(1, CLOSE_OLDEST)) {
+          c.add(new ResourceCrasher(0));
+          c.add(new Resource(1));
+        }
+      });
+
+    assertEquals(1, ex.getSuppressed().length);
+  }
+
+  /**
+   * Removed resources aren't closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRemove()
+    throws Exception
+  {
+    final Resource r0;
+    final Resource r1;
+
+    try (CloseableBoundedTrackerType<IOException> c =
+           CloseableBoundedTracker.create(IOException::new, 2, FAIL)) {
+      r0 = c.add(new Resource(0));
+      r1 = c.add(new Resource(1));
+      c.add(r1);
+      assertEquals(2, c.size());
+      c.remove(r0);
+      assertEquals(1, c.size());
+    }
+
+    Assertions.assertFalse(r0.closed, "r0 closed");
+    Assertions.assertTrue(r1.closed, "r1 closed");
+  }
+
+  /**
+   * Snapshots list resources in closing order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSnapshot()
+    throws Exception
+  {
+    try (CloseableBoundedTrackerType<ClosingResourceFailedException> c =
+           CloseableBoundedTracker.create(2, CLOSE_LEAST_RECENTLY_USED)) {
+      final var r0 = c.add(new Resource(0));
+      final var r1 = c.addAuto(new ResourceAuto(1));
+      assertEquals(List.of(r1, r0), c.snapshot());
+      c.touch(r0);
+      assertEquals(List.of(r0, r1), c.snapshot());
+    }
+  }
+
+  private static final class Resource implements CloseableType
+  {
+    private final int x;
+    private volatile boolean closed;
+
+    Resource(final int in_x)
+    {
+      this.x = in_x;
+    }
+
+    @Override
+    public void close()
+    {
+      LOG.debug("Resource close " + this.x);
+      this.closed = true;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closed;
+    }
+  }
+
+  private static final class ResourceCrasher implements CloseableType
+  {
+    private final int x;
+    private boolean closed;
+
+    ResourceCrasher(final int in_x)
+    {
+      this.x = in_x;
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      LOG.debug("ResourceCrasher close " + this.x);
+      this.closed = true;
+      throw new IOException("Failed " + this.x);
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closed;
+    }
+  }
+
+  private static final class ResourceAuto implements Closeable
+  {
+    private final int x;
+    private boolean closed;
+
+    ResourceAuto(final int in_x)
+    {
+      this.x = in_x;
+    }
+
+    @Override
+    public void close()
+    {
+      LOG.debug("Resource close " + this.x);
+      this.closed = true;
+    }
+  }
+}
@@ -18,6 +18,8 @@ package com.io7m.jmulticlose.tests;
 
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.CloseableLateAddPolicy;
+import com.io7m.jmulticlose.core.CloseableMonitors;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.RepeatedTest;
@@ -29,6 +31,9 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -196,6 +201,112 @@ public final class CloseableCollectionTest
     );
   }
 
+  /**
+   * Snapshots list resources in closing order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSnapshot()
+    throws Exception
+  {
+    try (CloseableCollectionType<ClosingResourceFailedException> c = CloseableCollection.create()) {
+      assertEquals(List.of(), c.snapshot());
+      final var r0 = c.add(new Resource(0));
+      final var r1 = c.add(new Resource(1));
+      final var snapshot = c.snapshot();
+      c.add(new Resource(2));
+      assertEquals(List.of(r1, r0), snapshot);
+      assertEquals(3, c.snapshot().size());
+    }
+  }
+
+  /**
+   * Resources added after closing are closed immediately under the
+   * corresponding policy.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLateAddCloseImmediately()
+    throws Exception
+  {
+    final CloseableCollectionType<ClosingResourceFailedException> c =
+      CloseableCollection.create(
+        ClosingResourceFailedException::new,
+        CloseableMonitors.none(),
+        CloseableLateAddPolicy.CLOSE_IMMEDIATELY
+      );
+
+    c.close();
+    final var r0 = c.add(new Resource(0));
+    Assertions.assertTrue(r0.closed);
+    assertEquals(1, r0.attempts.get());
+    assertEquals(0, c.size());
+
+    final var ex =
+      Assertions.assertThrows(IllegalStateException.class, () -> {
+        c.add(new ResourceCrasher(1));
+      });
+    Assertions.assertInstanceOf(IOException.class, ex.getCause());
+  }
+
+  /**
+   * Racing additions against closing never leaks a resource: every resource
+   * is either closed by the collection, or rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 50, failureThreshold = 1)
+  public void testAddCloseRace()
+    throws Exception
+  {
+    final var c = CloseableCollection.create();
+    final var accepted = new ConcurrentLinkedQueue<Resource>();
+    final var rejected = new ConcurrentLinkedQueue<Resource>();
+    final var start = new CountDownLatch(1);
+
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int thread = 0; thread < 4; ++thread) {
+        final int base = thread * 1000;
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          for (int index = 0; index < 1000; ++index) {
+            final var r = new Resource(base + index);
+            try {
+              accepted.add(c.add(r));
+            } catch (final IllegalStateException e) {
+              rejected.add(r);
+            }
+          }
+        });
+      }
+      start.countDown();
+      c.close();
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    assertEquals(4000, accepted.size() + rejected.size());
+    for (final var r : accepted) {
+      Assertions.assertTrue(r.closed);
+      assertEquals(1, r.attempts.get());
+    }
+    for (final var r : rejected) {
+      Assertions.assertFalse(r.closed);
+    }
+  }
+
   private static final class Resources
   {
     Resource r0;
@@ -0,0 +1,317 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCompactTracker;
+import com.io7m.jmulticlose.core.CloseableTrackerType;
+import com.io7m.jmulticlose.core.CloseableType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableCompactTracker}.
+ */
+
+public final class CloseableCompactTrackerTest
+{
+  /**
+   * Resources spanning many chunks are closed, newest first.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSimple()
+    throws Exception
+  {
+    final var order = new ArrayList<Integer>();
+    final CloseableTrackerType<ClosingResourceFailedException> c =
+      CloseableCompactTracker.create();
+
+    for (int index = 0; index < 1000; ++index) {
+      final int x = index;
+      c.addAuto(() -> order.add(Integer.valueOf(x)));
+    }
+    assertEquals(1000, c.size());
+    assertEquals(1000, c.snapshot().size());
+
+    c.close();
+    assertEquals(0, c.size());
+    assertEquals(1000, order.size());
+    for (int index = 0; index < 1000; ++index) {
+      assertEquals(999 - index, order.get(index).intValue());
+    }
+  }
+
+  /**
+   * Removed resources aren't closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRemove()
+    throws Exception
+  {
+    final Resource r0;
+    final Resource r1;
+    final Resource r2;
+
+    try (var c = CloseableCompactTracker.create()) {
+      r0 = c.add(new Resource());
+      r1 = c.add(new Resource());
+      r2 = c.add(new Resource());
+      assertEquals(3, c.size());
+
+      c.remove(r0);
+      assertEquals(2, c.size());
+      c.remove(r1);
+      c.remove(r1);
+      assertEquals(1, c.size());
+      assertEquals(List.of(r2), c.snapshot());
+    }
+
+    assertEquals(0, r0.closes.get());
+    assertEquals(0, r1.closes.get());
+    assertEquals(1, r2.closes.get());
+  }
+
+  /**
+   * Resources that close themselves are pruned incrementally as chunks fill
+   * up, and dead chunks are discarded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrune()
+    throws Exception
+  {
+    final var c = CloseableCompactTracker.create();
+    final var resources = new ArrayList<Resource>();
+    for (int index = 0; index < 1000; ++index) {
+      resources.add(c.add(new Resource()));
+    }
+    for (final var resource : resources) {
+      resource.close();
+    }
+
+    final var survivor = c.add(new Resource());
+    for (int index = 0; index < 2000; ++index) {
+      c.addAuto(() -> { });
+    }
+
+    Assertions.assertTrue(
+      c.size() <= 2002,
+      "Closed resources must have been pruned (size %d)".formatted(c.size())
+    );
+    Assertions.assertTrue(c.snapshot().contains(survivor));
+
+    c.close();
+    assertEquals(1, survivor.closes.get());
+    for (final var resource : resources) {
+      assertEquals(1, resource.closes.get());
+    }
+  }
+
+  /**
+   * Sparsely occupied chunks are merged, and the resources moved between
+   * chunks are neither lost nor closed twice.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompactPartial()
+    throws Exception
+  {
+    final var c = CloseableCompactTracker.create();
+    final var survivors = new ArrayList<Resource>();
+    final var survivorsAuto = new ArrayList<Resource>();
+    final var closed = new ArrayList<Resource>();
+    final var removed = new ArrayList<Resource>();
+
+    for (int index = 0; index < 12_800; ++index) {
+      if (index % 20 == 0) {
+        survivors.add(c.add(new Resource()));
+      } else if (index % 20 == 1) {
+        survivorsAuto.add(c.addAuto(new Resource()));
+      } else if (index % 20 == 2) {
+        removed.add(c.add(new Resource()));
+      } else {
+        closed.add(c.add(new Resource()));
+      }
+    }
+    for (final var resource : closed) {
+      resource.close();
+    }
+    for (int index = 0; index < 12_800; ++index) {
+      c.addAuto(() -> { });
+    }
+    for (final var resource : removed) {
+      c.remove(resource);
+    }
+
+    final int expected =
+      survivors.size() + survivorsAuto.size() + 12_800;
+    assertEquals(expected, c.size());
+    assertEquals(expected, c.snapshot().size());
+
+    c.close();
+    for (final var resource : survivors) {
+      assertEquals(1, resource.closes.get());
+    }
+    for (final var resource : survivorsAuto) {
+      assertEquals(1, resource.closes.get());
+    }
+    for (final var resource : closed) {
+      assertEquals(1, resource.closes.get());
+    }
+    for (final var resource : removed) {
+      assertEquals(0, resource.closes.get());
+    }
+    assertEquals(0, c.size());
+  }
+
+  /**
+   * Adding after every resource in the only chunk has been closed keeps
+   * the tracker usable.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSingleChunkAllClosed()
+    throws Exception
+  {
+    final var c = CloseableCompactTracker.create();
+    final var closed = new ArrayList<Resource>();
+    for (int index = 0; index < 128; ++index) {
+      closed.add(c.add(new Resource()));
+    }
+    for (final var resource : closed) {
+      resource.close();
+    }
+
+    final var later = new ArrayList<Resource>();
+    for (int index = 0; index < 300; ++index) {
+      later.add(c.add(new Resource()));
+    }
+    assertEquals(300, c.size());
+
+    c.close();
+    for (final var resource : later) {
+      assertEquals(1, resource.closes.get());
+    }
+    assertEquals(0, c.size());
+  }
+
+  /**
+   * Crashing resources don't prevent closing.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final var closes = new AtomicInteger();
+    final CloseableTrackerType<IOException> c =
+      CloseableCompactTracker.create(IOException::new);
+
+    c.addAuto(closes::incrementAndGet);
+    c.addAuto(() -> {
+      throw new IOException("Failed");
+    });
+    c.addAuto(closes::incrementAndGet);
+
+    final var ex = Assertions.assertThrows(IOException.class, c::close);
+    assertEquals(1, ex.getSuppressed().length);
+    assertEquals(2, closes.get());
+  }
+
+  /**
+   * Concurrent additions and closing never lose or double-close a resource.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testConcurrent()
+    throws Exception
+  {
+    final var c = CloseableCompactTracker.create();
+    final var resources = new ConcurrentLinkedQueue<Resource>();
+
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int thread = 0; thread < 4; ++thread) {
+        executor.execute(() -> {
+          for (int index = 0; index < 1000; ++index) {
+            resources.add(c.addAuto(new Resource()));
+          }
+        });
+      }
+      for (int index = 0; index < 10; ++index) {
+        c.close();
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    c.close();
+    assertEquals(4000, resources.size());
+    for (final var resource : resources) {
+      assertEquals(1, resource.closes.get());
+    }
+    assertEquals(0, c.size());
+  }
+
+  private static final class Resource implements CloseableType
+  {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closes.get() > 0;
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+}
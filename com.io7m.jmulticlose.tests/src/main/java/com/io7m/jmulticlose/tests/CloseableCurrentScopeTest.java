@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCurrentScope;
+import com.io7m.jmulticlose.core.CloseableTaskScope;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableCurrentScope}.
+ */
+
+public final class CloseableCurrentScopeTest
+{
+  /**
+   * Adding a resource with no scope bound fails.
+   */
+
+  @Test
+  public void testNoScope()
+  {
+    Assertions.assertEquals(
+      Optional.empty(), CloseableCurrentScope.current());
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      CloseableCurrentScope.add(new Resource());
+    });
+  }
+
+  /**
+   * Resources are added to the innermost scope, and outer scopes are
+   * restored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNested()
+    throws Exception
+  {
+    final var outer = CloseableCollection.create();
+    final var inner = CloseableCollection.create();
+
+    CloseableCurrentScope.run(outer, () -> {
+      CloseableCurrentScope.add(new Resource());
+      CloseableCurrentScope.run(inner, () -> {
+        Assertions.assertSame(inner, CloseableCurrentScope.current().get());
+        CloseableCurrentScope.add(new Resource());
+        CloseableCurrentScope.add(new Resource());
+      });
+      Assertions.assertSame(outer, CloseableCurrentScope.current().get());
+      CloseableCurrentScope.add(new Resource());
+    });
+
+    Assertions.assertTrue(CloseableCurrentScope.current().isEmpty());
+    assertEquals(2, outer.size());
+    assertEquals(2, inner.size());
+  }
+
+  /**
+   * The previous scope is restored when an action fails.
+   */
+
+  @Test
+  public void testRestoredOnFailure()
+  {
+    final var outer = CloseableCollection.create();
+
+    Assertions.assertThrows(IOException.class, () -> {
+      CloseableCurrentScope.call(outer, () -> {
+        throw new IOException("Failed");
+      });
+    });
+    Assertions.assertTrue(CloseableCurrentScope.current().isEmpty());
+  }
+
+  /**
+   * Subtasks of a task scope register into their own child collections.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTaskScope()
+    throws Exception
+  {
+    final var resource = new Resource();
+    try (var scope = CloseableTaskScope.create(
+      Executors.defaultThreadFactory())) {
+      final var future = scope.fork(child -> {
+        CloseableCurrentScope.add(resource);
+        return Integer.valueOf(child.size());
+      });
+      assertEquals(1, future.get().intValue());
+    }
+    Assertions.assertTrue(resource.closed);
+  }
+
+  private static final class Resource implements Closeable
+  {
+    private volatile boolean closed;
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closed = true;
+    }
+  }
+}
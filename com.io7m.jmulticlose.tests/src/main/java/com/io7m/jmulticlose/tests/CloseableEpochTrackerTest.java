@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableBackgroundCloser;
+import com.io7m.jmulticlose.core.CloseableEpochTracker;
+import com.io7m.jmulticlose.core.CloseableEpochTrackerType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableEpochTracker}.
+ */
+
+public final class CloseableEpochTrackerTest
+{
+  /**
+   * Closing older epochs closes exactly the resources added in them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseEpochsBefore()
+    throws Exception
+  {
+    final var order = new ArrayList<String>();
+    final CloseableEpochTrackerType<ClosingResourceFailedException> t =
+      CloseableEpochTracker.create();
+
+    assertEquals(0L, t.epoch());
+    t.addAuto(() -> order.add("e0"));
+    assertEquals(1L, t.advanceEpoch());
+    t.addAuto(() -> order.add("e1a"));
+    t.addAuto(() -> order.add("e1b"));
+    assertEquals(2L, t.advanceEpoch());
+    t.addAuto(() -> order.add("e2"));
+    assertEquals(4, t.size());
+
+    t.closeEpochsBefore(1L);
+    assertEquals(List.of("e0"), order);
+    assertEquals(3, t.size());
+
+    t.closeEpochsBefore(100L);
+    assertEquals(List.of("e0", "e1b", "e1a"), order);
+    assertEquals(1, t.size());
+    assertEquals(2L, t.epoch());
+
+    t.close();
+    assertEquals(List.of("e0", "e1b", "e1a", "e2"), order);
+    assertEquals(2L, t.epoch());
+    assertEquals(0, t.size());
+  }
+
+  /**
+   * Epochs can be closed in the background.
+   */
+
+  @Test
+  public void testDeferred()
+  {
+    final var closes = new AtomicInteger();
+    final var t = CloseableEpochTracker.create();
+
+    try (var closer = CloseableBackgroundCloser.create(Thread::new, 1, 4)) {
+      for (int index = 0; index < 100; ++index) {
+        t.addAuto(closes::incrementAndGet);
+      }
+      t.advanceEpoch();
+      t.addAuto(closes::incrementAndGet);
+      t.closeEpochsBeforeDeferred(t.epoch(), closer);
+    }
+
+    assertEquals(100, closes.get());
+    assertEquals(1, t.size());
+  }
+
+  /**
+   * Failures are aggregated.
+   */
+
+  @Test
+  public void testFailures()
+  {
+    final CloseableEpochTrackerType<IOException> t =
+      CloseableEpochTracker.create(IOException::new);
+
+    t.addAuto(() -> {
+      throw new IOException("0");
+    });
+    t.advanceEpoch();
+    t.addAuto(() -> {
+      throw new IOException("1");
+    });
+    t.advanceEpoch();
+
+    final var ex =
+      Assertions.assertThrows(IOException.class, () -> t.closeEpochsBefore(2L));
+    assertEquals(2, ex.getSuppressed().length);
+  }
+
+  /**
+   * Additions racing with epoch rotation are never lost or closed twice.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testRotationRace()
+    throws Exception
+  {
+    final var t = CloseableEpochTracker.create();
+    final var resources = new ConcurrentLinkedQueue<Resource>();
+
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int thread = 0; thread < 4; ++thread) {
+        executor.execute(() -> {
+          for (int index = 0; index < 1000; ++index) {
+            resources.add(t.addAuto(new Resource()));
+          }
+        });
+      }
+      for (int index = 0; index < 100; ++index) {
+        t.closeEpochsBefore(t.advanceEpoch());
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    t.close();
+    assertEquals(4000, resources.size());
+    for (final var resource : resources) {
+      assertEquals(1, resource.closes.get());
+    }
+  }
+
+  private static final class Resource implements AutoCloseable
+  {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+}
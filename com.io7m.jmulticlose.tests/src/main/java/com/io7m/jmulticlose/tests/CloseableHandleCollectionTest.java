@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableHandleCollection;
+import com.io7m.jmulticlose.core.CloseableHandleCollectionType;
+import com.io7m.jmulticlose.core.CloseableLateAddPolicy;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableHandleCollection}.
+ */
+
+public final class CloseableHandleCollectionTest
+{
+  /**
+   * Handles are released in reverse order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReleaseOrder()
+    throws Exception
+  {
+    final var released = new ArrayList<Long>();
+    final var c = CloseableHandleCollection.create(released::add);
+
+    for (long handle = 0L; handle < 100L; ++handle) {
+      assertEquals(handle, c.add(handle));
+    }
+    assertEquals(100, c.size());
+
+    c.close();
+    c.close();
+
+    assertEquals(100, released.size());
+    for (int index = 0; index < 100; ++index) {
+      assertEquals(99L - index, released.get(index));
+    }
+    assertEquals(0, c.size());
+  }
+
+  /**
+   * Release failures are collected, and every handle is still released.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final var released = new ArrayList<Long>();
+    final CloseableHandleCollectionType<ClosingResourceFailedException> c =
+      CloseableHandleCollection.create(handle -> {
+        released.add(handle);
+        if (handle % 2L == 0L) {
+          throw new IOException("Failed " + handle);
+        }
+      });
+
+    c.add(1L);
+    c.add(2L);
+    c.add(3L);
+    c.add(4L);
+
+    final var ex =
+      Assertions.assertThrows(ClosingResourceFailedException.class, c::close);
+    assertEquals(2, ex.getSuppressed().length);
+    assertEquals(List.of(4L, 3L, 2L, 1L), released);
+  }
+
+  /**
+   * Removed handles are not released, and snapshots are in release order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRemoveSnapshot()
+    throws Exception
+  {
+    final var released = new ArrayList<Long>();
+    final var c = CloseableHandleCollection.create(released::add);
+
+    c.add(10L);
+    c.add(20L);
+    c.add(30L);
+    assertArrayEquals(new long[]{30L, 20L, 10L}, c.snapshot());
+
+    Assertions.assertTrue(c.remove(20L));
+    Assertions.assertFalse(c.remove(20L));
+    assertArrayEquals(new long[]{30L, 10L}, c.snapshot());
+
+    c.close();
+    assertEquals(List.of(30L, 10L), released);
+  }
+
+  /**
+   * Late additions are rejected or released according to the policy.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLateAdds()
+    throws Exception
+  {
+    final var released = new ArrayList<Long>();
+    final var rejecting = CloseableHandleCollection.create(released::add);
+    rejecting.close();
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      rejecting.add(1L);
+    });
+    assertEquals(List.of(), released);
+
+    final CloseableHandleCollectionType<ClosingResourceFailedException> closing =
+      CloseableHandleCollection.create(
+        ClosingResourceFailedException::new,
+        released::add,
+        CloseableLateAddPolicy.CLOSE_IMMEDIATELY
+      );
+    closing.close();
+    assertEquals(2L, closing.add(2L));
+    assertEquals(List.of(2L), released);
+  }
+}
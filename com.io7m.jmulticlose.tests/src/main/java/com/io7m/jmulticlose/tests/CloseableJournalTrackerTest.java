@@ -0,0 +1,341 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableJournalEntry;
+import com.io7m.jmulticlose.core.CloseableJournalTracker;
+import com.io7m.jmulticlose.core.CloseableMonitors;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CloseableJournalTracker}.
+ */
+
+public final class CloseableJournalTrackerTest
+{
+  private static List<String> names(
+    final List<CloseableJournalEntry> entries)
+  {
+    return entries.stream()
+      .map(CloseableJournalEntry::name)
+      .toList();
+  }
+
+  /**
+   * Closing a tracker closes resources in reverse order and deletes the
+   * journal.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseDeletesJournal(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var closed = new ArrayList<String>();
+
+    try (var tracker = CloseableJournalTracker.create(file)) {
+      assertTrue(Files.exists(file));
+      tracker.add("file", "a", () -> closed.add("a"));
+      tracker.add("file", "b", () -> closed.add("b"));
+      tracker.add("file", "c", () -> closed.add("c"));
+      assertEquals(3, tracker.size());
+      assertEquals(List.of("c", "b", "a"), names(tracker.snapshot()));
+    }
+
+    assertEquals(List.of("c", "b", "a"), closed);
+    assertFalse(Files.exists(file));
+    assertEquals(List.of(), CloseableJournalTracker.recover(file, e -> {
+      throw new IllegalStateException();
+    }));
+  }
+
+  /**
+   * Resources that are never released are recovered from the journal of a
+   * tracker that was abandoned without being closed.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRecoverAbandoned(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker = CloseableJournalTracker.create(file);
+    final AutoCloseable a = () -> { };
+    final AutoCloseable b = () -> { };
+    final AutoCloseable c = () -> { };
+    tracker.add("file", "a", a);
+    tracker.add("lock", "b", b);
+    tracker.add("file", "c", c);
+    assertTrue(tracker.remove(b));
+    assertFalse(tracker.remove(b));
+
+    final var recovered = new ArrayList<CloseableJournalEntry>();
+    final var result =
+      CloseableJournalTracker.recover(file, recovered::add);
+
+    assertEquals(recovered, result);
+    assertEquals(List.of("c", "a"), names(result));
+    assertEquals("file", result.get(0).kind());
+    assertFalse(Files.exists(file));
+  }
+
+  /**
+   * Recovery deletes real leftover files.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRecoverFiles(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var temp0 = Files.createFile(directory.resolve("temp0"));
+    final var temp1 = Files.createFile(directory.resolve("temp1"));
+
+    final var tracker = CloseableJournalTracker.create(file);
+    tracker.add("file", temp0.toString(), () -> Files.delete(temp0));
+    tracker.add("file", temp1.toString(), () -> Files.delete(temp1));
+
+    CloseableJournalTracker.recover(file, entry -> {
+      Files.deleteIfExists(Path.of(entry.name()));
+    });
+
+    assertFalse(Files.exists(temp0));
+    assertFalse(Files.exists(temp1));
+  }
+
+  /**
+   * Resources that fail to close remain in the journal.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseFailureKeepsJournal(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker = CloseableJournalTracker.create(file);
+    tracker.add("file", "a", () -> { });
+    tracker.add("file", "b", () -> {
+      throw new IOException("b");
+    });
+    tracker.add("file", "c", () -> { });
+
+    final var ex =
+      assertThrows(ClosingResourceFailedException.class, tracker::close);
+    assertEquals(1, ex.getSuppressed().length);
+    assertEquals(0, tracker.size());
+
+    assertEquals(
+      List.of("b"),
+      names(CloseableJournalTracker.recover(file, entry -> { }))
+    );
+  }
+
+  /**
+   * Failed recoveries leave the journal intact.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRecoverFailureKeepsJournal(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker = CloseableJournalTracker.create(file);
+    tracker.add("file", "a", () -> { });
+    tracker.add("file", "b", () -> { });
+
+    final var ex =
+      assertThrows(ClosingResourceFailedException.class, () -> {
+        CloseableJournalTracker.recover(file, entry -> {
+          if ("a".equals(entry.name())) {
+            throw new IOException("a");
+          }
+        });
+      });
+    assertEquals(1, ex.getSuppressed().length);
+    assertTrue(Files.exists(file));
+
+    assertEquals(
+      List.of("b", "a"),
+      names(CloseableJournalTracker.recover(file, entry -> { }))
+    );
+  }
+
+  /**
+   * The journal is compacted when it fills up, and grows when the live
+   * registrations need more room.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompactionAndGrowth(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker =
+      CloseableJournalTracker.create(
+        file,
+        256,
+        ClosingResourceFailedException::new,
+        CloseableMonitors.none()
+      );
+
+    for (int index = 0; index < 10_000; ++index) {
+      final var name = "transient-" + index;
+      final AutoCloseable r = () -> name.length();
+      tracker.add("file", name, r);
+      assertTrue(tracker.remove(r));
+    }
+    assertEquals(256L, Files.size(file));
+
+    final var expected = new ArrayList<String>();
+    for (int index = 0; index < 100; ++index) {
+      final var name = "live-" + index;
+      tracker.add("file", name, () -> name.length());
+      expected.add(0, name);
+    }
+    assertTrue(Files.size(file) > 256L);
+
+    tracker.compact();
+    assertEquals(expected, names(tracker.snapshot()));
+    assertEquals(
+      expected,
+      names(CloseableJournalTracker.recover(file, entry -> { }))
+    );
+  }
+
+  /**
+   * A torn final record is ignored.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTornRecord(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker = CloseableJournalTracker.create(file);
+    tracker.add("file", "a", () -> { });
+    tracker.add("file", "b", () -> { });
+
+    final var bytes = Files.readAllBytes(file);
+    final var data = ByteBuffer.wrap(bytes);
+    final int first = 8 + 4 + data.getInt(8);
+    data.putInt(first, 1_000_000);
+    final var copy = directory.resolve("copy");
+    Files.write(copy, bytes);
+
+    assertEquals(
+      List.of("a"),
+      names(CloseableJournalTracker.recover(copy, entry -> { }))
+    );
+  }
+
+  /**
+   * Files that are not journals are rejected.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotJournal(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    Files.writeString(file, "Not a journal at all.");
+    assertThrows(IOException.class, () -> {
+      CloseableJournalTracker.recover(file, entry -> { });
+    });
+  }
+
+  /**
+   * Invalid additions are rejected.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidAdds(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("journal");
+    final var tracker = CloseableJournalTracker.create(file);
+    final AutoCloseable r = () -> { };
+    tracker.add("file", "a", r);
+    assertThrows(IllegalArgumentException.class, () -> {
+      tracker.add("file", "a", r);
+    });
+    tracker.close();
+    assertThrows(IllegalStateException.class, () -> {
+      tracker.add("file", "b", () -> { });
+    });
+    assertFalse(tracker.remove(r));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableLazy;
+import com.io7m.jmulticlose.core.CloseableLazyType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableLazy}.
+ */
+
+public final class CloseableLazyTest
+{
+  /**
+   * A resource that is never used is never created or closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNeverUsed()
+    throws Exception
+  {
+    final var creates = new AtomicInteger();
+    final CloseableLazyType<Resource> lazy;
+    try (var c = CloseableCollection.create()) {
+      lazy = c.addLazy(() -> {
+        creates.incrementAndGet();
+        return new Resource();
+      });
+      Assertions.assertFalse(lazy.isCreated());
+    }
+    assertEquals(0, creates.get());
+    Assertions.assertThrows(IllegalStateException.class, lazy::get);
+  }
+
+  /**
+   * A resource that is used is created once, and closed with the
+   * collection.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUsed()
+    throws Exception
+  {
+    final var creates = new AtomicInteger();
+    final CloseableLazyType<Resource> lazy;
+    final Resource resource;
+    try (var c = CloseableCollection.create()) {
+      lazy = c.addLazy(() -> {
+        creates.incrementAndGet();
+        return new Resource();
+      });
+      resource = lazy.get();
+      Assertions.assertSame(resource, lazy.get());
+      Assertions.assertTrue(lazy.isCreated());
+    }
+    assertEquals(1, creates.get());
+    assertEquals(1, resource.closes.get());
+    Assertions.assertFalse(lazy.isCreated());
+    Assertions.assertThrows(IllegalStateException.class, lazy::get);
+  }
+
+  /**
+   * A failure to create the resource is propagated, and creation is
+   * retried.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCreateFailure()
+    throws Exception
+  {
+    final var creates = new AtomicInteger();
+    final var lazy = CloseableLazy.create(() -> {
+      if (creates.incrementAndGet() == 1) {
+        throw new IllegalArgumentException("Failed");
+      }
+      return new Resource();
+    });
+
+    Assertions.assertThrows(IllegalArgumentException.class, lazy::get);
+    Assertions.assertFalse(lazy.isCreated());
+    final var resource = lazy.get();
+    assertEquals(2, creates.get());
+
+    lazy.close();
+    lazy.close();
+    assertEquals(1, resource.closes.get());
+  }
+
+  /**
+   * Concurrent first uses create exactly one resource.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testConcurrentGet()
+    throws Exception
+  {
+    final var creates = new AtomicInteger();
+    final var lazy = CloseableLazy.create(() -> {
+      creates.incrementAndGet();
+      return new Resource();
+    });
+
+    final var start = new CountDownLatch(1);
+    final var executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int index = 0; index < 8; ++index) {
+        executor.execute(() -> {
+          try {
+            start.await();
+            lazy.get();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    assertEquals(1, creates.get());
+    final var resource = lazy.get();
+    lazy.close();
+    assertEquals(1, resource.closes.get());
+  }
+
+  private static final class Resource implements AutoCloseable
+  {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableOwningCollection;
+import com.io7m.jmulticlose.core.CloseableOwningCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableOwningCollection}.
+ */
+
+public final class CloseableOwningCollectionTest
+{
+  /**
+   * The owner is closed after every resource that uses it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOwnerClosedLast()
+    throws Exception
+  {
+    final var events = new ArrayList<String>();
+    final var allocator = new Allocator(events);
+
+    try (CloseableOwningCollectionType<Allocator, ClosingResourceFailedException> c =
+           CloseableOwningCollection.create(allocator)) {
+      Assertions.assertSame(allocator, c.owner());
+      c.add(c.owner().allocate("a"));
+      c.add(c.owner().allocate("b"));
+      assertEquals(3, c.size());
+      Assertions.assertSame(allocator, c.snapshot().get(2));
+    }
+
+    assertEquals(List.of("free b", "free a", "close allocator"), events);
+  }
+
+  /**
+   * A failing owner is reported like any other resource.
+   */
+
+  @Test
+  public void testOwnerFailure()
+  {
+    final var events = new ArrayList<String>();
+    final var allocator = new Allocator(events);
+    allocator.fail = true;
+
+    final var c = CloseableOwningCollection.create(allocator);
+    c.add(allocator.allocate("a"));
+
+    final var ex =
+      Assertions.assertThrows(ClosingResourceFailedException.class, c::close);
+    assertEquals(1, ex.getSuppressed().length);
+    assertEquals(List.of("free a", "close allocator"), events);
+  }
+
+  private static final class Allocator implements AutoCloseable
+  {
+    private final List<String> events;
+    private boolean closed;
+    private boolean fail;
+
+    Allocator(final List<String> in_events)
+    {
+      this.events = in_events;
+    }
+
+    Allocation allocate(final String name)
+    {
+      return new Allocation(this, name);
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      this.closed = true;
+      this.events.add("close allocator");
+      if (this.fail) {
+        throw new IOException("Failed");
+      }
+    }
+  }
+
+  private static final class Allocation implements AutoCloseable
+  {
+    private final Allocator allocator;
+    private final String name;
+
+    Allocation(
+      final Allocator in_allocator,
+      final String in_name)
+    {
+      this.allocator = in_allocator;
+      this.name = in_name;
+    }
+
+    @Override
+    public void close()
+    {
+      if (this.allocator.closed) {
+        throw new IllegalStateException("Use after free: " + this.name);
+      }
+      this.allocator.events.add("free " + this.name);
+    }
+  }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableLateAddPolicy;
+import com.io7m.jmulticlose.core.CloseablePacer;
+import com.io7m.jmulticlose.core.CloseableRate;
+import com.io7m.jmulticlose.core.CloseableTracker;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CloseablePacer}.
+ */
+
+public final class CloseablePacerTest
+{
+  private static final class Slow implements Closeable
+  {
+    Slow()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+
+    }
+  }
+
+  private static final class Fast implements Closeable
+  {
+    Fast()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+
+    }
+  }
+
+  /**
+   * Closes are spread out according to the overall rate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOverallRate()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        CloseableRate.perSecond(100.0),
+        Duration.ofSeconds(10L)
+      );
+
+    final long start = System.nanoTime();
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 21; ++index) {
+        c.add(new Slow());
+      }
+    }
+    final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    assertTrue(
+      elapsed.compareTo(Duration.ofMillis(180L)) >= 0,
+      elapsed::toString
+    );
+    assertTrue(pacer.delayed().compareTo(Duration.ofMillis(180L)) >= 0);
+  }
+
+  /**
+   * Bursts are permitted up to the capacity of the bucket.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBurst()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        new CloseableRate(1.0, 50),
+        Duration.ofSeconds(10L)
+      );
+
+    try (var t = CloseableTracker.create(
+      ClosingResourceFailedException::new,
+      pacer)) {
+      for (int index = 0; index < 40; ++index) {
+        t.addAuto(new Slow());
+      }
+    }
+
+    assertTrue(
+      pacer.delayed().compareTo(Duration.ofMillis(100L)) < 0,
+      () -> pacer.delayed().toString()
+    );
+  }
+
+  /**
+   * Per-class rates apply only to resources of the configured types.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPerClass()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        CloseableRate.unlimited(),
+        Map.of(Slow.class, CloseableRate.perSecond(50.0)),
+        Duration.ofSeconds(10L)
+      );
+
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 1000; ++index) {
+        c.add(new Fast());
+      }
+    }
+    assertTrue(pacer.delayed().compareTo(Duration.ofMillis(100L)) < 0);
+
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 11; ++index) {
+        c.add(new Slow());
+        c.add(new Fast());
+      }
+    }
+    assertTrue(pacer.delayed().compareTo(Duration.ofMillis(180L)) >= 0);
+  }
+
+  /**
+   * Pacing stops at the deadline.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDeadline()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        CloseableRate.perSecond(1.0),
+        Duration.ofMillis(200L)
+      );
+
+    final long start = System.nanoTime();
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 100; ++index) {
+        c.add(new Slow());
+      }
+    }
+    final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    assertTrue(
+      elapsed.compareTo(Duration.ofMillis(150L)) >= 0,
+      elapsed::toString
+    );
+    assertTrue(
+      elapsed.compareTo(Duration.ofSeconds(2L)) < 0,
+      elapsed::toString
+    );
+  }
+
+  /**
+   * A close long before shutdown does not consume the deadline of the
+   * shutdown once the shutdown is started.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEarlyCloseThenStart()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        CloseableRate.perSecond(100.0),
+        Duration.ofMillis(100L)
+      );
+
+    final var early =
+      CloseableCollection.create(
+        ClosingResourceFailedException::new,
+        pacer,
+        CloseableLateAddPolicy.CLOSE_IMMEDIATELY
+      );
+    early.close();
+    early.add(new Slow());
+    Thread.sleep(150L);
+
+    pacer.start();
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 6; ++index) {
+        c.add(new Slow());
+      }
+    }
+    assertTrue(
+      pacer.delayed().compareTo(Duration.ofMillis(40L)) >= 0,
+      () -> pacer.delayed().toString()
+    );
+  }
+
+  /**
+   * Interrupted threads are not paced.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInterrupted()
+    throws Exception
+  {
+    final var pacer =
+      CloseablePacer.create(
+        CloseableRate.perSecond(1.0),
+        Duration.ofSeconds(60L)
+      );
+
+    Thread.currentThread().interrupt();
+    try (var c = CloseableCollection.create(
+      ClosingResourceFailedException::new,
+      pacer,
+      CloseableLateAddPolicy.REJECT)) {
+      for (int index = 0; index < 10; ++index) {
+        c.add(new Slow());
+      }
+    } finally {
+      assertTrue(Thread.interrupted());
+    }
+    assertEquals(Duration.ZERO, pacer.delayed());
+  }
+
+  /**
+   * Invalid rates are rejected.
+   */
+
+  @Test
+  public void testInvalidRates()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      CloseableRate.perSecond(0.0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      CloseableRate.perSecond(Double.NaN);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new CloseableRate(1.0, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      CloseableRate.perSecond(1.0e-10);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new CloseableRate(0.1, Integer.MAX_VALUE);
+    });
+    new CloseableRate(0.1, 100_000_000);
+  }
+}
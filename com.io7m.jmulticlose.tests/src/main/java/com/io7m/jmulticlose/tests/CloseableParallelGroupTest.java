@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableParallelGroup;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableParallelGroup}.
+ */
+
+public final class CloseableParallelGroupTest
+{
+  /**
+   * Resources in a group are closed concurrently.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var barrier = new CyclicBarrier(4);
+    final var closed = new ConcurrentLinkedQueue<Integer>();
+    final var group = CloseableParallelGroup.create(Thread::new, 4);
+    assertEquals(4, group.parallelism());
+
+    for (int index = 0; index < 4; ++index) {
+      final int x = index;
+      group.add(() -> {
+        barrier.await(5L, TimeUnit.SECONDS);
+        closed.add(Integer.valueOf(x));
+      });
+    }
+
+    group.close();
+    assertEquals(4, closed.size());
+    assertEquals(0, group.size());
+  }
+
+  /**
+   * Failures are aggregated, and every resource is still closed.
+   */
+
+  @Test
+  public void testFailures()
+  {
+    final var closed = new ConcurrentLinkedQueue<Integer>();
+    final var group = CloseableParallelGroup.create(Thread::new, 3);
+
+    for (int index = 0; index < 10; ++index) {
+      final int x = index;
+      group.add(() -> {
+        closed.add(Integer.valueOf(x));
+        if (x % 2 == 0) {
+          throw new IOException("Failed " + x);
+        }
+      });
+    }
+
+    final var ex =
+      Assertions.assertThrows(ClosingResourceFailedException.class, group::close);
+    assertEquals(5, ex.getSuppressed().length);
+    assertEquals(10, closed.size());
+  }
+
+  /**
+   * Resources are closed on the closing thread if the thread factory
+   * declines to create threads.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testThreadFactoryNull()
+    throws Exception
+  {
+    final var closed = new ConcurrentLinkedQueue<Thread>();
+    final var group = CloseableParallelGroup.create(r -> null, 4);
+    for (int index = 0; index < 10; ++index) {
+      group.add(() -> closed.add(Thread.currentThread()));
+    }
+
+    group.close();
+    assertEquals(10, closed.size());
+    for (final var thread : closed) {
+      assertEquals(Thread.currentThread(), thread);
+    }
+  }
+
+  /**
+   * Resources are closed even if worker threads cannot be started.
+   */
+
+  @Test
+  public void testThreadFactoryFails()
+  {
+    final var closed = new ConcurrentLinkedQueue<Integer>();
+    final var group = CloseableParallelGroup.create(r -> {
+      throw new OutOfMemoryError("unable to create native thread");
+    }, 4);
+    for (int index = 0; index < 10; ++index) {
+      final int x = index;
+      group.add(() -> closed.add(Integer.valueOf(x)));
+    }
+
+    Assertions.assertThrows(OutOfMemoryError.class, group::close);
+    assertEquals(10, closed.size());
+    assertEquals(0, group.size());
+  }
+
+  /**
+   * A group is closed at its position within an enclosing collection.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNested()
+    throws Exception
+  {
+    final var events = new ConcurrentLinkedQueue<String>();
+    try (var c = CloseableCollection.create()) {
+      c.add(() -> events.add("first"));
+      final var group = c.add(CloseableParallelGroup.create(Thread::new, 2));
+      group.add(() -> events.add("group"));
+      group.add(() -> events.add("group"));
+      c.add(() -> events.add("last"));
+    }
+    assertEquals(List.of("last", "group", "group", "first"), List.copyOf(events));
+  }
+
+  /**
+   * Resources that have historically been slow to close are started first.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLongestFirst()
+    throws Exception
+  {
+    final var training = CloseableParallelGroup.create(Thread::new, 1);
+    training.add(new SlowResource(new ConcurrentLinkedQueue<>()));
+    training.add(new FastResource(new ConcurrentLinkedQueue<>()));
+    training.close();
+
+    final var order = new ConcurrentLinkedQueue<String>();
+    final var group = CloseableParallelGroup.create(Thread::new, 1);
+    group.add(new SlowResource(order));
+    group.add(new FastResource(order));
+    group.add(new FastResource(order));
+    group.close();
+
+    assertEquals(List.of("slow", "fast", "fast"), List.copyOf(order));
+  }
+
+  /**
+   * Closing a group with many resources and little parallelism works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMany()
+    throws Exception
+  {
+    final var closed = new ConcurrentLinkedQueue<Integer>();
+    final var group = CloseableParallelGroup.create(Thread::new, 8);
+    for (int index = 0; index < 1000; ++index) {
+      final int x = index;
+      group.add(() -> closed.add(Integer.valueOf(x)));
+    }
+    group.close();
+    group.close();
+    assertEquals(1000, closed.size());
+  }
+
+  private static final class SlowResource implements AutoCloseable
+  {
+    private final ConcurrentLinkedQueue<String> order;
+
+    SlowResource(final ConcurrentLinkedQueue<String> in_order)
+    {
+      this.order = in_order;
+    }
+
+    @Override
+    public void close()
+      throws InterruptedException
+    {
+      this.order.add("slow");
+      Thread.sleep(20L);
+    }
+  }
+
+  private static final class FastResource implements AutoCloseable
+  {
+    private final ConcurrentLinkedQueue<String> order;
+
+    FastResource(final ConcurrentLinkedQueue<String> in_order)
+    {
+      this.order = in_order;
+    }
+
+    @Override
+    public void close()
+    {
+      this.order.add("fast");
+    }
+  }
+}
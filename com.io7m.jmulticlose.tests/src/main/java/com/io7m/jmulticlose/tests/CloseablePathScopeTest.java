@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseablePathScope;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CloseablePathScope}.
+ */
+
+public final class CloseablePathScopeTest
+{
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.pool = new ForkJoinPool(8);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.pool.shutdown();
+  }
+
+  private static void populate(
+    final Path directory,
+    final int depth)
+    throws Exception
+  {
+    for (int index = 0; index < 5; ++index) {
+      Files.writeString(directory.resolve("file" + index), "x");
+    }
+    if (depth > 0) {
+      for (int index = 0; index < 3; ++index) {
+        final var child = directory.resolve("dir" + index);
+        Files.createDirectory(child);
+        populate(child, depth - 1);
+      }
+    }
+  }
+
+  /**
+   * Files and trees are deleted.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDelete(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var scope =
+      CloseablePathScope.create(
+        directory,
+        this.pool,
+        ClosingResourceFailedException::new
+      );
+
+    final var files = new ArrayList<Path>();
+    for (int index = 0; index < 500; ++index) {
+      files.add(scope.createTempFile("tmp", ".txt"));
+    }
+    final var tree = scope.createTempDirectory("tree");
+    populate(tree, 4);
+    final var loose = Files.createDirectory(directory.resolve("loose"));
+    scope.addFile(loose);
+
+    assertEquals(502, scope.size());
+    assertEquals(files, scope.snapshot().subList(0, 500));
+
+    scope.close();
+
+    for (final var file : files) {
+      assertFalse(Files.exists(file));
+    }
+    assertFalse(Files.exists(tree));
+    assertFalse(Files.exists(loose));
+    try (var stream = Files.list(directory)) {
+      assertEquals(List.of(), stream.toList());
+    }
+  }
+
+  /**
+   * Overlapping and missing paths are tolerated.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOverlapping(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var scope =
+      CloseablePathScope.create(
+        directory,
+        this.pool,
+        ClosingResourceFailedException::new
+      );
+
+    final var tree = scope.createTempDirectory("tree");
+    populate(tree, 2);
+    scope.addTree(tree.resolve("dir0"));
+    scope.addFile(tree.resolve("file0"));
+    scope.addFile(directory.resolve("nonexistent"));
+    scope.addTree(directory.resolve("nonexistent-tree"));
+    scope.close();
+
+    assertFalse(Files.exists(tree));
+  }
+
+  /**
+   * Symbolic links within trees are deleted but not followed.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSymlinksNotFollowed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var outside = Files.createDirectory(directory.resolve("outside"));
+    final var kept = Files.writeString(outside.resolve("kept"), "x");
+
+    final var scope =
+      CloseablePathScope.create(
+        directory,
+        this.pool,
+        ClosingResourceFailedException::new
+      );
+    final var tree = scope.createTempDirectory("tree");
+    Files.createSymbolicLink(tree.resolve("link"), outside);
+    scope.close();
+
+    assertFalse(Files.exists(tree));
+    assertTrue(Files.exists(kept));
+  }
+
+  /**
+   * Failures are aggregated, and do not prevent other deletions.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailure(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var scope =
+      CloseablePathScope.create(
+        directory,
+        this.pool,
+        ClosingResourceFailedException::new
+      );
+
+    final var full = Files.createDirectory(directory.resolve("full"));
+    Files.writeString(full.resolve("file"), "x");
+    scope.addFile(full);
+    final var file = scope.createTempFile("tmp", ".txt");
+
+    final var ex =
+      assertThrows(ClosingResourceFailedException.class, scope::close);
+    assertEquals(1, ex.getSuppressed().length);
+    assertInstanceOf(DirectoryNotEmptyException.class, ex.getSuppressed()[0]);
+    assertFalse(Files.exists(file));
+    assertTrue(Files.exists(full));
+  }
+
+  /**
+   * Closed scopes reject new paths.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var scope = CloseablePathScope.create(directory);
+    scope.close();
+    scope.close();
+
+    assertThrows(IllegalStateException.class, () -> {
+      scope.addFile(directory.resolve("x"));
+    });
+    assertThrows(IllegalStateException.class, () -> {
+      scope.createTempFile("tmp", ".txt");
+    });
+    try (var stream = Files.list(directory)) {
+      assertEquals(List.of(), stream.toList());
+    }
+  }
+
+  /**
+   * Scopes added to collections are deleted when the collection is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInCollection()
+    throws Exception
+  {
+    final Path file;
+    try (var collection = CloseableCollection.create()) {
+      final var scope = collection.addPathScope();
+      file = scope.createTempFile("jmulticlose", ".tmp");
+      assertTrue(Files.exists(file));
+    }
+    assertFalse(Files.exists(file));
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseablePool;
+import com.io7m.jmulticlose.core.CloseableTracker;
+import com.io7m.jmulticlose.core.CloseableType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CloseablePool}.
+ */
+
+public final class CloseablePoolTest
+{
+  private final AtomicInteger created = new AtomicInteger();
+
+  private Resource open(
+    final String key)
+  {
+    this.created.incrementAndGet();
+    return new Resource(key);
+  }
+
+  /**
+   * Returned resources are reused for the same key.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReuse()
+    throws Exception
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(this::open, 4, Duration.ofMinutes(1L));
+
+    final Resource r0;
+    try (var lease = pool.acquire("a")) {
+      r0 = lease.get();
+      assertEquals(1, pool.leasedCount());
+    }
+    assertFalse(r0.isClosed());
+    assertEquals(1, pool.idleCount());
+    assertEquals(0, pool.leasedCount());
+
+    try (var lease = pool.acquire("a")) {
+      assertSame(r0, lease.get());
+    }
+    try (var lease = pool.acquire("b")) {
+      assertNotSame(r0, lease.get());
+    }
+    assertEquals(2, this.created.get());
+
+    pool.close();
+    assertTrue(r0.isClosed());
+    assertTrue(pool.isClosed());
+    assertEquals(0, pool.idleCount());
+  }
+
+  /**
+   * Closing a scope returns leases to the pool, and closing the tracker
+   * that owns the pool closes everything.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTrackerIntegration()
+    throws Exception
+  {
+    final Resource r0;
+    try (var tracker = CloseableTracker.create()) {
+      final var pool =
+        tracker.<String, Resource>addPool(this::open, 4, Duration.ofMinutes(1L));
+
+      try (var scope = CloseableTracker.create()) {
+        r0 = scope.add(pool.acquire("a")).get();
+      }
+      assertFalse(r0.isClosed());
+      assertEquals(1, pool.idleCount());
+
+      try (var scope = CloseableTracker.create()) {
+        assertSame(r0, scope.add(pool.acquire("a")).get());
+      }
+      assertEquals(1, this.created.get());
+    }
+    assertTrue(r0.isClosed());
+  }
+
+  /**
+   * Leases added to the owning tracker are returned before the pool closes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTrackerOrder()
+    throws Exception
+  {
+    final var resources = new ArrayList<Resource>();
+    try (var tracker = CloseableTracker.create()) {
+      final var pool =
+        tracker.<String, Resource>addPool(this::open, 0, Duration.ZERO);
+      for (int index = 0; index < 3; ++index) {
+        resources.add(tracker.add(pool.acquire("a")).get());
+      }
+    }
+    for (final var r : resources) {
+      assertEquals(1, r.closes.get());
+    }
+  }
+
+  /**
+   * Excess idle resources are closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExcess()
+    throws Exception
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(this::open, 2, Duration.ofMinutes(1L));
+
+    final var leases = List.of(
+      pool.acquire("a"),
+      pool.acquire("a"),
+      pool.acquire("a"),
+      pool.acquire("a")
+    );
+    assertEquals(4, pool.leasedCount());
+    final var resources = new ArrayList<Resource>();
+    for (final var lease : leases) {
+      resources.add(lease.get());
+      lease.close();
+    }
+
+    assertEquals(2, pool.idleCount());
+    final long closedCount =
+      resources.stream()
+        .filter(Resource::isClosed)
+        .count();
+    assertEquals(2L, closedCount);
+  }
+
+  /**
+   * Resources that have been idle for too long are closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIdleExpiry()
+    throws Exception
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(this::open, 4, Duration.ofMillis(10L));
+
+    final Resource r0;
+    try (var lease = pool.acquire("a")) {
+      r0 = lease.get();
+    }
+    Thread.sleep(50L);
+    assertEquals(1, pool.evictIdle());
+    assertTrue(r0.isClosed());
+    assertEquals(0, pool.idleCount());
+    assertEquals(0, pool.evictIdle());
+  }
+
+  /**
+   * Resources closed elsewhere, and invalidated resources, are not reused.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotReused()
+    throws Exception
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(this::open, 4, Duration.ofMinutes(1L));
+
+    final var l0 = pool.acquire("a");
+    final var r0 = l0.get();
+    l0.close();
+    r0.close();
+    try (var lease = pool.acquire("a")) {
+      assertNotSame(r0, lease.get());
+    }
+
+    final var l1 = pool.acquire("a");
+    final var r1 = l1.get();
+    l1.invalidate();
+    l1.close();
+    assertTrue(r1.isClosed());
+    assertEquals(1, r1.closes.get());
+    assertEquals(0, pool.idleCount());
+    assertEquals(0, pool.leasedCount());
+    assertThrows(IllegalStateException.class, l1::get);
+  }
+
+  /**
+   * Closed pools reject acquisitions, and close resources as leases are
+   * released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosed()
+    throws Exception
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(this::open, 4, Duration.ofMinutes(1L));
+
+    final var lease = pool.acquire("a");
+    final var r0 = lease.get();
+    pool.close();
+    assertThrows(IllegalStateException.class, () -> pool.acquire("a"));
+    assertFalse(r0.isClosed());
+    lease.close();
+    assertEquals(1, r0.closes.get());
+  }
+
+  /**
+   * Failures closing idle resources are aggregated.
+   */
+
+  @Test
+  public void testCloseFailure()
+  {
+    final var pool =
+      CloseablePool.<String, Resource>create(
+        k -> new Crasher(k), 4, Duration.ofMinutes(1L));
+
+    assertThrows(ClosingResourceFailedException.class, () -> {
+      pool.acquire("a").close();
+      pool.acquire("b").close();
+      pool.close();
+    });
+  }
+
+  private static class Resource implements CloseableType
+  {
+    private final String key;
+    private final AtomicInteger closes;
+
+    Resource(
+      final String in_key)
+    {
+      this.key = in_key;
+      this.closes = new AtomicInteger();
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closes.get() > 0;
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      this.closes.incrementAndGet();
+    }
+
+    @Override
+    public String toString()
+    {
+      return "[Resource %s]".formatted(this.key);
+    }
+  }
+
+  private static final class Crasher extends Resource
+  {
+    Crasher(
+      final String in_key)
+    {
+      super(in_key);
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      super.close();
+      throw new IOException("Crashed");
+    }
+  }
+}
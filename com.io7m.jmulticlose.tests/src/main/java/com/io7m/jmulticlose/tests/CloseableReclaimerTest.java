@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableMemoryPressure;
+import com.io7m.jmulticlose.core.CloseableReclaimableType;
+import com.io7m.jmulticlose.core.CloseableReclaimer;
+import com.io7m.jmulticlose.core.CloseableTracker;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CloseableReclaimer} and {@link CloseableMemoryPressure}.
+ */
+
+public final class CloseableReclaimerTest
+{
+  private final List<String> closed = new ArrayList<>();
+
+  private AutoCloseable resource(
+    final String name)
+  {
+    return () -> this.closed.add(name);
+  }
+
+  /**
+   * Resources are reclaimed least recently used first.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeastRecentlyUsed()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var a = reclaimer.register(this.resource("a"));
+    Thread.sleep(2L);
+    final var b = reclaimer.register(this.resource("b"));
+    Thread.sleep(2L);
+    final var c = reclaimer.register(this.resource("c"));
+    Thread.sleep(2L);
+    a.get();
+
+    assertEquals(3, reclaimer.size());
+    assertEquals(2, reclaimer.reclaim(2));
+    assertEquals(List.of("b", "c"), this.closed);
+    assertTrue(b.isReclaimed());
+    assertTrue(c.isClosed());
+    assertFalse(a.isClosed());
+    assertEquals(1, reclaimer.size());
+    assertThrows(IllegalStateException.class, b::get);
+
+    assertEquals(1, reclaimer.reclaim(10));
+    assertEquals(0, reclaimer.reclaim(10));
+    assertEquals(List.of("b", "c", "a"), this.closed);
+  }
+
+  /**
+   * Acquired resources are not reclaimed until they are released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAcquire()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var a = reclaimer.register(this.resource("a"));
+
+    final var r0 = a.acquire();
+    final var r1 = a.acquire();
+    assertEquals(0, reclaimer.reclaim(1));
+    assertFalse(a.isClosed());
+
+    r0.close();
+    r0.close();
+    assertThrows(IllegalStateException.class, r0::get);
+    assertEquals(0, reclaimer.reclaim(1));
+
+    r1.close();
+    assertEquals(1, reclaimer.reclaim(1));
+    assertEquals(List.of("a"), this.closed);
+    assertThrows(IllegalStateException.class, a::acquire);
+  }
+
+  /**
+   * Closing a handle whilst its resource is acquired defers closing the
+   * resource until the last acquisition is released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseAcquired()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var a = reclaimer.register(this.resource("a"));
+
+    final var r0 = a.acquire();
+    final var r1 = a.acquire();
+    a.close();
+    assertTrue(a.isClosed());
+    assertFalse(a.isReclaimed());
+    assertEquals(0, reclaimer.size());
+    assertThrows(IllegalStateException.class, a::acquire);
+    assertEquals(List.of(), this.closed);
+
+    r0.close();
+    assertEquals(List.of(), this.closed);
+    r1.close();
+    assertEquals(List.of("a"), this.closed);
+    a.close();
+    assertEquals(List.of("a"), this.closed);
+  }
+
+  /**
+   * Trackers close unreclaimed resources, and discard reclaimed ones.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTracker()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    try (var tracker = CloseableTracker.create()) {
+      final var a = tracker.addReclaimable(reclaimer, this.resource("a"));
+      tracker.addReclaimable(reclaimer, this.resource("b"));
+      a.touch();
+      assertEquals(1, reclaimer.reclaim(1));
+      assertEquals(List.of("b"), this.closed);
+
+      tracker.addAuto(this.resource("c"));
+      assertEquals(2, tracker.size());
+    }
+    assertEquals(List.of("b", "c", "a"), this.closed);
+    assertEquals(0, reclaimer.size());
+  }
+
+  /**
+   * Reclaiming while resources are being used concurrently never fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReclaimConcurrentUse()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var handles = new ArrayList<CloseableReclaimableType<AutoCloseable>>();
+    for (int index = 0; index < 2000; ++index) {
+      handles.add(reclaimer.register(() -> { }));
+    }
+
+    final var running = new AtomicBoolean(true);
+    final var toucher = new Thread(() -> {
+      final var random = new Random(0L);
+      while (running.get()) {
+        handles.get(random.nextInt(handles.size())).touch();
+      }
+    });
+    toucher.start();
+
+    try {
+      int remaining = handles.size();
+      while (remaining > 0) {
+        remaining -= reclaimer.reclaim(10);
+      }
+    } finally {
+      running.set(false);
+      toucher.join();
+    }
+    assertEquals(0, reclaimer.size());
+  }
+
+  /**
+   * Failures closing reclaimed resources are not raised.
+   */
+
+  @Test
+  public void testReclaimFailure()
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var handle = reclaimer.register(() -> {
+      throw new IOException("Crashed");
+    });
+    assertEquals(1, reclaimer.reclaim(1));
+    assertTrue(handle.isReclaimed());
+  }
+
+  /**
+   * Checks reclaim a fraction of resources under pressure, and nothing
+   * otherwise.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPressureCheck()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    for (int index = 0; index < 10; ++index) {
+      reclaimer.register(this.resource(Integer.toString(index)));
+    }
+
+    try (var pressure =
+           CloseableMemoryPressure.create(reclaimer, 1.0, 0L, 0.5)) {
+      assertFalse(pressure.isUnderPressure());
+      assertEquals(0, pressure.check());
+    }
+
+    try (var pressure =
+           CloseableMemoryPressure.create(reclaimer, 0.0, 0L, 0.5)) {
+      assertTrue(pressure.isUnderPressure());
+
+      /*
+       * Collections may also trigger checks concurrently, so only the
+       * totals are deterministic.
+       */
+
+      int reclaimed = 0;
+      while (reclaimer.size() > 0) {
+        reclaimed += pressure.check();
+      }
+      assertTrue(reclaimed <= 10);
+      assertEquals(0, pressure.check());
+      assertTrue(pressure.pressureEvents() > 0L);
+    }
+    assertEquals(10, this.closed.size());
+  }
+
+  /**
+   * Garbage collections trigger reclaiming under pressure.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGarbageCollectionNotification()
+    throws Exception
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    final var count = new AtomicInteger();
+    for (int index = 0; index < 10; ++index) {
+      reclaimer.register(count::incrementAndGet);
+    }
+
+    try (var pressure =
+           CloseableMemoryPressure.create(reclaimer, 0.0, 0L, 1.0)) {
+      for (int attempt = 0; attempt < 100 && reclaimer.size() > 0; ++attempt) {
+        System.gc();
+        Thread.sleep(50L);
+      }
+      assertTrue(pressure.pressureEvents() > 0L);
+    }
+    assertEquals(0, reclaimer.size());
+    assertEquals(10, count.get());
+  }
+
+  /**
+   * Invalid thresholds are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    final var reclaimer = CloseableReclaimer.create();
+    assertThrows(IllegalArgumentException.class, () -> {
+      CloseableMemoryPressure.create(reclaimer, 1.5, 0L, 0.5);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      CloseableMemoryPressure.create(reclaimer, 0.5, 0L, -0.5);
+    });
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.CloseableShared;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableShared}.
+ */
+
+public final class CloseableSharedTest
+{
+  /**
+   * A shared resource is closed when the last collection is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedAcrossCollections()
+    throws Exception
+  {
+    final var resource = new Resource();
+    final var shared = CloseableShared.create(resource);
+
+    final CloseableCollectionType<ClosingResourceFailedException> c0 =
+      CloseableCollection.create();
+    final CloseableCollectionType<ClosingResourceFailedException> c1 =
+      CloseableCollection.create();
+
+    Assertions.assertSame(resource, c0.addShared(shared));
+    Assertions.assertSame(resource, c1.addShared(shared));
+    assertEquals(3, shared.references());
+
+    shared.close();
+    shared.close();
+    assertEquals(2, shared.references());
+    assertEquals(0, resource.closes.get());
+
+    c0.close();
+    assertEquals(0, resource.closes.get());
+    Assertions.assertFalse(shared.isClosed());
+
+    c1.close();
+    assertEquals(1, resource.closes.get());
+    Assertions.assertTrue(shared.isClosed());
+    assertEquals(0, shared.references());
+  }
+
+  /**
+   * References cannot be acquired after the resource is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAcquireClosed()
+    throws Exception
+  {
+    final var resource = new Resource();
+    final var shared = CloseableShared.create(resource);
+    shared.close();
+
+    assertEquals(1, resource.closes.get());
+    Assertions.assertThrows(IllegalStateException.class, shared::acquire);
+  }
+
+  /**
+   * Released references cannot be used, and releasing twice has no effect.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReferenceReleased()
+    throws Exception
+  {
+    final var resource = new Resource();
+    final var shared = CloseableShared.create(resource);
+    final var reference = shared.acquire();
+
+    Assertions.assertSame(resource, reference.get());
+    Assertions.assertFalse(reference.isClosed());
+    reference.close();
+    reference.close();
+    Assertions.assertTrue(reference.isClosed());
+    Assertions.assertThrows(IllegalStateException.class, reference::get);
+    assertEquals(1, shared.references());
+    assertEquals(0, resource.closes.get());
+  }
+
+  /**
+   * Adding to a closed collection releases the acquired reference.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAddSharedClosedCollection()
+    throws Exception
+  {
+    final var resource = new Resource();
+    final var shared = CloseableShared.create(resource);
+    final var c = CloseableCollection.create();
+    c.close();
+
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      c.addShared(shared);
+    });
+    assertEquals(1, shared.references());
+  }
+
+  /**
+   * Failures closing the shared resource are reported by the last holder.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final var shared = CloseableShared.create(new ResourceCrasher());
+    final var ex =
+      Assertions.assertThrows(ClosingResourceFailedException.class, () -> {
+        try (var c = CloseableCollection.create()) {
+          c.addShared(shared);
+          shared.close();
+        }
+      });
+
+    assertEquals(1, ex.getSuppressed().length);
+    Assertions.assertTrue(shared.isClosed());
+  }
+
+  /**
+   * Concurrent acquisition and release closes the resource exactly once.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testThreadSafety()
+    throws Exception
+  {
+    final var resource = new Resource();
+    final var shared = CloseableShared.create(resource);
+
+    final var executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int index = 0; index < 1000; ++index) {
+        executor.execute(() -> {
+          try (var c = CloseableCollection.create()) {
+            c.addShared(shared);
+          } catch (final Exception e) {
+            throw new IllegalStateException(e);
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    assertEquals(1, shared.references());
+    assertEquals(0, resource.closes.get());
+    shared.close();
+    assertEquals(1, resource.closes.get());
+  }
+
+  private static final class Resource implements Closeable
+  {
+    private final AtomicInteger closes;
+
+    Resource()
+    {
+      this.closes = new AtomicInteger();
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+
+  private static final class ResourceCrasher implements Closeable
+  {
+    ResourceCrasher()
+    {
+
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      throw new IOException("Failed");
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableShutdownRegistry;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableShutdownRegistry}.
+ */
+
+public final class CloseableShutdownRegistryTest
+{
+  /**
+   * Resources are closed in parallel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParallel()
+    throws Exception
+  {
+    final var registry = CloseableShutdownRegistry.create();
+    final var barrier = new CountDownLatch(4);
+    final var resources = new ArrayList<Resource>();
+    for (int index = 0; index < 4; ++index) {
+      resources.add(registry.addAuto(new Resource(barrier)));
+    }
+    assertEquals(4, registry.size());
+
+    /*
+     * Each resource waits for all the others to begin closing, so closing
+     * can only complete if the resources are closed in parallel.
+     */
+
+    registry.close();
+    assertEquals(0, registry.size());
+    for (final var resource : resources) {
+      Assertions.assertTrue(resource.closed);
+    }
+  }
+
+  /**
+   * Resources that do not close within the deadline are reported.
+   */
+
+  @Test
+  public void testDeadline()
+  {
+    final var registry = CloseableShutdownRegistry.create();
+    registry.setDeadline(Duration.ofMillis(100L));
+    assertEquals(Duration.ofMillis(100L), registry.deadline());
+
+    final var hung = new Resource(new CountDownLatch(2));
+    registry.addAuto(hung);
+    registry.addAuto(new Resource(new CountDownLatch(1)));
+
+    final var ex =
+      Assertions.assertThrows(
+        ClosingResourceFailedException.class,
+        registry::close);
+
+    assertEquals(1, ex.getSuppressed().length);
+    Assertions.assertInstanceOf(TimeoutException.class, ex.getSuppressed()[0]);
+    Assertions.assertFalse(hung.closed);
+  }
+
+  /**
+   * Failures are aggregated.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final var registry = CloseableShutdownRegistry.create(Duration.ofSeconds(5L));
+    registry.addAuto(new ResourceCrasher());
+    registry.addAuto(new ResourceCrasher());
+
+    final var ex =
+      Assertions.assertThrows(
+        ClosingResourceFailedException.class,
+        registry::close);
+
+    assertEquals(2, ex.getSuppressed().length);
+  }
+
+  /**
+   * There is exactly one global registry.
+   */
+
+  @Test
+  public void testGlobal()
+  {
+    Assertions.assertSame(
+      CloseableShutdownRegistry.global(),
+      CloseableShutdownRegistry.global()
+    );
+  }
+
+  private static final class Resource implements Closeable
+  {
+    private final CountDownLatch barrier;
+    private volatile boolean closed;
+
+    Resource(
+      final CountDownLatch inBarrier)
+    {
+      this.barrier = inBarrier;
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      this.barrier.countDown();
+      try {
+        if (!this.barrier.await(10L, TimeUnit.SECONDS)) {
+          throw new IOException("Timed out");
+        }
+      } catch (final InterruptedException e) {
+        throw new IOException(e);
+      }
+      this.closed = true;
+    }
+  }
+
+  private static final class ResourceCrasher implements Closeable
+  {
+    ResourceCrasher()
+    {
+
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      throw new IOException("Failed");
+    }
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableMonitorType;
+import com.io7m.jmulticlose.core.CloseableMonitors;
+import com.io7m.jmulticlose.core.CloseableStatistics;
+import com.io7m.jmulticlose.core.CloseableTracker;
+import com.io7m.jmulticlose.core.CloseableType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableStatistics}.
+ */
+
+public final class CloseableStatisticsTest
+{
+  /**
+   * Collection statistics are accumulated.
+   */
+
+  @Test
+  public void testCollection()
+  {
+    final var stats = CloseableStatistics.create();
+    final var c = CloseableCollection.create(IOException::new, stats);
+
+    c.add(new Resource());
+    c.add(new Resource());
+    c.add(new ResourceCrasher());
+
+    assertEquals(3L, stats.getSize());
+    assertEquals(3L, stats.getHighWaterMark());
+    assertEquals(3L, stats.getAddCount());
+    assertEquals(
+      Map.of(
+        Resource.class.getName(), Long.valueOf(2L),
+        ResourceCrasher.class.getName(), Long.valueOf(1L)),
+      stats.getLiveByClass()
+    );
+
+    Assertions.assertThrows(IOException.class, c::close);
+
+    assertEquals(0L, stats.getSize());
+    assertEquals(3L, stats.getHighWaterMark());
+    assertEquals(3L, stats.getCloseCount());
+    assertEquals(1L, stats.getCloseFailureCount());
+    assertEquals(Map.of(), stats.getLiveByClass());
+    assertEquals(
+      Map.of(ResourceCrasher.class.getName(), Long.valueOf(1L)),
+      stats.getCloseFailuresByClass()
+    );
+    Assertions.assertTrue(
+      stats.getCloseLatencyP50Nanos() <= stats.getCloseLatencyP99Nanos());
+    Assertions.assertTrue(
+      stats.getCloseLatencyP99Nanos() <= stats.getCloseLatencyMaxNanos());
+  }
+
+  /**
+   * Tracker removals are counted, including resources closed elsewhere.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTracker()
+    throws Exception
+  {
+    final var stats = CloseableStatistics.create();
+    final var c = CloseableTracker.create(IOException::new, stats);
+
+    final var r0 = c.add(new TrackedResource());
+    final var r1 = c.add(new TrackedResource());
+    c.addAuto(new Resource());
+    assertEquals(3L, stats.getSize());
+
+    c.remove(r0);
+    r1.close();
+    c.addAuto(new Resource());
+
+    assertEquals(2L, stats.getSize());
+    assertEquals(2L, stats.getRemoveCount());
+    assertEquals(
+      Map.of(Resource.class.getName(), Long.valueOf(2L)),
+      stats.getLiveByClass()
+    );
+
+    c.close();
+    assertEquals(0L, stats.getSize());
+    assertEquals(2L, stats.getCloseCount());
+    Assertions.assertTrue(stats.getRemoveRate() > 0.0);
+    Assertions.assertTrue(stats.getAddRate() > 0.0);
+  }
+
+  /**
+   * Reading a rate does not reset it for other readers.
+   */
+
+  @Test
+  public void testRatesIndependentOfReaders()
+  {
+    final var stats = CloseableStatistics.create();
+    for (int index = 0; index < 100; ++index) {
+      stats.onAdd(new Resource());
+    }
+
+    final double first = stats.getAddRate();
+    final double second = stats.getAddRate();
+    Assertions.assertTrue(first > 0.0);
+    Assertions.assertTrue(second > 0.0);
+    Assertions.assertTrue(second <= first);
+  }
+
+  /**
+   * The size and high-water mark are consistent after concurrent use.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrentSize()
+    throws Exception
+  {
+    final var stats = CloseableStatistics.create();
+    final var threads = new ArrayList<Thread>();
+    for (int thread = 0; thread < 4; ++thread) {
+      threads.add(new Thread(() -> {
+        final var resource = new Resource();
+        for (int index = 0; index < 10_000; ++index) {
+          stats.onAdd(resource);
+          stats.onClosed(resource, 1L);
+        }
+      }));
+    }
+    for (final var thread : threads) {
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0L, stats.getSize());
+    assertEquals(40_000L, stats.getCloseCount());
+    Assertions.assertTrue(stats.getHighWaterMark() >= 1L);
+    Assertions.assertTrue(stats.getHighWaterMark() <= 4L);
+  }
+
+  /**
+   * The high-water mark is sampled during additions, so peaks are seen even
+   * if the mark is only read after they have passed.
+   */
+
+  @Test
+  public void testHighWaterSampled()
+  {
+    final var stats = CloseableStatistics.create();
+    final var resource = new Resource();
+    for (int index = 0; index < 1_000; ++index) {
+      stats.onAdd(resource);
+    }
+    for (int index = 0; index < 1_000; ++index) {
+      stats.onClosed(resource, 1L);
+    }
+
+    assertEquals(0L, stats.getSize());
+    Assertions.assertTrue(stats.getHighWaterMark() > 1_000L - 64L);
+    Assertions.assertTrue(stats.getHighWaterMark() <= 1_000L);
+  }
+
+  /**
+   * Statistics can be published over JMX.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMBean()
+    throws Exception
+  {
+    final var stats = CloseableStatistics.create();
+    final var c = CloseableCollection.create(IOException::new, stats);
+    c.add(new Resource());
+
+    final var server = ManagementFactory.getPlatformMBeanServer();
+    final var name = new ObjectName(
+      "com.io7m.jmulticlose:type=CloseableStatistics,name=\"test\"");
+
+    try (var ignored = stats.registerMBean("test")) {
+      assertEquals(Long.valueOf(1L), server.getAttribute(name, "Size"));
+      final var live = (TabularData) server.getAttribute(name, "LiveByClass");
+      assertEquals(1, live.size());
+    }
+
+    Assertions.assertFalse(server.isRegistered(name));
+  }
+
+  /**
+   * Combined monitors receive every event.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMonitorsAll()
+    throws Exception
+  {
+    final var counter = new CountingMonitor();
+    final var stats = CloseableStatistics.create();
+
+    Assertions.assertSame(
+      CloseableMonitors.none(), CloseableMonitors.all(List.of()));
+    Assertions.assertSame(stats, CloseableMonitors.all(List.of(stats)));
+
+    final var c =
+      CloseableTracker.create(
+        IOException::new,
+        CloseableMonitors.all(List.of(counter, stats)));
+
+    final var r0 = c.add(new TrackedResource());
+    c.addAuto(new Resource());
+    c.addAuto(new ResourceCrasher());
+    c.remove(r0);
+    Assertions.assertThrows(IOException.class, c::close);
+
+    assertEquals(5, counter.events.get());
+    assertEquals(2L, stats.getCloseCount());
+  }
+
+  private static final class CountingMonitor implements CloseableMonitorType
+  {
+    private final AtomicInteger events;
+
+    CountingMonitor()
+    {
+      this.events = new AtomicInteger();
+    }
+
+    @Override
+    public void onAdd(
+      final AutoCloseable resource)
+    {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void onRemove(
+      final AutoCloseable resource)
+    {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void onCloseFailed(
+      final AutoCloseable resource,
+      final long nanos,
+      final Exception failure)
+    {
+      this.events.incrementAndGet();
+    }
+  }
+
+  private static final class Resource implements Closeable
+  {
+    Resource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+
+    }
+  }
+
+  private static final class TrackedResource implements CloseableType
+  {
+    private volatile boolean closed;
+
+    TrackedResource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closed = true;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closed;
+    }
+  }
+
+  private static final class ResourceCrasher implements Closeable
+  {
+    ResourceCrasher()
+    {
+
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      throw new IOException("Failed");
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableTaggedTracker;
+import com.io7m.jmulticlose.core.CloseableTaggedTrackerType;
+import com.io7m.jmulticlose.core.CloseableType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableTaggedTracker}.
+ */
+
+public final class CloseableTaggedTrackerTest
+{
+  /**
+   * Closing a tag closes only that tag's resources, in reverse order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseTag()
+    throws Exception
+  {
+    final var order = new ArrayList<String>();
+    final CloseableTaggedTrackerType<String, ClosingResourceFailedException> t =
+      CloseableTaggedTracker.create();
+
+    t.addAuto("a", () -> order.add("a0"));
+    t.addAuto("a", () -> order.add("a1"));
+    t.addAuto("b", () -> order.add("b0"));
+    t.addAuto(() -> order.add("untagged"));
+
+    assertEquals(Set.of("a", "b"), t.tags());
+    assertEquals(2, t.size("a"));
+    assertEquals(4, t.size());
+
+    t.closeTag("a");
+    assertEquals(List.of("a1", "a0"), order);
+    assertEquals(Set.of("b"), t.tags());
+    assertEquals(0, t.size("a"));
+    assertEquals(2, t.size());
+
+    t.closeTag("a");
+    t.close();
+    assertEquals(4, order.size());
+    assertEquals(0, t.size());
+  }
+
+  /**
+   * Closing by predicate closes every matching tag.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseIf()
+    throws Exception
+  {
+    final var t = CloseableTaggedTracker.<Integer>create();
+    final var resources = new ArrayList<Resource>();
+    for (int tag = 0; tag < 10; ++tag) {
+      resources.add(t.add(Integer.valueOf(tag), new Resource()));
+    }
+
+    t.closeIf(tag -> tag.intValue() % 2 == 0);
+    for (int tag = 0; tag < 10; ++tag) {
+      assertEquals(tag % 2 == 0 ? 1 : 0, resources.get(tag).closes.get());
+    }
+    assertEquals(5, t.tags().size());
+  }
+
+  /**
+   * Removed resources are not closed, and empty tags are discarded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRemove()
+    throws Exception
+  {
+    final var t = CloseableTaggedTracker.<String>create();
+    final var r0 = t.add("a", new Resource());
+    final var r1 = t.add("a", new Resource());
+
+    t.remove(r0);
+    assertEquals(1, t.size("a"));
+    t.remove(r1);
+    assertEquals(Set.of(), t.tags());
+
+    t.close();
+    assertEquals(0, r0.closes.get());
+    assertEquals(0, r1.closes.get());
+  }
+
+  /**
+   * Failures from several tags are aggregated.
+   */
+
+  @Test
+  public void testFailures()
+  {
+    final CloseableTaggedTrackerType<String, IOException> t =
+      CloseableTaggedTracker.create(IOException::new);
+
+    t.addAuto("a", () -> {
+      throw new IOException("a");
+    });
+    t.addAuto("b", () -> {
+      throw new IOException("b");
+    });
+    t.addAuto("c", () -> { });
+
+    final var ex = Assertions.assertThrows(
+      IOException.class, () -> t.closeIf(tag -> !"c".equals(tag)));
+    assertEquals(2, ex.getSuppressed().length);
+    assertEquals(Set.of("c"), t.tags());
+  }
+
+  /**
+   * Additions racing against closing a tag are never left unclosed in a
+   * detached tag.
+   *
+   * @throws Exception On errors
+   */
+
+  @RepeatedTest(value = 20, failureThreshold = 1)
+  public void testAddCloseTagRace()
+    throws Exception
+  {
+    final var t = CloseableTaggedTracker.<String>create();
+    final var resources = new ConcurrentLinkedQueue<Resource>();
+
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int thread = 0; thread < 4; ++thread) {
+        executor.execute(() -> {
+          for (int index = 0; index < 500; ++index) {
+            resources.add(t.add("tenant", new Resource()));
+          }
+        });
+      }
+      for (int index = 0; index < 50; ++index) {
+        t.closeTag("tenant");
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    t.closeTag("tenant");
+    assertEquals(2000, resources.size());
+    for (final var resource : resources) {
+      assertEquals(1, resource.closes.get());
+    }
+  }
+
+  private static final class Resource implements CloseableType
+  {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closes.get() > 0;
+    }
+
+    @Override
+    public void close()
+    {
+      this.closes.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableTaskScope;
+import com.io7m.jmulticlose.core.CloseableTaskScopeType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableTaskScope}.
+ */
+
+public final class CloseableTaskScopeTest
+{
+  private static final ThreadFactory THREADS =
+    Executors.defaultThreadFactory();
+
+  /**
+   * Resources registered by subtasks are closed when the scope is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSubtaskResources()
+    throws Exception
+  {
+    final var resources = new ArrayList<Resource>();
+    for (int index = 0; index < 100; ++index) {
+      resources.add(new Resource());
+    }
+
+    final var futures = new ArrayList<Future<Integer>>();
+    final Resource direct;
+    try (CloseableTaskScopeType<ClosingResourceFailedException> scope =
+           CloseableTaskScope.create(THREADS)) {
+      direct = scope.add(new Resource());
+
+      for (int index = 0; index < resources.size(); ++index) {
+        final var resource = resources.get(index);
+        final var value = Integer.valueOf(index);
+        futures.add(scope.fork(child -> {
+          child.add(resource);
+          return value;
+        }));
+      }
+
+      scope.join();
+      assertEquals(101, scope.size());
+
+      for (int index = 0; index < futures.size(); ++index) {
+        assertEquals(index, futures.get(index).get().intValue());
+      }
+      for (final var resource : resources) {
+        Assertions.assertFalse(resource.closed);
+      }
+    }
+
+    Assertions.assertTrue(direct.closed);
+    for (final var resource : resources) {
+      Assertions.assertTrue(resource.closed);
+    }
+  }
+
+  /**
+   * Closing a scope interrupts running subtasks and waits for them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseInterrupts()
+    throws Exception
+  {
+    final var started = new CountDownLatch(1);
+    final var resource = new Resource();
+    final Future<Object> future;
+
+    try (CloseableTaskScopeType<ClosingResourceFailedException> scope =
+           CloseableTaskScope.create(THREADS)) {
+      future = scope.fork(child -> {
+        child.add(resource);
+        started.countDown();
+        Thread.sleep(TimeUnit.HOURS.toMillis(1L));
+        return null;
+      });
+      started.await();
+    }
+
+    Assertions.assertTrue(resource.closed);
+    Assertions.assertThrows(CancellationException.class, future::get);
+  }
+
+  /**
+   * Subtasks cannot be forked in a closed scope.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testForkClosed()
+    throws Exception
+  {
+    final var scope = CloseableTaskScope.create(THREADS);
+    scope.close();
+    scope.close();
+
+    Assertions.assertThrows(IllegalStateException.class, () -> {
+      scope.fork(child -> null);
+    });
+  }
+
+  /**
+   * Failures closing subtask resources are aggregated.
+   */
+
+  @Test
+  public void testFailure()
+  {
+    final var ex =
+      Assertions.assertThrows(IOException.class, () -> {
+        try (var scope = CloseableTaskScope.create(THREADS, IOException::new)) {
+          scope.fork(child -> child.add(new ResourceCrasher()));
+          scope.fork(child -> child.add(new ResourceCrasher()));
+          scope.join();
+        }
+      });
+
+    assertEquals(2, ex.getSuppressed().length);
+  }
+
+  private static final class Resource implements Closeable
+  {
+    private volatile boolean closed;
+
+    Resource()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+      this.closed = true;
+    }
+  }
+
+  private static final class ResourceCrasher implements Closeable
+  {
+    ResourceCrasher()
+    {
+
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      throw new IOException("Failed");
+    }
+  }
+}
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -185,6 +186,27 @@ public final class CloseableTrackerTest
     Assertions.assertTrue(r2.closed, "r2 closed");
   }
 
+  /**
+   * Snapshots list unclosed resources in closing order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSnapshot()
+    throws Exception
+  {
+    try (CloseableTrackerType<ClosingResourceFailedException> c = CloseableTracker.create()) {
+      assertEquals(List.of(), c.snapshot());
+      final var r0 = c.add(new Resource(0));
+      final var r1 = c.addAuto(new ResourceAuto(1));
+      final var r2 = c.add(new Resource(2));
+      assertEquals(List.of(r2, r1, r0), c.snapshot());
+      r2.close();
+      assertEquals(List.of(r1, r0), c.snapshot());
+    }
+  }
+
   private static final class Resources
   {
     Resource r0;
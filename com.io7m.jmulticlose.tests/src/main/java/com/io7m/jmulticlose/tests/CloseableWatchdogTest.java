@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableSlowClose;
+import com.io7m.jmulticlose.core.CloseableWatchdog;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CloseableWatchdog}.
+ */
+
+public final class CloseableWatchdogTest
+{
+  /**
+   * A slow close is reported repeatedly, with the stack of the closing
+   * thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSlowClose()
+    throws Exception
+  {
+    final var reports = new ConcurrentLinkedQueue<CloseableSlowClose>();
+    final var slow = new SlowResource();
+
+    try (var watchdog = CloseableWatchdog.create(
+      Duration.ofMillis(50L), Duration.ofMillis(20L), reports::add)) {
+      final var c = CloseableCollection.create(
+        ClosingResourceFailedException::new, watchdog);
+      c.add(slow);
+      c.close();
+      assertEquals(0, watchdog.inProgress());
+    }
+
+    final var list = new ArrayList<>(reports);
+    Assertions.assertTrue(list.size() >= 2, "Expected repeated reports");
+    for (int index = 0; index < list.size(); ++index) {
+      final var report = list.get(index);
+      Assertions.assertSame(slow, report.resource());
+      assertEquals(index + 1, report.sample());
+      Assertions.assertTrue(report.elapsed().toMillis() >= 50L);
+      Assertions.assertEquals(Thread.currentThread().getName(), report.thread());
+      Assertions.assertTrue(
+        report.stack()
+          .stream()
+          .anyMatch(e -> e.getClassName().equals(SlowResource.class.getName()))
+      );
+    }
+  }
+
+  /**
+   * Fast closes and failures are not reported, and leave nothing in
+   * progress.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFastClose()
+    throws Exception
+  {
+    final var reports = new ConcurrentLinkedQueue<CloseableSlowClose>();
+
+    try (var watchdog = CloseableWatchdog.create(
+      Duration.ofMillis(200L), Duration.ofMillis(10L), reports::add)) {
+      final var c = CloseableCollection.create(
+        ClosingResourceFailedException::new, watchdog);
+      for (int index = 0; index < 100; ++index) {
+        c.add(() -> { });
+      }
+      c.add(() -> {
+        throw new IOException("Failed");
+      });
+      Assertions.assertThrows(ClosingResourceFailedException.class, c::close);
+      assertEquals(0, watchdog.inProgress());
+      Thread.sleep(50L);
+    }
+
+    assertEquals(0, reports.size());
+  }
+
+  /**
+   * A close that raises an error leaves nothing in progress, and is never
+   * reported as slow.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseError()
+    throws Exception
+  {
+    final var reports = new ConcurrentLinkedQueue<CloseableSlowClose>();
+
+    try (var watchdog = CloseableWatchdog.create(
+      Duration.ofMillis(20L), Duration.ofMillis(10L), reports::add)) {
+      final var c = CloseableCollection.create(
+        ClosingResourceFailedException::new, watchdog);
+      c.add(() -> {
+        throw new AssertionError("Failed");
+      });
+      Assertions.assertThrows(AssertionError.class, c::close);
+      assertEquals(0, watchdog.inProgress());
+      Thread.sleep(100L);
+    }
+
+    assertEquals(0, reports.size());
+  }
+
+  /**
+   * Nested slow closes are each reported while they are in progress.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNestedSlowClose()
+    throws Exception
+  {
+    final var reports = new ConcurrentLinkedQueue<CloseableSlowClose>();
+    final var slow = new SlowResource();
+
+    try (var watchdog = CloseableWatchdog.create(
+      Duration.ofMillis(50L), Duration.ofMillis(20L), reports::add)) {
+      final var outer = CloseableCollection.create(
+        ClosingResourceFailedException::new, watchdog);
+      final var inner = CloseableCollection.create(
+        ClosingResourceFailedException::new, watchdog);
+      inner.add(slow);
+      outer.add(inner);
+      outer.close();
+      assertEquals(0, watchdog.inProgress());
+    }
+
+    final var list = new ArrayList<>(reports);
+    Assertions.assertTrue(
+      list.stream().anyMatch(r -> r.resource() == slow));
+    Assertions.assertTrue(
+      list.stream().anyMatch(r -> r.resource() != slow));
+  }
+
+  private static final class SlowResource implements AutoCloseable
+  {
+    SlowResource()
+    {
+
+    }
+
+    @Override
+    public void close()
+      throws InterruptedException
+    {
+      Thread.sleep(200L);
+    }
+  }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jmulticlose.tests;
+
+import com.io7m.jmulticlose.simulation.SimulatedClocks;
+import com.io7m.jmulticlose.simulation.SimulatedEnvironment;
+import com.io7m.jmulticlose.simulation.SimulatedHarness;
+import com.io7m.jmulticlose.simulation.SimulatedLatencies;
+import com.io7m.jmulticlose.simulation.SimulatedProfile;
+import com.io7m.jmulticlose.simulation.SimulatedResource;
+import com.io7m.jmulticlose.simulation.SimulatedStrategies;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the simulation harness, and for the close strategies run within
+ * it.
+ */
+
+public final class SimulationTest
+{
+  private static final SimulatedProfile FLAKY =
+    new SimulatedProfile(
+      SimulatedLatencies.mixture(
+        0.05,
+        SimulatedLatencies.exponential(Duration.ofMillis(1L)),
+        SimulatedLatencies.constant(Duration.ofMillis(200L))
+      ),
+      0.1,
+      0.01,
+      Duration.ofSeconds(1L)
+    );
+
+  /**
+   * The same seed always yields the same resources and the same outcomes.
+   * Virtual times are compared with a tolerance, as the virtual clock does
+   * not guarantee identical timings between runs.
+   */
+
+  @Test
+  public void testDeterministic()
+  {
+    final var r0 =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(1000L, SimulatedClocks.virtual()),
+        FLAKY,
+        500,
+        SimulatedStrategies.collection()
+      );
+    final var r1 =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(1000L, SimulatedClocks.virtual()),
+        FLAKY,
+        500,
+        SimulatedStrategies.collection()
+      );
+
+    assertEquals(r0.expectedFailures(), r1.expectedFailures());
+    assertEquals(r0.reportedFailures(), r1.reportedFailures());
+    assertEquals(r0.closeOrder(), r1.closeOrder());
+    assertEquals(r0.unclosed(), r1.unclosed());
+    assertEquals(r0.closedMoreThanOnce(), r1.closedMoreThanOnce());
+    assertTrue(r0.expectedFailures() > 0);
+
+    final long t0 = r0.elapsed().toNanos();
+    final long t1 = r1.elapsed().toNanos();
+    assertTrue(
+      Math.abs(t0 - t1) <= Math.max(t0, t1) / 10L,
+      "Elapsed times %s and %s are within 10%%".formatted(
+        r0.elapsed(), r1.elapsed())
+    );
+  }
+
+  /**
+   * Different seeds yield different resources.
+   */
+
+  @Test
+  public void testSeedsDiffer()
+  {
+    final var e0 =
+      SimulatedEnvironment.create(1L, SimulatedClocks.virtual());
+    final var e1 =
+      SimulatedEnvironment.create(2L, SimulatedClocks.virtual());
+
+    final var l0 =
+      e0.resources(FLAKY, 100)
+        .stream()
+        .map(SimulatedResource::latencyNanos)
+        .toList();
+    final var l1 =
+      e1.resources(FLAKY, 100)
+        .stream()
+        .map(SimulatedResource::latencyNanos)
+        .toList();
+
+    Assertions.assertNotEquals(l0, l1);
+  }
+
+  /**
+   * Collections close everything exactly once, in reverse order, and report
+   * every failure.
+   */
+
+  @Test
+  public void testCollection()
+  {
+    final var result =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(2000L, SimulatedClocks.virtual()),
+        FLAKY,
+        1000,
+        SimulatedStrategies.collection()
+      );
+
+    assertTrue(result.isSound(), result::toString);
+    assertTrue(result.isReverseOrder());
+    assertEquals(1000, result.closeOrder().size());
+  }
+
+  /**
+   * Trackers close everything exactly once, in reverse order, and report
+   * every failure.
+   */
+
+  @Test
+  public void testTracker()
+  {
+    final var result =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(3000L, SimulatedClocks.virtual()),
+        FLAKY,
+        1000,
+        SimulatedStrategies.tracker()
+      );
+
+    assertTrue(result.isSound(), result::toString);
+    assertTrue(result.isReverseOrder());
+  }
+
+  /**
+   * Trackers of plain resources close everything exactly once, in reverse
+   * order, and report every failure.
+   */
+
+  @Test
+  public void testTrackerAuto()
+  {
+    final var result =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(3500L, SimulatedClocks.virtual()),
+        FLAKY,
+        1000,
+        SimulatedStrategies.trackerAuto()
+      );
+
+    assertTrue(result.isSound(), result::toString);
+    assertTrue(result.isReverseOrder());
+  }
+
+  /**
+   * Parallel groups close everything exactly once and report every failure,
+   * although not necessarily in order.
+   */
+
+  @Test
+  public void testParallelGroup()
+  {
+    final var clock = SimulatedClocks.virtual();
+    final var result =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(4000L, clock),
+        FLAKY,
+        1000,
+        SimulatedStrategies.parallelGroup(clock.threads(Thread::new), 4)
+      );
+
+    assertTrue(result.isSound(), result::toString);
+    assertEquals(1000, result.closeOrder().size());
+  }
+
+  /**
+   * The virtual clock measures the total injected latency.
+   */
+
+  @Test
+  public void testVirtualElapsed()
+  {
+    final var environment =
+      SimulatedEnvironment.create(5000L, SimulatedClocks.virtual());
+    final var resources =
+      environment.resources(
+        SimulatedProfile.of(SimulatedLatencies.constant(Duration.ofMillis(3L))),
+        10
+      );
+
+    final var result =
+      SimulatedHarness.run(
+        environment,
+        resources,
+        SimulatedStrategies.collection()
+      );
+
+    assertEquals(Duration.ofMillis(30L), result.elapsed());
+    assertEquals(0, result.expectedFailures());
+    assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), result.closeOrder());
+  }
+
+  /**
+   * Parallel groups close resources in less virtual time than sequential
+   * strategies, because closes on different threads overlap.
+   */
+
+  @Test
+  public void testVirtualParallelFaster()
+  {
+    final var profile =
+      SimulatedProfile.of(SimulatedLatencies.constant(Duration.ofMillis(10L)));
+
+    final var sequential =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(6000L, SimulatedClocks.virtual()),
+        profile,
+        100,
+        SimulatedStrategies.collection()
+      );
+
+    final var clock = SimulatedClocks.virtual();
+    final var parallel =
+      SimulatedHarness.run(
+        SimulatedEnvironment.create(6000L, clock),
+        profile,
+        100,
+        SimulatedStrategies.parallelGroup(clock.threads(Thread::new), 4)
+      );
+
+    assertTrue(parallel.isSound(), parallel::toString);
+    assertEquals(Duration.ofMillis(1000L), sequential.elapsed());
+    assertTrue(
+      parallel.elapsed().compareTo(Duration.ofMillis(250L)) >= 0,
+      parallel::toString
+    );
+    assertTrue(
+      parallel.elapsed().compareTo(Duration.ofMillis(500L)) < 0,
+      parallel::toString
+    );
+  }
+
+  /**
+   * Consecutive simulations on the same virtual clock measure only their
+   * own closes.
+   */
+
+  @Test
+  public void testVirtualJoin()
+  {
+    final var clock = SimulatedClocks.virtual();
+    final var environment = SimulatedEnvironment.create(7000L, clock);
+    final var profile =
+      SimulatedProfile.of(SimulatedLatencies.constant(Duration.ofMillis(10L)));
+
+    final var parallel =
+      SimulatedHarness.run(
+        environment,
+        environment.resources(profile, 8),
+        SimulatedStrategies.parallelGroup(clock.threads(Thread::new), 8)
+      );
+    final var sequential =
+      SimulatedHarness.run(
+        environment,
+        environment.resources(profile, 3),
+        SimulatedStrategies.collection()
+      );
+
+    assertEquals(Duration.ofMillis(10L), parallel.elapsed());
+    assertEquals(Duration.ofMillis(30L), sequential.elapsed());
+  }
+
+  /**
+   * Invalid profiles are rejected.
+   */
+
+  @Test
+  public void testProfileInvalid()
+  {
+    final var latency = SimulatedLatencies.constant(Duration.ZERO);
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SimulatedProfile(latency, 1.5, 0.0, Duration.ZERO);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SimulatedProfile(latency, 0.0, Double.NaN, Duration.ZERO);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      SimulatedLatencies.constant(Duration.ofMillis(-1L));
+    });
+  }
+}
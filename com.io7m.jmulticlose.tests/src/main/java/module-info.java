@@ -21,8 +21,10 @@
 open module com.io7m.jmulticlose.tests
 {
   requires com.io7m.jmulticlose.core;
+  requires com.io7m.jmulticlose.simulation;
 
   requires org.slf4j;
+  requires java.management;
 
   requires transitive org.junit.jupiter.api;
   requires transitive org.junit.jupiter.engine;